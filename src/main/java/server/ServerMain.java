@@ -2,29 +2,48 @@ package server;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import server.config.ServerConfig;
+import server.core.Bulkhead;
 import server.core.NetAcceptor;
 import server.filter.BodyLimitFilter;
+import server.filter.CacheControlFilter;
+import server.filter.CompressionFilter;
 import server.filter.ContentTypeFilter;
+import server.filter.DeadlineFilter;
 import server.filter.ExceptionMappingFilter;
 import server.filter.Filter;
 import server.filter.HeadFilter;
 import server.filter.LoggingFilter;
 import server.filter.PathTraversalFilter;
 import server.filter.SessionFilter;
+import server.http.CachePolicy;
 import server.route.AuthHandler;
+import server.route.Handler;
+import server.route.MetricsHandler;
 import server.route.PostCreationHandler;
 import server.route.PostDeleteHandler;
 import server.route.PostListHandler;
-import server.route.RoutedPostHandler;
 import server.route.Router;
 import server.route.SimplePostHandler;
 import server.route.StaticFileHandler;
+import server.route.StaticRouteIndex;
+import server.service.AuthService;
+import server.service.LocalSessionStore;
 import server.service.PostService;
+import server.service.RemoteSessionStore;
+import server.service.SessionManager;
+import server.service.SessionStore;
+import server.service.SessionTokenService;
+import server.service.UserRepository;
+import server.util.ContentManifest;
 import server.util.Logger;
+import server.util.MetricsSource;
 
 /**
  * 서버 실행 진입점.
@@ -35,42 +54,92 @@ public final class ServerMain {
     public static void main(String[] args) {
         ensureWebRoot(); // 기본 www 디렉터리와 index.html 생성
         // 정적 파일을 처리하는 핸들러와 라우터를 묶어둔다.
-        StaticFileHandler staticHandler = new StaticFileHandler(ServerConfig.WEB_ROOT); // www 디렉토리가 루트가 됨
+        StaticRouteIndex staticIndex = new StaticRouteIndex(ServerConfig.WEB_ROOT); // www 디렉토리를 미리 색인
+        staticIndex.startWatching();
+        StaticFileHandler staticHandler = new StaticFileHandler(staticIndex);
+        prewarmFrontPage(staticHandler);
         SimplePostHandler defaultPostHandler = new SimplePostHandler(); // POST 요청을 단순히 에코해주는 핸들러
-        AuthHandler authHandler = new AuthHandler(); // 로그인/회원가입 처리 핸들러
+        // 사용자/세션 서비스는 하나만 만들어 필터와 핸들러가 함께 쓴다.
+        // SESSION_STORE_NODES 가 있으면 세션을 공유 저장소 노드에 나눠 두어 어느 인스턴스에서나 조회되게 한다.
+        SessionStore sessionStore = ServerConfig.SESSION_STORE_NODES.isEmpty()
+                ? new LocalSessionStore(Paths.get("sessions"))
+                : new RemoteSessionStore(ServerConfig.SESSION_STORE_NODES);
+        SessionManager sessionManager = new SessionManager(sessionStore);
+        // STATELESS_SESSIONS 면 서버 측 세션 대신 서명 토큰을 세션 쿠키로 발급한다. 로그아웃한 토큰은 같은 저장소에 남겨 모든 노드가 거절한다.
+        SessionTokenService tokenService = ServerConfig.STATELESS_SESSIONS ? new SessionTokenService(sessionStore) : null;
+        UserRepository userRepository = new UserRepository();
+        AuthService authService = new AuthService(userRepository, sessionManager, tokenService);
+        AuthHandler authHandler = new AuthHandler(authService); // 로그인/회원가입 처리 핸들러
         PostService postService = new PostService(); // 게시물 관리를 담당하는 서비스
+        postService.startWatching();
         PostCreationHandler postCreationHandler = new PostCreationHandler(postService);
         PostDeleteHandler postDeleteHandler = new PostDeleteHandler(postService);
         PostListHandler postListHandler = new PostListHandler(postService);
 
-        RoutedPostHandler routedPostHandler = new RoutedPostHandler(defaultPostHandler);
-        routedPostHandler.register("/login", authHandler);
-        routedPostHandler.register("/register", authHandler);
-        routedPostHandler.register("/logout", authHandler);
-        routedPostHandler.register("/posts/create", postCreationHandler);
-        routedPostHandler.register("/posts/delete", postDeleteHandler);
-        routedPostHandler.register("/posts/list", postListHandler);
-
-        Router router = new Router(staticHandler, routedPostHandler);
+        // 라우트별 처리 시한. 시한을 넘긴 요청은 503/504 로 끊고 남은 작업은 협조적으로 중단한다.
+        DeadlineFilter deadlineFilter = new DeadlineFilter(ServerConfig.DEFAULT_DEADLINE_MILLIS, Map.of(
+                "/login", ServerConfig.AUTH_DEADLINE_MILLIS,
+                "/register", ServerConfig.AUTH_DEADLINE_MILLIS,
+                "/logout", ServerConfig.AUTH_DEADLINE_MILLIS,
+                "/posts/create", ServerConfig.POST_WRITE_DEADLINE_MILLIS,
+                "/posts/delete", ServerConfig.POST_WRITE_DEADLINE_MILLIS,
+                "/posts/list", ServerConfig.POST_LIST_DEADLINE_MILLIS
+        ));
         List<Filter> filters = List.of(
                 new LoggingFilter(),
+                new CompressionFilter(ServerConfig.COMPRESSION_MIN_SIZE),
+                new CacheControlFilter(CachePolicy.load(ServerConfig.CACHE_POLICY_PATH)),
                 new ExceptionMappingFilter("/"),
+                deadlineFilter,
                 new SessionFilter(
+                        authService,
                         Set.of("/login", "/login.html", "/register", "/register.html"),
                         Set.of("/login", "/register"),
                         "/login.html"
                 ),
                 new BodyLimitFilter(ServerConfig.MAX_BODY_SIZE, "/"),
                 ContentTypeFilter.withDefaults("/"),
-                new PathTraversalFilter(ServerConfig.WEB_ROOT, "/"),
+                new PathTraversalFilter(ServerConfig.WEB_ROOT, "/", staticIndex),
                 new HeadFilter()
         );
+        // 요청 종류별로 실행기를 분리하여 한 종류가 몰려도 다른 요청의 스레드를 빼앗지 않도록 한다.
+        Bulkhead staticBulkhead = new Bulkhead("static", ServerConfig.STATIC_BULKHEAD_THREADS,
+                ServerConfig.STATIC_BULKHEAD_QUEUE, ServerConfig.STATIC_BULKHEAD_PRIORITY);
+        Bulkhead authBulkhead = new Bulkhead("auth", ServerConfig.AUTH_BULKHEAD_THREADS,
+                ServerConfig.AUTH_BULKHEAD_QUEUE, ServerConfig.AUTH_BULKHEAD_PRIORITY);
+        Bulkhead postWriteBulkhead = new Bulkhead("post-write", ServerConfig.POST_WRITE_BULKHEAD_THREADS,
+                ServerConfig.POST_WRITE_BULKHEAD_QUEUE, ServerConfig.POST_WRITE_BULKHEAD_PRIORITY);
+        List<Bulkhead> bulkheads = List.of(staticBulkhead, authBulkhead, postWriteBulkhead);
+        Handler auth = authBulkhead.wrap(authHandler);
+        List<MetricsSource> metrics = new ArrayList<>(List.of(
+                staticBulkhead, authBulkhead, postWriteBulkhead, deadlineFilter, sessionManager, userRepository,
+                postService, staticHandler));
+        if (tokenService != null) {
+            metrics.add(tokenService);
+        }
+        // 라우트 트리와 라우트별 필터 체인은 시작 시 한 번 만들어지고 이후에는 바뀌지 않는다.
+        Router router = Router.builder()
+                .filters(filters)
+                .post("/login", auth)
+                .post("/register", auth)
+                .post("/logout", auth)
+                .post("/posts/create", postWriteBulkhead.wrap(postCreationHandler))
+                .post("/posts/delete", postWriteBulkhead.wrap(postDeleteHandler))
+                .post("/posts/list", staticBulkhead.wrap(postListHandler))
+                .get("/server/metrics", new MetricsHandler(metrics))
+                .fallback("GET", staticBulkhead.wrap(staticHandler))
+                .fallback("POST", defaultPostHandler)
+                .build();
         // NetAcceptor가 실질적으로 소켓 수락과 워커 스케줄링을 담당한다.
-        NetAcceptor acceptor = new NetAcceptor(router, filters);
+        NetAcceptor acceptor = new NetAcceptor(router);
         // JVM 종료 시점에도 서버가 깔끔히 내려가도록 훅을 등록한다.
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
                 acceptor.stop();
+                bulkheads.forEach(Bulkhead::shutdown);
+                authService.close(); // write-behind 로 밀린 세션 변경과 로그인 시각을 파일에 반영
+                staticIndex.close();
+                postService.close();
             } catch (IOException e) {
                 Logger.error("Error during shutdown", e);
             }
@@ -82,6 +151,21 @@ public final class ServerMain {
         }
     }
 
+    /**
+     * content_manifest.json 에 나열된 자산을 미리 캐시에 올리고 index.html 에 preload 힌트를 등록한다.
+     */
+    private static void prewarmFrontPage(StaticFileHandler staticHandler) {
+        try {
+            List<ContentManifest.Item> assets = new ArrayList<>();
+            // 프론트 페이지는 매니페스트 자체를 가장 먼저 불러온다.
+            assets.add(new ContentManifest.Item("/" + ServerConfig.CONTENT_MANIFEST_PATH.getFileName(), "json"));
+            assets.addAll(ContentManifest.read(ServerConfig.CONTENT_MANIFEST_PATH));
+            staticHandler.preload("/index.html", assets);
+        } catch (IOException e) {
+            Logger.error("Failed to read content manifest", e);
+        }
+    }
+
     /**
      * www 디렉터리가 없으면 생성하고, 기본 index.html 이 없을 경우 생성한다.
      */
@@ -2,6 +2,7 @@ package server.config;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * 서버에서 공통으로 사용하는 기본 설정 값들을 모아둔 클래스.
@@ -20,6 +21,31 @@ public final class ServerConfig {
     /** 워커 스레드 개수(코어 수 * 2, 최소 4개) */
     public static final int WORKER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
 
+    /** 정적 파일/조회용 bulkhead 의 스레드 수, 대기열 길이, 스레드 우선순위 */
+    public static final int STATIC_BULKHEAD_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    public static final int STATIC_BULKHEAD_QUEUE = 512;
+    public static final int STATIC_BULKHEAD_PRIORITY = Thread.NORM_PRIORITY + 1;
+
+    /** 로그인/회원가입 bulkhead (비밀번호 해시 + 사용자 파일 I/O) */
+    public static final int AUTH_BULKHEAD_THREADS = 4;
+    public static final int AUTH_BULKHEAD_QUEUE = 64;
+    public static final int AUTH_BULKHEAD_PRIORITY = Thread.NORM_PRIORITY;
+
+    /** 게시글 작성/삭제 bulkhead (파일 쓰기) */
+    public static final int POST_WRITE_BULKHEAD_THREADS = 2;
+    public static final int POST_WRITE_BULKHEAD_QUEUE = 32;
+    public static final int POST_WRITE_BULKHEAD_PRIORITY = Thread.NORM_PRIORITY - 1;
+
+    /** 요청 처리 시한(밀리초). 라우트별 값이 없으면 기본값을 사용한다. */
+    public static final long DEFAULT_DEADLINE_MILLIS = 10_000;
+    public static final long AUTH_DEADLINE_MILLIS = 3_000;
+    public static final long POST_WRITE_DEADLINE_MILLIS = 5_000;
+    public static final long POST_LIST_DEADLINE_MILLIS = 3_000;
+
+    /** /posts/list 에 limit 가 없을 때 한 페이지의 글 수와, 요청할 수 있는 최대 글 수 */
+    public static final int POST_LIST_DEFAULT_LIMIT = 50;
+    public static final int POST_LIST_MAX_LIMIT = 500;
+
     /** 소켓 읽기 타임아웃(밀리초) */
     public static final int SOCKET_TIMEOUT_MILLIS = 15_000;
 
@@ -60,4 +86,134 @@ public final class ServerConfig {
 
     /** 허용할 TLS 프로토콜 목록 */
     public static final String[] ENABLED_PROTOCOLS = {"TLSv1.3", "TLSv1.2"};
+
+    /** 이 크기(바이트) 미만의 응답은 압축하지 않는다 */
+    public static final int COMPRESSION_MIN_SIZE = 1024;
+
+    /** Deflater 압축 레벨(1~9) */
+    public static final int COMPRESSION_LEVEL = 6;
+
+    /** 재사용할 Deflater 풀 크기(인코딩별) */
+    public static final int DEFLATER_POOL_SIZE = 16;
+
+    /** 정적 파일 캐시(원본 + 압축본)의 최대 용량(바이트) */
+    public static final long STATIC_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+
+    /** 이보다 큰 정적 파일의 원본은 캐시하지 않고 매번 디스크에서 읽는다 */
+    public static final int STATIC_CACHE_MAX_FILE_BYTES = 1024 * 1024;
+
+    /** Cache-Control 규칙 파일. 없으면 CachePolicy 기본 규칙을 사용한다 */
+    public static final Path CACHE_POLICY_PATH = Paths.get("config", "cache-policy.conf");
+
+    /** AssetFingerprinter 가 파일명에 붙이는 콘텐츠 해시 길이(16진수 자리 수). CachePolicy 의 {hash} 도 이 길이만 받는다 */
+    public static final int ASSET_HASH_LENGTH = 10;
+
+    /** 프론트 페이지가 불러올 콘텐츠 목록 */
+    public static final Path CONTENT_MANIFEST_PATH = WEB_ROOT.resolve("content_manifest.json");
+
+    /** 세션 변경(생성/삭제)을 모아 파일에 반영하는 주기(밀리초) */
+    public static final long SESSION_FLUSH_INTERVAL_MILLIS = 500;
+
+    /** 밀린 세션 변경이 이 개수를 넘으면 주기를 기다리지 않고 바로 반영한다 */
+    public static final int SESSION_FLUSH_BATCH_SIZE = 64;
+
+    /** 만료 세션 정리 주기(밀리초) */
+    public static final long SESSION_SWEEP_INTERVAL_MILLIS = 1_000;
+
+    /** 정리 한 번에 잠금을 잡고 꺼내는 최대 세션 수. 넘으면 잠금을 풀었다가 이어서 처리한다 */
+    public static final int SESSION_SWEEP_BATCH_SIZE = 128;
+
+    /** 세션 유지 시간(분) */
+    public static final long SESSION_DURATION_MINUTES = 120;
+
+    /**
+     * true 면 서버에 세션을 저장하지 않고 HMAC 서명 토큰을 세션 쿠키로 발급한다.
+     * 여러 인스턴스가 같은 키 파일(SESSION_KEYS_PATH)을 쓰면 어느 노드에서나 검증된다.
+     */
+    public static final boolean STATELESS_SESSIONS = false;
+
+    /** 토큰 서명 키 파일("키ID base64키" 한 줄에 하나, 첫 줄이 서명용). 없으면 메모리에서 키를 만들어 교체한다 */
+    public static final Path SESSION_KEYS_PATH = Paths.get("config", "session-keys");
+
+    /** 서명 키 교체 주기(분)와 검증용으로 남겨 둘 키 개수(교체 주기 * 개수 >= 세션 유지 시간) */
+    public static final long SESSION_KEY_ROTATION_MINUTES = 60;
+    public static final int SESSION_KEYS_RETAINED = 3;
+
+    /**
+     * 토큰 모드에서 세션 저장소의 폐기 목록을 다시 읽어 오는 주기(밀리초).
+     * 다른 노드에서 로그아웃한 토큰은 최대 이 기간만큼 더 통할 수 있다.
+     */
+    public static final long SESSION_REVOCATION_REFRESH_MILLIS = 5_000;
+
+    /** 없는 세션 ID 로 확인된 쿠키를 기억해 둘 최대 개수와 기간(밀리초) */
+    public static final int NEGATIVE_SESSION_CACHE_SIZE = 10_000;
+    public static final long NEGATIVE_SESSION_CACHE_TTL_MILLIS = 60_000;
+
+    /** true 면 요청이 올 때마다 세션 만료 시각을 "지금 + SESSION_DURATION_MINUTES" 로 늦춘다(서버 측 세션만 해당) */
+    public static final boolean SESSION_SLIDING_EXPIRATION = true;
+
+    /** 만료 시각을 이 간격(초) 이상 늦출 수 있을 때만 갱신한다. 요청마다 쓰기 잠금을 잡지 않도록 하기 위함 */
+    public static final long SESSION_TOUCH_GRANULARITY_SECONDS = 60;
+
+    /** 늦춰진 만료 시각을 파일에 반영하는 주기(밀리초). 세션당 이 주기에 최대 한 번만 쓴다 */
+    public static final long SESSION_TOUCH_FLUSH_INTERVAL_MILLIS = 60_000;
+
+    /**
+     * 공유 세션 저장소 노드("host:port"). 비어 있으면 노드 안의 sessions/ 디렉토리를 쓴다.
+     * 여러 인스턴스가 같은 목록을 쓰면 세션이 일관 해싱으로 노드에 나뉘어 어느 인스턴스에서나 조회된다.
+     */
+    public static final List<String> SESSION_STORE_NODES = List.of();
+
+    /** 세션 저장소 노드 연결/응답 제한 시간(밀리초) */
+    public static final int SESSION_STORE_TIMEOUT_MILLIS = 200;
+
+    /** 해시 링에 노드 하나당 올리는 가상 노드 수. 많을수록 세션이 고르게 나뉜다 */
+    public static final int SESSION_STORE_VIRTUAL_NODES = 128;
+
+    /** 노드별로 열어 두고 재사용할 최대 연결 수 */
+    public static final int SESSION_STORE_POOL_SIZE = 8;
+
+    /** 원격 세션 조회 결과를 노드 안에 잠시 들고 있을 최대 개수와 기간(밀리초). 다른 노드의 로그아웃은 이 기간만큼 늦게 보인다 */
+    public static final int SESSION_NEAR_CACHE_SIZE = 10_000;
+    public static final long SESSION_NEAR_CACHE_TTL_MILLIS = 1_000;
+
+    /** 메모리에 캐시해 둘 최대 사용자 레코드 수(없는 사용자 기록 포함) */
+    public static final int USER_CACHE_SIZE = 10_000;
+
+    /** 로그인 시각 변경을 모아 사용자 파일에 쓰는 주기(밀리초). 주기마다 사용자당 한 번만 쓴다 */
+    public static final long USER_LAST_LOGIN_FLUSH_INTERVAL_MILLIS = 1_000;
+
+    /** 사용자 데이터베이스(users.dat, users.idx) 디렉토리 */
+    public static final Path USER_DATABASE_DIR = Paths.get("userdb");
+
+    /** 예전 형식(사용자별 파일) 디렉토리. 데이터베이스가 비어 있으면 시작할 때 가져온다 */
+    public static final Path LEGACY_USERS_DIR = Paths.get("users");
+
+    /** 사용자 색인의 처음 슬롯 수. 70% 가 차면 두 배로 늘린다 */
+    public static final int USER_INDEX_INITIAL_CAPACITY = 1024;
+
+    /** 사용자 데이터 파일을 캐시할 4KB 페이지 수 */
+    public static final int USER_PAGE_CACHE_PAGES = 1024;
+
+    /** PBKDF2-HMAC-SHA256 반복 횟수(OWASP 권장값). 바꾸면 기존 사용자는 다음 로그인 때 다시 해시된다 */
+    public static final int PASSWORD_HASH_ITERATIONS = 600_000;
+
+    /** 비밀번호 해시 전용 스레드 수. 로그인이 몰려도 나머지 코어는 다른 요청이 쓴다 */
+    public static final int PASSWORD_HASH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * 비밀번호 해시 대기열 길이. 가득 차면 바로 503 으로 거절한다.
+     * 시한 안에 끝나지 못할 것으로 어림되는 해시는 자리가 남아 있어도 넣지 않고 503 으로 거절하므로(PasswordHasher),
+     * 이 값은 시한과 상관없이 몰린 요청을 잠시 받아 둘 상한이다.
+     */
+    public static final int PASSWORD_HASH_QUEUE = 32;
+
+    /** 비밀번호 해시 스레드 우선순위. 일반 요청 처리보다 한 단계 낮춘다 */
+    public static final int PASSWORD_HASH_PRIORITY = Thread.NORM_PRIORITY - 1;
+
+    /** 사용자 이름 블룸 필터가 처음부터 담을 수 있게 잡는 최소 이름 수 */
+    public static final long USERNAME_FILTER_MIN_ENTRIES = 100_000;
+
+    /** 사용자 이름 블룸 필터의 목표 오탐률 */
+    public static final double USERNAME_FILTER_FALSE_POSITIVE_RATE = 0.01;
 }
@@ -0,0 +1,105 @@
+package server.core;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.http.ErrorResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.Handler;
+import server.util.MetricsSource;
+
+/**
+ * 작업 종류(정적 파일, 인증, 게시글 쓰기 등)별로 분리된 실행기.
+ * 스레드 수와 대기열 길이가 고정되어 있어 한 종류의 요청이 몰려도 다른 종류의 스레드를 빼앗지 못한다.
+ * 대기열까지 가득 차면 기다리게 하지 않고 즉시 503 으로 거절한다.
+ * 응답을 소켓에 쓰는 일은 ConnectionWorker 가 연결 executor 에서 하므로, 스레드는 핸들러 실행 동안만 쓰이고
+ * 느리게 읽는 클라이언트가 있어도 용량이 줄지 않는다.
+ */
+public final class Bulkhead implements MetricsSource {
+    private final String name;
+    private final ThreadPoolExecutor pool;
+    private final int queueCapacity;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+
+    public Bulkhead(String name, int threads, int queueCapacity, int priority) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name, priority),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * 핸들러를 이 bulkhead 에서 실행하도록 감싼다. 포화 상태면 503 응답을 돌려준다.
+     */
+    public Handler wrap(Handler handler) {
+        Handler offloaded = Handler.offload(handler, pool);
+        return new Handler() {
+            @Override
+            public HttpResponse handle(HttpRequest request) throws IOException {
+                return handler.handle(request);
+            }
+
+            @Override
+            public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
+                try {
+                    CompletionStage<HttpResponse> stage = offloaded.handleAsync(request);
+                    peakQueued.accumulateAndGet(pool.getQueue().size(), Math::max);
+                    return stage;
+                } catch (RejectedExecutionException e) {
+                    rejected.incrementAndGet();
+                    return CompletableFuture.completedFuture(
+                            ErrorResponses.serviceUnavailable(request, "요청이 많아 잠시 후 다시 시도해 주세요."));
+                }
+            }
+        };
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        String prefix = "bulkhead." + name + ".";
+        out.put(prefix + "threads", String.valueOf(pool.getMaximumPoolSize()));
+        out.put(prefix + "active", String.valueOf(pool.getActiveCount()));
+        out.put(prefix + "queued", String.valueOf(pool.getQueue().size()));
+        out.put(prefix + "queue_capacity", String.valueOf(queueCapacity));
+        out.put(prefix + "queue_peak", String.valueOf(peakQueued.get()));
+        out.put(prefix + "completed", String.valueOf(pool.getCompletedTaskCount()));
+        out.put(prefix + "rejected", String.valueOf(rejected.get()));
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name, int priority) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "bulkhead-" + name + "-" + seq.incrementAndGet());
+            t.setPriority(priority);
+            return t;
+        };
+    }
+}
@@ -1,8 +1,6 @@
 package server.core;
 
 import server.config.ServerConfig;
-import server.filter.Filter;
-import server.filter.FilterChain;
 import server.http.ConnectionPolicy;
 import server.http.HttpParseException;
 import server.http.HttpRequest;
@@ -19,25 +17,35 @@ import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 단일 TCP 연결에 대한 HTTP 요청/응답 처리를 담당하는 워커.
  * keep-alive를 고려하여 하나의 소켓에서 여러 요청을 순차적으로 처리한다.
+ *
+ * 핸들러가 비동기로 처리되면 워커 스레드는 응답을 기다리지 않고 반환된다.
+ * 응답 stage 가 완료되면 응답 기록과 다음 요청 읽기를 다시 연결 executor 에 맡긴다.
+ * stage 를 완료한 스레드(bulkhead 워커, 시한 초과 시 JDK 의 공용 타이머 스레드)에서 소켓에 쓰면
+ * 느리게 읽는 클라이언트 하나가 그 스레드를 붙잡으므로, 소켓 입출력은 항상 연결 executor 에서만 한다.
  */
 public final class ConnectionWorker implements Runnable {
 
     private final Socket socket;
     private final Router router;
-    private final List<Filter> filters;
+    private final Executor executor;
     private final HttpRequestParser parser;
     private final ConnectionPolicy policy;
     private final HttpResponseWriter writer;
+    private BufferedInputStream in;
+    private OutputStream out;
+    private int handledRequests;
 
-    public ConnectionWorker(Socket socket, Router router, List<Filter> filters) {
+    public ConnectionWorker(Socket socket, Router router, Executor executor) {
         this.socket = socket;
         this.router = router;
-        this.filters = filters;
+        this.executor = executor;
         this.parser = new HttpRequestParser();
         this.policy = new ConnectionPolicy();
         this.writer = new HttpResponseWriter();
@@ -45,14 +53,15 @@ public final class ConnectionWorker implements Runnable {
 
     @Override
     public void run() {
-        try (Socket s = socket) {
-            // 읽기 타임아웃을 걸어 유휴 연결이 무한정 대기하지 않도록 한다.
-            s.setSoTimeout(ServerConfig.SOCKET_TIMEOUT_MILLIS);
-            BufferedInputStream in = new BufferedInputStream(s.getInputStream());
-            OutputStream out = s.getOutputStream();
-            int handledRequests = 0;
-            boolean keepAlive;
-            do {
+        Socket s = socket;
+        try {
+            if (in == null) {
+                // 읽기 타임아웃을 걸어 유휴 연결이 무한정 대기하지 않도록 한다.
+                s.setSoTimeout(ServerConfig.SOCKET_TIMEOUT_MILLIS);
+                in = new BufferedInputStream(s.getInputStream());
+                out = s.getOutputStream();
+            }
+            while (true) {
                 HttpRequest request;
                 try {
                     // 요청 라인/헤더/바디를 순서대로 파싱한다.
@@ -75,31 +84,86 @@ public final class ConnectionWorker implements Runnable {
                     break;
                 }
 
-                HttpResponse response;
-                try {
-                    FilterChain chain = new FilterChain(filters, router);
-                    response = chain.doFilter(request);
-                } catch (Exception e) {
-                    Logger.error("Handler failure", e);
-                    response = HttpResponse.builder(500, "Internal Server Error")
-                            .header("Content-Type", "text/plain; charset=UTF-8")
-                            .body("Internal Server Error".getBytes(StandardCharsets.UTF_8))
-                            .build();
+                CompletableFuture<HttpResponse> pending = dispatch(request);
+                if (!pending.isDone()) {
+                    // 핸들러가 아직 처리 중이면 스레드를 반납하고, 완료되면 연결 executor 에서 이어서 처리한다.
+                    pending.whenCompleteAsync((response, error) -> resume(request, response, error), this::execute);
+                    return;
+                }
+                if (!complete(request, pending.getNow(null), null)) {
+                    break;
                 }
-                handledRequests++;
-                keepAlive = policy.shouldKeepAlive(request, handledRequests);
-                // 기존 응답 객체를 기반으로 keep-alive 헤더 등을 보강한다.
-                HttpResponse.Builder builder = HttpResponse.builder(response.statusCode(), response.reasonPhrase());
-                response.headers().forEach(builder::header);
-                builder.body(response.body());
-                policy.applyResponseHeaders(builder, keepAlive);
-                HttpResponse finalResponse = builder.build();
-                boolean includeBody = !"HEAD".equalsIgnoreCase(request.method());
-                writer.write(out, finalResponse, includeBody);
-            } while (keepAlive);
+            }
         } catch (IOException e) {
             Logger.error("IO error on connection", e);
         }
+        close();
+    }
+
+    private CompletableFuture<HttpResponse> dispatch(HttpRequest request) {
+        try {
+            return router.route(request).toCompletableFuture();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 비동기 응답이 완료되었을 때 연결 executor 에서 호출된다. 응답을 기록한 뒤 같은 스레드에서 다음 요청을 읽는다.
+     */
+    private void resume(HttpRequest request, HttpResponse response, Throwable error) {
+        try {
+            if (!complete(request, response, error)) {
+                close();
+                return;
+            }
+        } catch (IOException e) {
+            Logger.error("IO error on connection", e);
+            close();
+            return;
+        }
+        run();
+    }
+
+    /** 이어서 처리할 작업을 연결 executor 에 넘긴다. 서버 종료 중이라 받지 않으면 연결을 닫는다. */
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            close();
+        }
+    }
+
+    /**
+     * 응답을 기록하고 keep-alive 여부를 반환한다.
+     */
+    private boolean complete(HttpRequest request, HttpResponse response, Throwable error) throws IOException {
+        if (error != null || response == null) {
+            Logger.error("Handler failure", error);
+            response = HttpResponse.builder(500, "Internal Server Error")
+                    .header("Content-Type", "text/plain; charset=UTF-8")
+                    .body("Internal Server Error".getBytes(StandardCharsets.UTF_8))
+                    .build();
+        }
+        handledRequests++;
+        boolean keepAlive = policy.shouldKeepAlive(request, handledRequests);
+        // 기존 응답 객체를 기반으로 keep-alive 헤더 등을 보강한다.
+        HttpResponse.Builder builder = HttpResponse.builder(response.statusCode(), response.reasonPhrase());
+        response.headers().forEach(builder::header);
+        builder.body(response.body());
+        policy.applyResponseHeaders(builder, keepAlive);
+        HttpResponse finalResponse = builder.build();
+        boolean includeBody = !"HEAD".equalsIgnoreCase(request.method());
+        writer.write(out, finalResponse, includeBody);
+        return keepAlive;
+    }
+
+    private void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            Logger.error("Failed to close connection", e);
+        }
     }
 
     private void sendError(OutputStream out, int status, String reason, String message) {
@@ -6,7 +6,6 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
-import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -15,7 +14,6 @@ import javax.net.ssl.SSLServerSocket;
 import javax.net.ssl.SSLServerSocketFactory;
 
 import server.config.ServerConfig;
-import server.filter.Filter;
 import server.route.Router;
 import server.util.Logger;
 import server.util.SslContextProvider;
@@ -26,14 +24,12 @@ import server.util.SslContextProvider;
  */
 public final class NetAcceptor implements Closeable {
     private final Router router;
-    private final List<Filter> filters;
     private volatile boolean running;
     private ExecutorService executor;
     private ServerSocket serverSocket;
 
-    public NetAcceptor(Router router, List<Filter> filters) {
+    public NetAcceptor(Router router) {
         this.router = router;
-        this.filters = List.copyOf(filters);
     }
 
     public void start() throws IOException {
@@ -53,7 +49,7 @@ public final class NetAcceptor implements Closeable {
                 try {
                     // 새 연결을 수락하면 워커에게 처리하도록 맡긴다.
                     Socket socket = serverSocket.accept();
-                    executor.execute(new ConnectionWorker(socket, router, filters));
+                    executor.execute(new ConnectionWorker(socket, router, executor));
                 } catch (SocketTimeoutException e) {
                     // 1초마다 깨어나서 running 플래그를 점검한다.
                 } catch (IOException e) {
@@ -6,7 +6,13 @@ import server.http.HttpResponse;
 import static server.http.ErrorResponses.*;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
+/**
+ * Content-Length 가 상한을 넘거나 chunked 본문인 요청을 핸들러에 닿기 전에 거절한다.
+ * GET/DELETE 라도 본문을 실어 보낼 수 있으므로 메서드와 관계없이 모든 라우트에 붙는다.
+ */
 public final class BodyLimitFilter implements Filter {
   private final long maxBodyBytes;
   private final String home;
@@ -17,6 +23,17 @@ public final class BodyLimitFilter implements Filter {
   }
 
   @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+    HttpResponse rejected = check(req);
+    return rejected != null ? rejected : chain.doFilter(req);
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    HttpResponse rejected = check(req);
+    return rejected != null ? CompletableFuture.completedFuture(rejected) : chain.doFilterAsync(req);
+  }
+
+  /** 통과하면 null, 거부하면 오류 응답을 돌려준다. */
+  private HttpResponse check(HttpRequest req) {
     String te = Optional.ofNullable(req.header("transfer-encoding")).orElse("");
     
     if (!te.isEmpty() && te.contains("chunked")) {
@@ -35,6 +52,6 @@ public final class BodyLimitFilter implements Filter {
     if (len > maxBodyBytes) {
       return payloadTooLargeAlert(req, "요청 본문이 너무 큽니다.", home);
     }
-    return chain.doFilter(req);
+    return null;
   }
 }
@@ -0,0 +1,68 @@
+package server.filter;
+
+import server.http.CachePolicy;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * GET/HEAD 의 성공 응답(200, 304)에 CachePolicy 규칙대로 Cache-Control/Expires 를 붙인다.
+ * 그 외 메서드(API 호출)와 오류 응답은 캐시되지 않도록 no-store 로 표시한다.
+ * 핸들러가 직접 Cache-Control 을 지정했다면 그대로 둔다.
+ */
+public final class CacheControlFilter implements Filter {
+  private final CachePolicy policy;
+
+  public CacheControlFilter(CachePolicy policy) {
+    this.policy = policy;
+  }
+
+  @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+    return applyPolicy(req, chain.doFilter(req));
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    return chain.doFilterAsync(req).thenApply(res -> applyPolicy(req, res));
+  }
+
+  private HttpResponse applyPolicy(HttpRequest req, HttpResponse res) {
+    if (header(res, "Cache-Control") != null) {
+      return res;
+    }
+
+    String method = req.method();
+    int status = res.statusCode();
+    boolean cacheable = ("GET".equals(method) || "HEAD".equals(method)) && (status == 200 || status == 304);
+
+    HttpResponse.Builder builder = HttpResponse.builder(res.statusCode(), res.reasonPhrase());
+    res.headers().forEach(builder::header);
+    builder.body(res.body());
+    if (!cacheable) {
+      return builder.header("Cache-Control", "no-store").build();
+    }
+    CachePolicy.Rule rule = policy.match(req.path(), header(res, "Content-Type"));
+    if (rule == null) {
+      return res;
+    }
+    builder.header("Cache-Control", rule.cacheControl());
+    if (rule.maxAgeSeconds() > 0) {
+      builder.header("Expires", DateTimeFormatter.RFC_1123_DATE_TIME
+          .format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(rule.maxAgeSeconds())));
+    }
+    return builder.build();
+  }
+
+  private static String header(HttpResponse res, String name) {
+    for (Map.Entry<String, String> e : res.headers().entrySet()) {
+      if (e.getKey().equalsIgnoreCase(name)) {
+        return e.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,88 @@
+package server.filter;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.util.Compression;
+import server.util.MimeTypes;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 동적 응답 본문을 Accept-Encoding 에 맞춰 gzip/deflate 로 압축한다.
+ * - 이미 Content-Encoding 이 붙은 응답(정적 파일의 사전 압축본 등)은 건드리지 않는다.
+ * - 핸들러가 요청 속성 Compression.ENCODING_DECIDED_ATTRIBUTE 로 압축하지 않기로 정한 응답도 그대로 내보낸다.
+ * - 임계값 미만이거나 png/jpeg 처럼 이미 압축된 타입은 그대로 내보낸다.
+ * - 압축 가능한 타입이면 압축 여부와 관계없이 Vary: Accept-Encoding 을 붙여 캐시가 섞이지 않게 한다.
+ */
+public final class CompressionFilter implements Filter {
+  private final int minSize;
+
+  public CompressionFilter(int minSize) {
+    this.minSize = minSize;
+  }
+
+  @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+    return compress(req, chain.doFilter(req));
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    return chain.doFilterAsync(req).thenApply(res -> compress(req, res));
+  }
+
+  private HttpResponse compress(HttpRequest req, HttpResponse res) {
+    int status = res.statusCode();
+    if (status < 200 || status == 204 || status == 304) {
+      return res;
+    }
+    if (!MimeTypes.isCompressible(header(res, "Content-Type"))) {
+      return res;
+    }
+    if (header(res, "Content-Encoding") != null) {
+      return res;
+    }
+    if (Boolean.TRUE.equals(req.attribute(Compression.ENCODING_DECIDED_ATTRIBUTE))) {
+      return res;
+    }
+
+    HttpResponse.Builder builder = HttpResponse.builder(res.statusCode(), res.reasonPhrase());
+    res.headers().forEach(builder::header);
+    builder.header("Vary", addVary(header(res, "Vary")));
+
+    byte[] body = res.body();
+    String encoding = Compression.negotiate(req.header("accept-encoding"));
+    if (encoding == null || body.length < minSize) {
+      return builder.body(body).build();
+    }
+    byte[] compressed = Compression.encode(body, encoding);
+    if (compressed.length >= body.length) {
+      return builder.body(body).build();
+    }
+    return builder
+        .header("Content-Encoding", encoding)
+        .body(compressed)
+        .build();
+  }
+
+  private static String addVary(String existing) {
+    if (existing == null || existing.isBlank()) {
+      return "Accept-Encoding";
+    }
+    for (String token : existing.split(",")) {
+      String t = token.trim();
+      if (t.equals("*") || t.equalsIgnoreCase("Accept-Encoding")) {
+        return existing;
+      }
+    }
+    return existing + ", Accept-Encoding";
+  }
+
+  private static String header(HttpResponse res, String name) {
+    for (Map.Entry<String, String> e : res.headers().entrySet()) {
+      if (e.getKey().equalsIgnoreCase(name)) {
+        return e.getValue();
+      }
+    }
+    return null;
+  }
+}
@@ -9,6 +9,8 @@ import java.util.HashSet;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static server.http.ErrorResponses.unsupportedMediaTypeAlert;
 
@@ -41,13 +43,31 @@ public final class ContentTypeFilter implements Filter {
     this.allowedTypes = (allowedTypes == null) ? Collections.emptySet() : normalize(allowedTypes);
   }
 
+  /** POST/PUT/PATCH 라우트에만 붙는다. */
+  @Override
+  public boolean appliesTo(String method, String route) {
+    return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+  }
+
   @Override
   public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+    HttpResponse rejected = check(req);
+    return rejected != null ? rejected : chain.doFilter(req);
+  }
+
+  @Override
+  public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    HttpResponse rejected = check(req);
+    return rejected != null ? CompletableFuture.completedFuture(rejected) : chain.doFilterAsync(req);
+  }
+
+  /** 통과하면 null, 거부하면 415 응답을 돌려준다. */
+  private HttpResponse check(HttpRequest req) {
     final String method = req.method();
 
     // 바디를 가질 수 있는 메서드만 검사 (필요 시 PATCH/DELETE 등 확장 가능)
     if (!"POST".equals(method) && !"PUT".equals(method) && !"PATCH".equals(method)) {
-      return chain.doFilter(req);
+      return null;
     }
 
     // 바디가 없으면 Content-Type 검증 생략
@@ -55,7 +75,7 @@ public final class ContentTypeFilter implements Filter {
     final long len = Optional.ofNullable(req.header("Content-Length")).map(Long::parseLong).orElse(0L);
     final boolean hasBody = len > 0 || te.toLowerCase(Locale.ROOT).contains("chunked");
     if (!hasBody) {
-      return chain.doFilter(req);
+      return null;
     }
 
     // Content-Type 검증
@@ -75,7 +95,7 @@ public final class ContentTypeFilter implements Filter {
       return unsupportedMediaTypeAlert(req, "지원하지 않는 미디어 타입입니다: " + mediaType, home);
     }
 
-    return chain.doFilter(req);
+    return null;
   }
 
   private static Set<String> normalize(Set<String> types) {
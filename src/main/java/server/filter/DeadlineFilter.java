@@ -0,0 +1,121 @@
+package server.filter;
+
+import server.http.Deadline;
+import server.http.DeadlineExceededException;
+import server.http.ErrorResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.util.Logger;
+import server.util.MetricsSource;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 라우트별 처리 시한(deadline)을 요청에 실어 보내는 필터.
+ * 시한은 FilterChain 의 필터 경계와 bulkhead 작업 시작 시점, 서비스 계층의 반복문에서 확인한다.
+ *
+ * 대기열에서 시한이 지나 시작도 못 한 요청은 503, 처리 도중 시한을 넘긴 요청은 504 로 응답한다.
+ * 비동기 처리 중 시한이 지나면 응답을 먼저 내보내고 Deadline 을 취소해 남은 작업이 협조적으로 멈추게 한다.
+ * 시한 초과 시점에 아직 대기열에 있었는지는 Deadline.isWaitingInQueue() 로 가린다.
+ *
+ * 시한 초과 응답은 JDK 의 공용 타이머 스레드에서 만들어지므로 여기서는 응답 객체 생성과 로그만 한다.
+ * 소켓에 쓰는 일은 ConnectionWorker 가 연결 executor 로 넘겨서 하므로 타이머 스레드를 붙잡지 않는다.
+ */
+public final class DeadlineFilter implements Filter, MetricsSource {
+  private final long defaultBudgetMillis;
+  private final Map<String, Long> budgets;
+  private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+  /**
+   * @param defaultBudgetMillis budgets 에 없는 라우트에 적용할 시한
+   * @param budgets 라우트 패턴(Router 에 등록한 그대로, fallback 은 Router.FALLBACK)별 시한
+   */
+  public DeadlineFilter(long defaultBudgetMillis, Map<String, Long> budgets) {
+    this.defaultBudgetMillis = defaultBudgetMillis;
+    this.budgets = Map.copyOf(budgets);
+  }
+
+  @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+    try {
+      return chain.doFilter(req.withDeadline(Deadline.after(budgetFor(req.route()))));
+    } catch (DeadlineExceededException e) {
+      return exceeded(req, e.isQueued());
+    }
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    Deadline deadline = Deadline.after(budgetFor(req.route()));
+    CompletableFuture<HttpResponse> stage;
+    try {
+      stage = chain.doFilterAsync(req.withDeadline(deadline)).toCompletableFuture();
+    } catch (DeadlineExceededException e) {
+      return CompletableFuture.completedFuture(exceeded(req, e.isQueued()));
+    }
+    if (stage.isDone() && !stage.isCompletedExceptionally()) {
+      return stage;
+    }
+    return stage.orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS).handle((res, err) -> {
+      if (err == null) {
+        return res;
+      }
+      Throwable cause = unwrap(err);
+      if (cause instanceof TimeoutException) {
+        // 응답은 지금 내보내고, 아직 돌고 있는(또는 대기 중인) 작업은 다음 확인 지점에서 멈추게 한다.
+        boolean queued = deadline.isWaitingInQueue();
+        deadline.cancel();
+        return exceeded(req, queued);
+      }
+      if (cause instanceof DeadlineExceededException e) {
+        return exceeded(req, e.isQueued());
+      }
+      throw err instanceof CompletionException ce ? ce : new CompletionException(cause);
+    });
+  }
+
+  private long budgetFor(String route) {
+    Long budget = route != null ? budgets.get(route) : null;
+    return budget != null ? budget : defaultBudgetMillis;
+  }
+
+  private HttpResponse exceeded(HttpRequest req, boolean queued) {
+    String route = req.route() != null ? req.route() : req.path();
+    Counters c = counters.computeIfAbsent(route, r -> new Counters());
+    if (queued) {
+      c.queued.increment();
+      return ErrorResponses.serviceUnavailable(req, "요청이 많아 잠시 후 다시 시도해 주세요.");
+    }
+    c.processing.increment();
+    Logger.warn("Deadline exceeded: " + req.method() + " " + req.path() + " (" + budgetFor(req.route()) + "ms)");
+    return ErrorResponses.gatewayTimeout(req, "요청 처리 시간이 초과되었습니다.");
+  }
+
+  private static Throwable unwrap(Throwable t) {
+    while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+      t = t.getCause();
+    }
+    return t;
+  }
+
+  @Override public void collect(Map<String, String> out) {
+    out.put("deadline.default_ms", String.valueOf(defaultBudgetMillis));
+    budgets.forEach((route, budget) -> out.put("deadline." + route + ".budget_ms", String.valueOf(budget)));
+    counters.forEach((route, c) -> {
+      out.put("deadline." + route + ".exceeded_queued", String.valueOf(c.queued.sum()));
+      out.put("deadline." + route + ".exceeded", String.valueOf(c.processing.sum()));
+    });
+  }
+
+  /** 라우트 하나의 시한 초과 횟수 */
+  private static final class Counters {
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder processing = new LongAdder();
+  }
+}
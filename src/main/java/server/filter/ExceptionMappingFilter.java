@@ -3,9 +3,16 @@ package server.filter;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.http.HttpParseException;
+import server.service.PasswordHasherBusyException;
+import server.service.SessionStoreUnavailableException;
 
 import static server.http.ErrorResponses.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
 public final class ExceptionMappingFilter implements Filter {
   private final String home;
   public ExceptionMappingFilter(String home) { this.home = home; }
@@ -13,14 +20,37 @@ public final class ExceptionMappingFilter implements Filter {
   @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) {
     try {
       return chain.doFilter(req);
-    } catch (HttpParseException e) {
+    } catch (Throwable t) {
+      return map(req, t);
+    }
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    CompletionStage<HttpResponse> stage;
+    try {
+      stage = chain.doFilterAsync(req);
+    } catch (Throwable t) {
+      return CompletableFuture.completedFuture(map(req, t));
+    }
+    return stage.handle((res, err) -> err == null ? res : map(req, err));
+  }
+
+  private HttpResponse map(HttpRequest req, Throwable t) {
+    while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+      t = t.getCause();
+    }
+    if (t instanceof HttpParseException) {
       return badRequestAlert(req, "요청 구문이 올바르지 않습니다.", home);
-    } catch (SecurityException e) {
+    }
+    if (t instanceof SessionStoreUnavailableException || t instanceof PasswordHasherBusyException) {
+      return serviceUnavailable(req, "잠시 후 다시 시도해 주세요.");
+    }
+    if (t instanceof SecurityException) {
       return forbiddenAlert(req, "접근이 허용되지 않았습니다.", home);
-    } catch (UnsupportedOperationException e) {
+    }
+    if (t instanceof UnsupportedOperationException) {
       return serverErrorAlert(req, "아직 지원하지 않습니다.", home);
-    } catch (Throwable t) {
-      return serverErrorAlert(req, "서버 오류가 발생했습니다.", home);
     }
+    return serverErrorAlert(req, "서버 오류가 발생했습니다.", home);
   }
 }
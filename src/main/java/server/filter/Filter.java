@@ -3,6 +3,31 @@ package server.filter;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 public interface Filter {
   HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception;
+
+  /**
+   * 비동기 체인에서 호출된다. 기본 구현은 동기 doFilter 를 그대로 실행하므로
+   * 뒤쪽 핸들러가 비동기면 chain.doFilter 에서 완료될 때까지 기다리게 된다.
+   * 응답을 감싸거나 요청을 미리 거르는 필터는 이 메서드를 재정의해 블로킹 없이 합성한다.
+   */
+  default CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    try {
+      return CompletableFuture.completedFuture(doFilter(req, chain));
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * 라우터가 시작 시점에 라우트별 체인을 만들 때 호출한다. false 면 해당 라우트의 체인에서 빠진다.
+   * method 는 등록된 메서드(HEAD 는 GET 체인을 공유), 알 수 없으면 "*".
+   * route 는 등록된 경로 패턴이며, fallback 라우트면 Router.FALLBACK 이다.
+   */
+  default boolean appliesTo(String method, String route) {
+    return true;
+  }
 }
@@ -1,25 +1,75 @@
 package server.filter;
 
+import server.http.Deadline;
+import server.http.DeadlineExceededException;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
-import server.route.Router;
+import server.route.Handler;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
+/**
+ * 라우트 하나에 대해 미리 엮어 둔 불변 필터 체인.
+ * 각 노드는 자신의 필터와 다음 노드를 가리키며, 마지막 노드는 핸들러를 호출한다.
+ * 상태가 없으므로 요청마다 새로 만들 필요 없이 모든 스레드가 공유한다.
+ */
 public final class FilterChain {
-  private final List<Filter> filters;
-  private final Router router;
-  private int index = 0;
+  private final Filter filter;
+  private final FilterChain next;
+  private final Handler handler;
 
-  public FilterChain(List<Filter> filters, Router router) {
-    this.filters = filters;
-    this.router = router;
+  private FilterChain(Filter filter, FilterChain next, Handler handler) {
+    this.filter = filter;
+    this.next = next;
+    this.handler = handler;
   }
 
+  /**
+   * method/route 에 적용되는 필터만 골라 handler 앞에 순서대로 연결한다.
+   */
+  public static FilterChain compile(List<Filter> filters, String method, String route, Handler handler) {
+    FilterChain chain = new FilterChain(null, null, handler);
+    for (int i = filters.size() - 1; i >= 0; i--) {
+      Filter f = filters.get(i);
+      if (f.appliesTo(method, route)) {
+        chain = new FilterChain(f, chain, handler);
+      }
+    }
+    return chain;
+  }
+
+  /**
+   * 동기 필터용 진입점. 뒤쪽이 비동기로 처리되더라도 완료될 때까지 기다린 뒤 결과를 돌려준다.
+   */
   public HttpResponse doFilter(HttpRequest req) throws Exception {
-    if (index < filters.size()) {
-      return filters.get(index++).doFilter(req, this);
+    try {
+      return doFilterAsync(req).toCompletableFuture().join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception ex) {
+        throw ex;
+      }
+      throw e;
     }
-    return router.route(req); // 마지막: 라우팅
+  }
+
+  public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req) {
+    Deadline deadline = req.deadline();
+    if (deadline != null && deadline.isExpired()) {
+      // 필터 경계마다 시한을 확인해 이미 늦은 요청은 다음 단계로 넘기지 않는다.
+      return CompletableFuture.failedFuture(new DeadlineExceededException(false));
+    }
+    if (filter != null) {
+      return filter.doFilterAsync(req, next);
+    }
+    return handler.handleAsync(req); // 마지막: 핸들러 실행
+  }
+
+  /** 체인에 포함된 필터 수(핸들러 제외) */
+  public int length() {
+    return filter == null ? 0 : 1 + next.length();
   }
 }
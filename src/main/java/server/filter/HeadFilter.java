@@ -3,9 +3,23 @@ package server.filter;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 
+import java.util.concurrent.CompletionStage;
+
 public final class HeadFilter implements Filter {
+  /** HEAD 요청은 GET 라우트의 체인을 함께 쓰므로 GET 라우트에만 붙는다. */
+  @Override public boolean appliesTo(String method, String route) {
+    return "GET".equals(method);
+  }
+
   @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
-    HttpResponse res = chain.doFilter(req);
+    return stripBody(req, chain.doFilter(req));
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    return chain.doFilterAsync(req).thenApply(res -> stripBody(req, res));
+  }
+
+  private HttpResponse stripBody(HttpRequest req, HttpResponse res) {
     if ("HEAD".equals(req.method())) {
       HttpResponse.Builder builder = HttpResponse.builder(res.statusCode(), res.reasonPhrase());
       res.headers().forEach(builder::header);
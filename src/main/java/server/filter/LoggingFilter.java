@@ -3,18 +3,32 @@ package server.filter;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 
+import java.util.concurrent.CompletionStage;
+
 public final class LoggingFilter implements Filter {
   @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
     long t0 = System.nanoTime();
     HttpResponse res = chain.doFilter(req);
+    log(req, res, t0);
+    return res;
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    long t0 = System.nanoTime();
+    return chain.doFilterAsync(req).thenApply(res -> {
+      log(req, res, t0);
+      return res;
+    });
+  }
+
+  private void log(HttpRequest req, HttpResponse res, long t0) {
     long ms = (System.nanoTime() - t0) / 1_000_000;
     System.out.printf("%s %s -> %d (%d ms)%n", req.method(), req.path(), res.statusCode(), ms);
-    return res;
   }
 }
 
 
 /*
  * LoggingFilter 는 성공/실패와 상관없이 요청 로그만 남기는 역할이에요.
- * 
+ * 비동기 체인에서는 응답이 완성되는 시점에 로그를 남기므로 실제 처리 시간이 기록된다.
  */
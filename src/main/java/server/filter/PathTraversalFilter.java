@@ -2,21 +2,51 @@ package server.filter;
 
 import server.http.HttpRequest;
 import server.http.HttpResponse;
+import server.route.Router;
+import server.route.StaticRouteIndex;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static server.http.ErrorResponses.*;
 
 public final class PathTraversalFilter implements Filter {
   private final Path webRoot;
   private final String home;
+  private final StaticRouteIndex index;
 
   public PathTraversalFilter(Path webRoot, String home) {
+    this(webRoot, home, null);
+  }
+
+  public PathTraversalFilter(Path webRoot, String home, StaticRouteIndex index) {
     this.webRoot = webRoot.normalize().toAbsolutePath();
     this.home = home;
+    this.index = index;
+  }
+
+  /** 파일 시스템을 건드리는 정적 파일(GET fallback) 라우트에만 붙는다. */
+  @Override public boolean appliesTo(String method, String route) {
+    return "GET".equals(method) && Router.FALLBACK.equals(route);
   }
 
   @Override public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+    HttpResponse rejected = check(req);
+    return rejected != null ? rejected : chain.doFilter(req);
+  }
+
+  @Override public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+    HttpResponse rejected = check(req);
+    return rejected != null ? CompletableFuture.completedFuture(rejected) : chain.doFilterAsync(req);
+  }
+
+  /** 통과하면 null, 거부하면 오류 응답을 돌려준다. */
+  private HttpResponse check(HttpRequest req) {
     String path = req.path();
+    if (index != null && index.lookup(path) != null) {
+      // 색인에 있는 경로는 스캔 시점에 웹 루트 안의 실제 파일로 확인된 것이므로 정규화를 생략한다.
+      return null;
+    }
     if (path.startsWith("/")) {
       path = path.substring(1);
     }
@@ -24,7 +54,7 @@ public final class PathTraversalFilter implements Filter {
     if (!resolved.startsWith(webRoot)) {
       return forbiddenAlert(req, "잘못된 요청입니다.", home);
     }
-    return chain.doFilter(req);
+    return null;
   }
 }
 
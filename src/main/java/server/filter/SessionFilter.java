@@ -3,17 +3,19 @@ package server.filter;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.service.AuthService;
-import server.util.CookieUtil;
 import server.util.Logger;
 
 import static server.http.ErrorResponses.unauthorizedAlert;
 
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
  * 세션 쿠키를 검사하여 인증되지 않은 사용자의 접근을 제한하는 필터.
  * 화이트리스트 경로는 로그인 없이 통과시키고, 그 외 경로는 세션이 유효해야 한다.
+ * 확인한 세션은 요청 속성(AuthService.SESSION_ATTRIBUTE)에 남으므로 뒤쪽 핸들러는 다시 조회하지 않는다.
  */
 public final class SessionFilter implements Filter {
     private final AuthService authService;
@@ -21,30 +23,52 @@ public final class SessionFilter implements Filter {
     private final Set<String> publicPostPaths;
     private final String loginPage;
 
-    public SessionFilter(Set<String> publicGetPaths, Set<String> publicPostPaths, String loginPage) {
-        this.authService = new AuthService();
+    public SessionFilter(AuthService authService, Set<String> publicGetPaths, Set<String> publicPostPaths,
+                         String loginPage) {
+        this.authService = authService;
         this.publicGetPaths = publicGetPaths;
         this.publicPostPaths = publicPostPaths;
         this.loginPage = loginPage;
     }
 
+    /**
+     * 공개 POST 라우트(/login, /register)는 체인에서 아예 뺀다.
+     * GET 은 정적 파일 fallback 하나로 모이므로 요청 시점에 경로로 판단한다.
+     */
+    @Override
+    public boolean appliesTo(String method, String route) {
+        return !("POST".equals(method) && publicPostPaths.contains(route));
+    }
+
     @Override
     public HttpResponse doFilter(HttpRequest req, FilterChain chain) throws Exception {
+        HttpResponse rejected = check(req);
+        return rejected != null ? rejected : chain.doFilter(req);
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> doFilterAsync(HttpRequest req, FilterChain chain) {
+        HttpResponse rejected = check(req);
+        return rejected != null ? CompletableFuture.completedFuture(rejected) : chain.doFilterAsync(req);
+    }
+
+    /**
+     * 통과하면 null, 인증이 필요하면 401 응답을 돌려준다.
+     */
+    private HttpResponse check(HttpRequest req) {
         String method = req.method().toUpperCase(Locale.ROOT);
         String path = normalize(req.path());
 
         if (isPublic(method, path)) {
-            return chain.doFilter(req);
+            return null;
         }
 
-        String sessionId = CookieUtil.getSessionId(req);
-        boolean valid = sessionId != null && authService.validateSession(sessionId).isPresent();
-        if (!valid) {
+        if (authService.currentSession(req).isEmpty()) {
             Logger.warn("Unauthorized request: " + method + " " + path);
             return unauthorizedAlert(req, "로그인이 필요합니다.", loginPage);
         }
 
-        return chain.doFilter(req);
+        return null;
     }
 
     private boolean isPublic(String method, String path) {
@@ -0,0 +1,195 @@
+package server.http;
+
+import server.config.ServerConfig;
+import server.util.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 요청 경로와 응답 Content-Type 에 따라 Cache-Control 값을 정하는 규칙 묶음.
+ * 규칙은 위에서부터 순서대로 검사하며 처음 일치한 규칙을 사용한다.
+ *
+ * 설정 파일 형식(한 줄에 규칙 하나, # 은 주석):
+ * <pre>
+ *   경로글롭      타입글롭        Cache-Control 값
+ *   /**.{hash}.*  *               private, max-age=31536000, immutable
+ *   /**           text/html       private, no-cache
+ * </pre>
+ * 경로 글롭에서 * 는 '/' 를 넘지 않는 임의 문자열, ** 는 '/' 를 포함한 임의 문자열,
+ * {hash} 는 지문(fingerprint)으로 붙인 정확히 ServerConfig.ASSET_HASH_LENGTH 자리의 16진수를 뜻한다.
+ *
+ * SessionFilter 를 거치는 응답은 사용자별이므로 공유 캐시(프록시, CDN)에 남지 않도록 private 으로 둔다.
+ * public 은 로그인 없이 열리는 경로에만 쓴다.
+ */
+public final class CachePolicy {
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age=(\\d+)");
+
+    private final List<Rule> rules;
+
+    private CachePolicy(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+    }
+
+    /**
+     * 설정 파일이 있으면 읽고, 없거나 비어 있으면 기본 규칙을 사용한다.
+     */
+    public static CachePolicy load(Path config) {
+        if (!Files.isRegularFile(config)) {
+            return defaults();
+        }
+        try {
+            Builder builder = builder();
+            int lineNo = 0;
+            for (String raw : Files.readAllLines(config)) {
+                lineNo++;
+                String line = raw.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 3);
+                if (parts.length < 3) {
+                    Logger.warn("Ignoring malformed cache rule at " + config + ":" + lineNo);
+                    continue;
+                }
+                builder.rule(parts[0], parts[1], parts[2]);
+            }
+            CachePolicy policy = builder.build();
+            return policy.rules.isEmpty() ? defaults() : policy;
+        } catch (IOException e) {
+            Logger.error("Failed to read cache policy: " + config, e);
+            return defaults();
+        }
+    }
+
+    /**
+     * 지표는 저장하지 않고, 로그인/가입 페이지만 공유 캐시를 허용한다.
+     * 나머지는 로그인한 사용자의 브라우저에만 두며 지문이 붙은 자산은 1년 immutable,
+     * HTML/매니페스트는 매번 재검증, 그 외는 짧게 캐시한다.
+     */
+    public static CachePolicy defaults() {
+        return builder()
+                .rule("/server/metrics", "*", "no-store")
+                .rule("/login.html", "text/html", "public, no-cache")
+                .rule("/register.html", "text/html", "public, no-cache")
+                .rule("/**.{hash}.*", "*", "private, max-age=31536000, immutable")
+                .rule("/**", "text/html", "private, no-cache")
+                .rule("/content_manifest.json", "*", "private, no-cache")
+                .rule("/posts/**", "*", "private, no-cache")
+                .rule("/images/**", "image/*", "private, max-age=86400")
+                .rule("/**", "*", "private, max-age=300")
+                .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 일치하는 규칙을 찾는다. 없으면 null.
+     */
+    public Rule match(String path, String contentType) {
+        String type = mediaType(contentType);
+        for (Rule rule : rules) {
+            if (rule.matches(path, type)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String mediaType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int semi = type.indexOf(';');
+        return semi >= 0 ? type.substring(0, semi).trim() : type.trim();
+    }
+
+    /**
+     * 경로 글롭을 정규식으로 변환한다.
+     */
+    static Pattern compilePathGlob(String glob) {
+        StringBuilder regex = new StringBuilder("^");
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (glob.startsWith("{hash}", i)) {
+                regex.append("[0-9a-f]{").append(ServerConfig.ASSET_HASH_LENGTH).append("}");
+                i += "{hash}".length() - 1;
+            } else if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.append('$').toString());
+    }
+
+    public static final class Builder {
+        private final List<Rule> rules = new ArrayList<>();
+
+        private Builder() {}
+
+        public Builder rule(String pathGlob, String typeGlob, String cacheControl) {
+            rules.add(new Rule(pathGlob, typeGlob, cacheControl));
+            return this;
+        }
+
+        public CachePolicy build() {
+            return new CachePolicy(rules);
+        }
+    }
+
+    /**
+     * 경로/타입 패턴과 그에 대응하는 Cache-Control 값.
+     */
+    public static final class Rule {
+        private final Pattern path;
+        private final String typeGlob;
+        private final String cacheControl;
+        private final long maxAgeSeconds;
+
+        private Rule(String pathGlob, String typeGlob, String cacheControl) {
+            this.path = compilePathGlob(pathGlob);
+            this.typeGlob = typeGlob.toLowerCase(Locale.ROOT);
+            this.cacheControl = cacheControl;
+            Matcher m = MAX_AGE.matcher(cacheControl);
+            boolean cacheable = !cacheControl.contains("no-store") && !cacheControl.contains("no-cache");
+            this.maxAgeSeconds = cacheable && m.find() ? Long.parseLong(m.group(1)) : -1;
+        }
+
+        private boolean matches(String requestPath, String mediaType) {
+            if (!path.matcher(requestPath).matches()) {
+                return false;
+            }
+            if (typeGlob.equals("*")) {
+                return true;
+            }
+            if (typeGlob.endsWith("/*")) {
+                return mediaType.startsWith(typeGlob.substring(0, typeGlob.length() - 1));
+            }
+            return typeGlob.equals(mediaType);
+        }
+
+        public String cacheControl() {
+            return cacheControl;
+        }
+
+        /** Expires 계산에 쓸 max-age(초). 캐시하지 않는 규칙이면 -1 */
+        public long maxAgeSeconds() {
+            return maxAgeSeconds;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package server.http;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 요청 하나에 주어진 처리 시한.
+ * 필터 경계와 서비스 계층의 반복문에서 check() 를 호출해 시한이 지났거나 취소된 요청을 일찍 중단한다.
+ * 핸들러를 실행하는 스레드에는 current() 로 현재 요청의 시한이 노출되므로,
+ * 요청 객체를 받지 않는 서비스 코드도 Deadline.checkCurrent() 로 협조적으로 중단할 수 있다.
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long budgetMillis;
+    private final long expiresAtNanos;
+    private volatile boolean cancelled;
+    private volatile boolean queued;
+    private volatile boolean started;
+
+    private Deadline(long budgetMillis) {
+        this.budgetMillis = budgetMillis;
+        this.expiresAtNanos = System.nanoTime() + budgetMillis * 1_000_000L;
+    }
+
+    public static Deadline after(long budgetMillis) {
+        return new Deadline(budgetMillis);
+    }
+
+    public long budgetMillis() {
+        return budgetMillis;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /** 실행기 대기열에 들어갔음을 표시한다. Handler.offload 가 작업을 넣기 전에 부른다. */
+    public void markQueued() {
+        queued = true;
+    }
+
+    /** 대기열에서 꺼내져 핸들러 실행을 시작했음을 표시한다. */
+    public void markStarted() {
+        started = true;
+    }
+
+    /** 대기열에 들어간 뒤 아직 실행을 시작하지 못했으면 true. 이때 시한이 지나면 503 으로 답한다. */
+    public boolean isWaitingInQueue() {
+        return queued && !started;
+    }
+
+    /** 응답이 이미 시한 초과로 나간 뒤, 아직 실행 중인 작업에 중단을 알린다. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * 시한이 지났으면 DeadlineExceededException 을 던진다.
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(false);
+        }
+    }
+
+    /** 현재 스레드에서 처리 중인 요청의 시한. 없으면 null */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /** 현재 스레드에 시한이 걸려 있으면 검사한다. */
+    public static void checkCurrent() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check();
+        }
+    }
+
+    /**
+     * 주어진 시한을 현재 스레드에 걸어 둔 채 작업을 실행한다.
+     */
+    public static <T> T runWith(Deadline deadline, Callable<T> task) throws Exception {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package server.http;
+
+/**
+ * 요청 처리 시한이 지났을 때 던지는 예외.
+ * queued 가 true 면 작업을 시작하기도 전에(대기열에서) 시한이 지난 경우로 503 으로,
+ * 그 외에는 처리 도중 초과한 경우로 504 로 응답한다.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    private final boolean queued;
+
+    public DeadlineExceededException(boolean queued) {
+        super(queued ? "Deadline exceeded while queued" : "Deadline exceeded");
+        this.queued = queued;
+    }
+
+    public boolean isQueued() {
+        return queued;
+    }
+}
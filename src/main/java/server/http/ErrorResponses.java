@@ -1,5 +1,7 @@
 package server.http;
 
+import server.util.JsonUtil;
+
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -32,6 +34,27 @@ public final class ErrorResponses {
         return build(500, "Internal Server Error", message, home);
     }
 
+    /**
+     * 처리 용량이 가득 찼을 때의 503 응답. 잠시 후 재시도하도록 Retry-After 를 붙인다.
+     */
+    public static HttpResponse serviceUnavailable(HttpRequest req, String message) {
+        return HttpResponse.builder(503, "Service Unavailable")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Retry-After", "1")
+                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    /**
+     * 처리 시한 안에 응답을 만들지 못했을 때의 504 응답.
+     */
+    public static HttpResponse gatewayTimeout(HttpRequest req, String message) {
+        return HttpResponse.builder(504, "Gateway Timeout")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
     private static HttpResponse build(int status, String reason, String message, String home) {
         String body = "<!DOCTYPE html>\n" +
                 "<html lang=\"ko\">\n" +
@@ -3,10 +3,14 @@ package server.http;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * 파싱된 HTTP 요청 데이터를 보관하는 불변 객체.
  * 메소드/경로/버전/헤더/본문 정보를 한 번 받아오면 외부에서 수정할 수 없다.
+ * 단, 요청 속성(attribute)은 필터/핸들러가 한 번 계산한 값(파싱한 쿠키, 확인한 세션 등)을
+ * 뒤쪽에 넘기기 위한 요청 범위 저장소로, with* 로 만든 사본끼리도 같은 저장소를 공유한다.
  */
 public final class HttpRequest {
     private final String method;
@@ -14,6 +18,10 @@ public final class HttpRequest {
     private final String version;
     private final Map<String, String> headers;
     private final byte[] body;
+    private final Map<String, String> pathParams;
+    private final String route;
+    private final Deadline deadline;
+    private final Map<String, Object> attributes;
 
     public HttpRequest(String method,
                        String target,
@@ -25,6 +33,91 @@ public final class HttpRequest {
         this.version = version;
         this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
         this.body = body == null ? new byte[0] : body.clone();
+        this.pathParams = Collections.emptyMap();
+        this.route = null;
+        this.deadline = null;
+        this.attributes = new ConcurrentHashMap<>(4);
+    }
+
+    private HttpRequest(HttpRequest source, Map<String, String> pathParams, String route, Deadline deadline) {
+        // 내부 복사용: 이미 불변인 헤더/본문은 그대로 공유한다.
+        this.method = source.method;
+        this.target = source.target;
+        this.version = source.version;
+        this.headers = source.headers;
+        this.body = source.body;
+        this.pathParams = Map.copyOf(pathParams);
+        this.route = route;
+        this.deadline = deadline;
+        this.attributes = source.attributes;
+    }
+
+    /**
+     * 라우터가 캡처한 경로 변수({name})를 담은 사본을 반환한다.
+     */
+    public HttpRequest withPathParams(Map<String, String> pathParams) {
+        return new HttpRequest(this, pathParams, route, deadline);
+    }
+
+    /**
+     * 라우터가 일치시킨 라우트 패턴과 경로 변수를 담은 사본을 반환한다.
+     */
+    public HttpRequest withRoute(String route, Map<String, String> pathParams) {
+        return new HttpRequest(this, pathParams, route, deadline);
+    }
+
+    /**
+     * 처리 시한을 담은 사본을 반환한다.
+     */
+    public HttpRequest withDeadline(Deadline deadline) {
+        return new HttpRequest(this, pathParams, route, deadline);
+    }
+
+    /**
+     * 라우터가 일치시킨 라우트 패턴(예: "/posts/list", fallback 이면 "/**"). 라우팅 전이면 null.
+     */
+    public String route() {
+        return route;
+    }
+
+    /** 요청 처리 시한. 시한이 걸리지 않았으면 null */
+    public Deadline deadline() {
+        return deadline;
+    }
+
+    /**
+     * 경로 변수 값을 반환한다. 없으면 null.
+     */
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    public Map<String, String> pathParams() {
+        return pathParams;
+    }
+
+    /**
+     * 요청 속성 값을 반환한다. 없으면 null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T attribute(String name) {
+        return (T) attributes.get(name);
+    }
+
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    /**
+     * 속성이 없을 때만 계산해 저장하고, 있으면 기존 값을 반환한다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeAttributeIfAbsent(String name, Function<String, T> factory) {
+        return (T) attributes.computeIfAbsent(name, factory);
     }
 
     public String method() {
@@ -4,9 +4,13 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
+import server.http.DeadlineExceededException;
+import server.http.ErrorResponses;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.service.AuthService;
+import server.service.PasswordHasherBusyException;
+import server.service.SessionStoreUnavailableException;
 import server.util.CookieUtil;
 import server.util.JsonUtil;
 import server.util.Logger;
@@ -17,13 +21,13 @@ import server.util.Logger;
 public final class AuthHandler implements Handler {
     private final AuthService authService;
 
-    public AuthHandler() {
-        this.authService = new AuthService();
+    public AuthHandler(AuthService authService) {
+        this.authService = authService;
     }
 
     @Override
     public HttpResponse handle(HttpRequest request) throws IOException {
-        String target = request.target();
+        String target = request.path();
         String method = request.method();
 
         if (!"POST".equals(method)) {
@@ -77,6 +81,12 @@ public final class AuthHandler implements Handler {
                         .body(JsonUtil.createResponse(false, result.getMessage()).getBytes(StandardCharsets.UTF_8))
                         .build();
             }
+        } catch (PasswordHasherBusyException e) {
+            Logger.warn("Password hasher saturated, rejecting login request");
+            return ErrorResponses.serviceUnavailable(request, "요청이 많아 잠시 후 다시 시도해 주세요.");
+        } catch (DeadlineExceededException | SessionStoreUnavailableException e) {
+            // 세션 저장소 장애는 ExceptionMappingFilter 가 Retry-After 가 붙은 503 으로 바꾼다.
+            throw e;
         } catch (Exception e) {
             Logger.error("Error processing login request", e);
             return internalServerError("로그인 처리 중 오류가 발생했습니다.");
@@ -114,6 +124,11 @@ public final class AuthHandler implements Handler {
                         .body(JsonUtil.createResponse(false, result.getMessage()).getBytes(StandardCharsets.UTF_8))
                         .build();
             }
+        } catch (PasswordHasherBusyException e) {
+            Logger.warn("Password hasher saturated, rejecting registration request");
+            return ErrorResponses.serviceUnavailable(request, "요청이 많아 잠시 후 다시 시도해 주세요.");
+        } catch (DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             Logger.error("Error processing registration request", e);
             return internalServerError("회원가입 처리 중 오류가 발생했습니다.");
@@ -125,12 +140,9 @@ public final class AuthHandler implements Handler {
      */
     private HttpResponse handleLogout(HttpRequest request) {
         try {
-            String sessionId = CookieUtil.getSessionId(request);
-            
-            if (sessionId != null) {
-                authService.logout(sessionId);
-                Logger.info("Logout successful for session: " + sessionId);
-            }
+            // SessionFilter 가 이미 확인해 둔 세션을 사용한다.
+            authService.logout(request).ifPresent(sessionId ->
+                    Logger.info("Logout successful for session: " + sessionId));
 
             HttpResponse.Builder builder = HttpResponse.builder(200, "OK")
                     .header("Content-Type", "application/json; charset=UTF-8")
@@ -140,6 +152,8 @@ public final class AuthHandler implements Handler {
             CookieUtil.deleteSessionCookie(builder);
             
             return builder.build();
+        } catch (DeadlineExceededException | SessionStoreUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             Logger.error("Error processing logout request", e);
             return internalServerError("로그아웃 처리 중 오류가 발생했습니다.");
@@ -1,13 +1,71 @@
 package server.route;
 
+import server.http.Deadline;
+import server.http.DeadlineExceededException;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * 라우터가 선택한 실제 처리 로직을 표현하는 인터페이스.
+ * 기본 구현은 동기 handle() 이며, handleAsync() 는 그 결과를 완료된 CompletionStage 로 감싼다.
+ * 오래 기다리는 핸들러는 handleAsync() 를 재정의하거나 offload() 로 감싸 워커 스레드를 놓아줄 수 있다.
  */
 public interface Handler {
     HttpResponse handle(HttpRequest request) throws IOException;
+
+    default CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
+        try {
+            return CompletableFuture.completedFuture(handle(request));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 동기 핸들러를 지정한 executor 에서 실행하도록 감싼다.
+     * 연결 워커는 결과를 기다리지 않고 반환되며, 응답은 작업이 끝나는 시점에 기록된다.
+     * 요청에 시한이 있으면 실행 스레드에 Deadline.current() 로 걸어 두고,
+     * 대기열에서 이미 시한이 지난 요청은 핸들러를 호출하지 않는다.
+     */
+    static Handler offload(Handler handler, Executor executor) {
+        return new Handler() {
+            @Override
+            public HttpResponse handle(HttpRequest request) throws IOException {
+                return handler.handle(request);
+            }
+
+            @Override
+            public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
+                Deadline queuedDeadline = request.deadline();
+                if (queuedDeadline != null) {
+                    queuedDeadline.markQueued();
+                }
+                return CompletableFuture.supplyAsync(() -> {
+                    Deadline deadline = request.deadline();
+                    if (deadline != null && deadline.isExpired()) {
+                        throw new DeadlineExceededException(true);
+                    }
+                    if (deadline != null) {
+                        deadline.markStarted();
+                    }
+                    try {
+                        return Deadline.runWith(deadline, () -> handler.handle(request));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } catch (RuntimeException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+        };
+    }
 }
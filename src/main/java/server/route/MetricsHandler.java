@@ -0,0 +1,35 @@
+package server.route;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.util.JsonUtil;
+import server.util.MetricsSource;
+
+/**
+ * 등록된 MetricsSource 들의 현재 값을 하나의 JSON 객체로 반환하는 핸들러.
+ */
+public final class MetricsHandler implements Handler {
+    private final List<MetricsSource> sources;
+
+    public MetricsHandler(List<MetricsSource> sources) {
+        this.sources = List.copyOf(sources);
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        Map<String, String> metrics = new TreeMap<>();
+        for (MetricsSource source : sources) {
+            source.collect(metrics);
+        }
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Cache-Control", "no-store")
+                .body(JsonUtil.toSimpleJson(metrics).getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
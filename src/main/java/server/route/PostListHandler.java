@@ -1,15 +1,18 @@
 package server.route;
 
 import java.nio.charset.StandardCharsets;
-import java.util.List;
+import java.util.Map;
 
+import server.config.ServerConfig;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.service.PostService;
 import server.util.JsonUtil;
 
 /**
- * 게시글 파일 목록을 반환하는 핸들러.
+ * 게시글 파일 목록을 페이지 단위로 반환하는 핸들러.
+ * 요청 본문(JSON)의 limit(기본 POST_LIST_DEFAULT_LIMIT, 최대 POST_LIST_MAX_LIMIT),
+ * order("newest" 기본 또는 "oldest"), cursor(앞 응답의 nextCursor)를 받는다.
  */
 public final class PostListHandler implements Handler {
 
@@ -24,14 +27,46 @@ public final class PostListHandler implements Handler {
         if (!"POST".equals(request.method())) {
             return methodNotAllowed();
         }
-        List<String> posts = postService.listPosts();
-        String body = JsonUtil.createListResponse(true, "", posts);
+        Map<String, String> params = JsonUtil.parseSimpleJson(new String(request.body(), StandardCharsets.UTF_8));
+
+        int limit = ServerConfig.POST_LIST_DEFAULT_LIMIT;
+        String limitParam = params.get("limit");
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 1 || limit > ServerConfig.POST_LIST_MAX_LIMIT) {
+                return badRequest("limit 는 1 에서 " + ServerConfig.POST_LIST_MAX_LIMIT + " 사이여야 합니다.");
+            }
+        }
+
+        String order = params.getOrDefault("order", "newest");
+        if (!"newest".equals(order) && !"oldest".equals(order)) {
+            return badRequest("order 는 newest 또는 oldest 여야 합니다.");
+        }
+
+        PostService.PostPage page;
+        try {
+            page = postService.listPosts(params.get("cursor"), "newest".equals(order), limit);
+        } catch (IllegalArgumentException e) {
+            return badRequest("cursor 가 올바르지 않습니다.");
+        }
+        String body = JsonUtil.createPageResponse(true, "", page.getPosts(), page.getNextCursor());
         return HttpResponse.builder(200, "OK")
                 .header("Content-Type", "application/json; charset=UTF-8")
                 .body(body.getBytes(StandardCharsets.UTF_8))
                 .build();
     }
 
+    private HttpResponse badRequest(String message) {
+        return HttpResponse.builder(400, "Bad Request")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
     private HttpResponse methodNotAllowed() {
         return HttpResponse.builder(405, "Method Not Allowed")
                 .header("Allow", "POST")
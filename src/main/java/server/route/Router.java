@@ -1,39 +1,116 @@
 package server.route;
 
+import server.filter.Filter;
+import server.filter.FilterChain;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionStage;
 
 /**
- * 요청 메소드/경로에 따라 적절한 핸들러로 분기해 주는 단순 라우터.
+ * 메서드 + 경로 세그먼트로 핸들러를 찾는 트라이 기반 라우터.
+ * 시작 시점에 Builder 로 경로를 모두 등록한 뒤 build() 하면 불변 트리가 만들어지며,
+ * 요청마다 경로를 한 번 훑는 것만으로 핸들러와 {param} 캡처 값을 얻는다.
+ *
+ * 어떤 경로에도 일치하지 않으면 메서드별 fallback(GET/HEAD → 정적 파일 등)으로 넘긴다.
+ * 경로는 일치하지만 메서드가 등록되지 않았으면 405 와 Allow 헤더를 돌려준다.
+ *
+ * 필터 체인도 build() 시점에 라우트마다 한 번 엮어 둔다. 각 필터의 appliesTo 로
+ * 해당 라우트에 필요 없는 필터(예: GET 정적 파일의 Content-Type 검사)는 체인에서 빠진다.
  */
 public final class Router {
-    private final Handler staticFileHandler;
-    private final Handler postHandler;
+    /** fallback 라우트의 경로 패턴(필터의 appliesTo 에 전달된다) */
+    public static final String FALLBACK = "/**";
+    /** 메서드를 특정할 수 없는 체인(405 응답 등)에 전달되는 메서드 값 */
+    public static final String ANY_METHOD = "*";
 
-    public Router(Handler staticFileHandler) {
-        this(staticFileHandler, null);
+    private final Node root;
+    private final Map<String, Route> fallbacks;
+    private final FilterChain notAllowedChain;
+
+    private Router(Node root, Map<String, Route> fallbacks, List<Filter> filters) {
+        this.root = root;
+        this.fallbacks = fallbacks;
+        this.notAllowedChain = FilterChain.compile(filters, ANY_METHOD, FALLBACK,
+                request -> notAllowed(match(request.method(), request.path()).allow()));
+    }
+
+    public static Builder builder() {
+        return new Builder();
     }
 
-    public Router(Handler staticFileHandler, Handler postHandler) {
-        this.staticFileHandler = staticFileHandler;
-        this.postHandler = postHandler;
+    /**
+     * 라우트를 찾아 경로 변수를 채운 뒤 미리 엮어 둔 필터 체인을 실행한다.
+     * 핸들러가 비동기로 처리되면 반환된 stage 는 나중에 완료된다.
+     */
+    public CompletionStage<HttpResponse> route(HttpRequest request) {
+        Match match = match(request.method(), request.path());
+        HttpRequest routed = request.withRoute(match.route(), match.params());
+        return match.chain().doFilterAsync(routed);
     }
 
-    public HttpResponse route(HttpRequest request) throws IOException {
-        String method = request.method();
-        if ("GET".equals(method) || "HEAD".equals(method)) {
-            return staticFileHandler.handle(request);
+    /**
+     * 메서드와 경로로 라우트를 찾는다. HEAD 는 GET 라우트를 함께 사용한다.
+     * 핸들러가 없으면 Match.handler() 가 null 이고 allow() 에 허용 메서드 목록이 담긴다.
+     * 이때 chain() 은 405 응답을 만드는 공용 체인이다.
+     */
+    public Match match(String method, String path) {
+        Map<String, String> params = Collections.emptyMap();
+        Node node = root;
+        int i = path.startsWith("/") ? 1 : 0;
+        int length = path.length();
+        while (node != null && i < length) {
+            int slash = path.indexOf('/', i);
+            int end = slash == -1 ? length : slash;
+            String segment = path.substring(i, end);
+            Node next = node.staticChildren.get(segment);
+            if (next == null && node.paramChild != null && !segment.isEmpty()) {
+                if (params.isEmpty()) {
+                    params = new HashMap<>(4);
+                }
+                params.put(node.paramChild.paramName, segment);
+                next = node.paramChild;
+            }
+            node = next;
+            i = end + 1; // 마지막 '/' 뒤가 비어 있으면 루프가 끝나므로 "/a/b/" 는 "/a/b" 와 같다.
         }
-        if ("POST".equals(method)) {
-            if (postHandler != null) {
-                return postHandler.handle(request);
+
+        if (node != null && !node.routes.isEmpty()) {
+            Route route = node.routes.get(method);
+            if (route == null && "HEAD".equals(method)) {
+                route = node.routes.get("GET");
+            }
+            if (route != null) {
+                return new Match(route.handler, route.chain, route.pattern, params, null);
             }
-            return notAllowed("GET, HEAD");
+            return new Match(null, notAllowedChain, FALLBACK, Map.of(), allowHeader(node.routes.keySet()));
         }
-        return notAllowed(postHandler != null ? "GET, HEAD, POST" : "GET, HEAD");
+
+        Route fallback = fallbacks.get(method);
+        if (fallback == null && "HEAD".equals(method)) {
+            fallback = fallbacks.get("GET");
+        }
+        if (fallback != null) {
+            return new Match(fallback.handler, fallback.chain, FALLBACK, Map.of(), null);
+        }
+        return new Match(null, notAllowedChain, FALLBACK, Map.of(), allowHeader(fallbacks.keySet()));
+    }
+
+    private static String allowHeader(Set<String> methods) {
+        TreeSet<String> allow = new TreeSet<>(methods);
+        if (allow.contains("GET")) {
+            allow.add("HEAD");
+        }
+        return String.join(", ", allow);
     }
 
     private HttpResponse notAllowed(String allowHeader) {
@@ -43,4 +120,150 @@ public final class Router {
                 .body("Method Not Allowed".getBytes(StandardCharsets.UTF_8))
                 .build();
     }
+
+    /**
+     * 라우팅 결과. route 는 일치한 라우트 패턴(fallback/405 는 FALLBACK)이며,
+     * handler 가 null 이면 allow 에 Allow 헤더 값이 담긴다.
+     */
+    public record Match(Handler handler, FilterChain chain, String route, Map<String, String> params, String allow) {
+    }
+
+    /**
+     * 등록된 핸들러와 그 앞에 엮인 필터 체인.
+     */
+    private static final class Route {
+        private final Handler handler;
+        private final FilterChain chain;
+        private final String pattern;
+
+        private Route(Handler handler, FilterChain chain, String pattern) {
+            this.handler = handler;
+            this.chain = chain;
+            this.pattern = pattern;
+        }
+    }
+
+    /**
+     * 트리의 한 세그먼트. build() 이후에는 모든 맵이 불변이다.
+     */
+    private static final class Node {
+        private final Map<String, Node> staticChildren;
+        private final Node paramChild;
+        private final String paramName;
+        private final Map<String, Route> routes;
+
+        private Node(Map<String, Node> staticChildren, Node paramChild, String paramName, Map<String, Route> routes) {
+            this.staticChildren = staticChildren;
+            this.paramChild = paramChild;
+            this.paramName = paramName;
+            this.routes = routes;
+        }
+    }
+
+    public static final class Builder {
+        private final MutableNode root = new MutableNode(null);
+        private final Map<String, Handler> fallbacks = new LinkedHashMap<>();
+        private List<Filter> filters = List.of();
+
+        private Builder() {}
+
+        /**
+         * 모든 라우트 앞에 둘 필터 목록(바깥쪽부터). 라우트마다 appliesTo 가 true 인 것만 남는다.
+         */
+        public Builder filters(List<Filter> filters) {
+            this.filters = List.copyOf(filters);
+            return this;
+        }
+
+        public Builder get(String pattern, Handler handler) {
+            return route("GET", pattern, handler);
+        }
+
+        public Builder post(String pattern, Handler handler) {
+            return route("POST", pattern, handler);
+        }
+
+        /**
+         * 경로 패턴에 핸들러를 등록한다. 세그먼트가 {name} 이면 해당 위치의 값을 name 으로 캡처한다.
+         */
+        public Builder route(String method, String pattern, Handler handler) {
+            if (method == null || pattern == null || handler == null) {
+                throw new IllegalArgumentException("method, pattern and handler are required");
+            }
+            MutableNode node = root;
+            List<String> segments = segments(pattern);
+            String normalized = "/" + String.join("/", segments);
+            for (String segment : segments) {
+                if (segment.startsWith("{") && segment.endsWith("}")) {
+                    String name = segment.substring(1, segment.length() - 1);
+                    if (node.paramChild == null) {
+                        node.paramChild = new MutableNode(name);
+                    } else if (!node.paramChild.paramName.equals(name)) {
+                        throw new IllegalArgumentException("Conflicting parameter name {" + name + "} in " + pattern);
+                    }
+                    node = node.paramChild;
+                } else {
+                    node = node.staticChildren.computeIfAbsent(segment, s -> new MutableNode(null));
+                }
+            }
+            if (node.handlers.putIfAbsent(method, handler) != null) {
+                throw new IllegalArgumentException("Duplicate route: " + method + " " + pattern);
+            }
+            node.patterns.put(method, normalized);
+            return this;
+        }
+
+        /**
+         * 등록된 경로와 일치하지 않을 때 사용할 메서드별 기본 핸들러.
+         */
+        public Builder fallback(String method, Handler handler) {
+            fallbacks.put(method, handler);
+            return this;
+        }
+
+        public Router build() {
+            Map<String, Route> compiledFallbacks = new HashMap<>();
+            fallbacks.forEach((method, handler) -> compiledFallbacks.put(method,
+                    new Route(handler, FilterChain.compile(filters, method, FALLBACK, handler), FALLBACK)));
+            return new Router(root.freeze(filters), Map.copyOf(compiledFallbacks), filters);
+        }
+
+        private static List<String> segments(String pattern) {
+            List<String> segments = new ArrayList<>();
+            String p = pattern.startsWith("/") ? pattern.substring(1) : pattern;
+            if (p.endsWith("/")) {
+                p = p.substring(0, p.length() - 1);
+            }
+            if (p.isEmpty()) {
+                return segments;
+            }
+            Collections.addAll(segments, p.split("/", -1));
+            return segments;
+        }
+    }
+
+    private static final class MutableNode {
+        private final Map<String, MutableNode> staticChildren = new HashMap<>();
+        private final String paramName;
+        private MutableNode paramChild;
+        private final Map<String, Handler> handlers = new HashMap<>();
+        private final Map<String, String> patterns = new HashMap<>();
+
+        private MutableNode(String paramName) {
+            this.paramName = paramName;
+        }
+
+        private Node freeze(List<Filter> filters) {
+            Map<String, Node> children = new HashMap<>();
+            staticChildren.forEach((segment, child) -> children.put(segment, child.freeze(filters)));
+            Map<String, Route> routes = new HashMap<>();
+            handlers.forEach((method, handler) -> routes.put(method,
+                    new Route(handler, FilterChain.compile(filters, method, patterns.get(method), handler),
+                            patterns.get(method))));
+            return new Node(Map.copyOf(children),
+                    paramChild != null ? paramChild.freeze(filters) : null,
+                    paramName,
+                    Map.copyOf(routes));
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package server.route;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 정적 파일 본문(원본, 압축본)을 바이트 용량 기준으로 담아 두는 LRU 캐시.
+ * 키는 "인코딩:파일 경로" 이다. 용량을 넘으면 가장 오래 안 쓴 항목부터 버리므로,
+ * 지워지거나 이름이 바뀐 파일의 본문도 결국 밀려나고 새 파일은 계속 캐시된다.
+ *
+ * 한 번의 조회/삽입은 맵 연산 몇 개뿐이라 잠금 하나로 충분하다.
+ */
+final class StaticBodyCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Body> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    StaticBodyCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Body get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 항목을 넣고, 용량을 넘으면 오래된 항목부터 버린다. 혼자서 용량을 넘는 본문은 넣지 않는다.
+     */
+    synchronized void put(String key, Body body) {
+        Body previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+        if (body.body.length > maxBytes) {
+            return;
+        }
+        entries.put(key, body);
+        bytes += body.body.length;
+        Iterator<Body> it = entries.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().body.length;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /** 파일 하나의 모든 인코딩 본문을 버린다. 색인에서 파일이 바뀌거나 사라졌을 때 쓴다. */
+    synchronized void invalidate(Path file) {
+        String suffix = ":" + file;
+        Iterator<Map.Entry<String, Body>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Body> entry = it.next();
+            if (entry.getKey().endsWith(suffix)) {
+                bytes -= entry.getValue().body.length;
+                it.remove();
+            }
+        }
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    /** 파일 수정 시각/크기가 같을 때만 유효한 본문(원본 또는 압축본) */
+    static final class Body {
+        final long modified;
+        final long size;
+        final byte[] body;
+
+        Body(long modified, long size, byte[] body) {
+            this.modified = modified;
+            this.size = size;
+            this.body = body;
+        }
+
+        boolean matches(StaticRouteIndex.Entry entry) {
+            return modified == entry.lastModifiedMillis() && size == entry.length();
+        }
+    }
+}
@@ -3,75 +3,212 @@ package server.route;
 import server.config.ServerConfig;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
-import server.util.MimeTypes;
+import server.util.Compression;
+import server.util.ContentManifest;
+import server.util.Logger;
+import server.util.MetricsSource;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 요청 경로를 기반으로 정적 파일을 찾아 반환하는 기본 핸들러.
+ * 경로 해석은 시작 시점에 만들어 둔 StaticRouteIndex 조회 한 번으로 끝난다.
  */
-public final class StaticFileHandler implements Handler {
-    private final Path root;
+public final class StaticFileHandler implements Handler, MetricsSource {
+    /** 원본 본문의 캐시 키 접두어. 압축본은 "gzip:" 처럼 인코딩 이름을 쓴다. */
+    private static final String RAW_KEY_PREFIX = "identity:";
 
-    public StaticFileHandler(Path root) {
-        // 생성자이다. 루트 경로를 절대 경로로 정규화하여 저장한다.
-        this.root = root.normalize().toAbsolutePath();
+    private final StaticRouteIndex index;
+    private final StaticBodyCache cache = new StaticBodyCache(ServerConfig.STATIC_CACHE_MAX_BYTES);
+    private final Map<Path, String> preloadLinks = new ConcurrentHashMap<>();
+
+    public StaticFileHandler(StaticRouteIndex index) {
+        this.index = index;
+        index.onChange(cache::invalidate); // 바뀌거나 지워진 파일의 본문은 바로 버린다.
     }
 
     @Override
     public HttpResponse handle(HttpRequest request) throws IOException {
-        String target = request.target();
-        // 쿼리 스트링을 제외한 경로만 사용한다.
-        String pathPart = target.split("\\?", 2)[0];
-        if (pathPart.isEmpty()) {
-            pathPart = "/";
+        StaticRouteIndex.Entry entry = index.lookup(request.path());
+        if (entry == null) {
+            // 색인에 없는 경로는 파일 시스템을 확인하지 않고 바로 404 처리한다.
+            return notFound();
         }
-        Path resolved = resolvePath(pathPart);
-        if (resolved == null) {
-            return forbidden();
+        if (notModified(request, entry)) {
+            // Content-Type 은 캐시 정책 필터가 규칙을 고를 수 있도록 함께 내려준다.
+            HttpResponse.Builder builder = HttpResponse.builder(304, "Not Modified")
+                    .header("Content-Type", entry.contentType())
+                    .header("ETag", entry.etag())
+                    .header("Last-Modified", entry.lastModified());
+            if (entry.compressible()) {
+                builder.header("Vary", "Accept-Encoding");
+            }
+            return builder.build();
         }
-        if (Files.isDirectory(resolved)) {
-            resolved = resolved.resolve("index.html");
+
+        HttpResponse.Builder builder = HttpResponse.builder(200, "OK")
+                .header("Content-Type", entry.contentType())
+                .header("ETag", entry.etag())
+                .header("Last-Modified", entry.lastModified());
+        String links = preloadLinks.get(entry.file());
+        if (links != null) {
+            builder.header("Link", links);
         }
-        if (!Files.exists(resolved) || !Files.isReadable(resolved)) {
+        try {
+            if (!entry.compressible()) {
+                return builder.body(rawBody(entry)).build();
+            }
+
+            // 압축 가능한 타입은 협상 결과에 따라 사전 압축본 또는 캐시된 압축본을 내려준다.
+            builder.header("Vary", "Accept-Encoding");
+            String encoding = Compression.negotiate(request.header("accept-encoding"));
+            if (encoding != null) {
+                byte[] compressed = compressedBody(entry, encoding);
+                if (compressed != null) {
+                    return builder.header("Content-Encoding", encoding).body(compressed).build();
+                }
+            }
+            // 여기서 이미 압축하지 않기로 정했으므로 CompressionFilter 가 매번 다시 압축해 보지 않도록 표시한다.
+            request.setAttribute(Compression.ENCODING_DECIDED_ATTRIBUTE, Boolean.TRUE);
+            return builder.body(rawBody(entry)).build();
+        } catch (NoSuchFileException e) {
+            // 색인이 갱신되기 전에 파일이 지워진 경우
             return notFound();
         }
-        byte[] body = Files.readAllBytes(resolved);
-        String mime = MimeTypes.probe(resolved);
-        return HttpResponse.builder(200, "OK")
-                .header("Content-Type", mime)
-                .body(body)
-                .build();
     }
 
-    private Path resolvePath(String pathPart) {
-        String cleaned = stripLeadingSlash(pathPart);
-        if (cleaned.contains("..")) {
-            // 상대경로 탈출 시도는 즉시 차단한다.
-            return null;
+    /**
+     * If-None-Match 가 있으면 ETag 로만, 없으면 If-Modified-Since 로 판단한다.
+     */
+    private boolean notModified(HttpRequest request, StaticRouteIndex.Entry entry) {
+        String ifNoneMatch = request.header("if-none-match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.equals("*") || weakEquals(t, entry.etag())) {
+                    return true;
+                }
+            }
+            return false;
         }
-        Path candidate = root.resolve(cleaned).normalize();
-        if (!candidate.startsWith(root)) {
+        String ifModifiedSince = request.header("if-modified-since");
+        if (ifModifiedSince != null) {
+            try {
+                long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                        .toInstant().toEpochMilli();
+                return entry.lastModifiedMillis() / 1000 <= since / 1000;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean weakEquals(String a, String b) {
+        return stripWeak(a).equals(stripWeak(b));
+    }
+
+    private String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    /**
+     * 원본보다 최신인 .gz 사전 압축본이 있으면 그것을 사용하고,
+     * 없으면 압축 결과를 캐시에서 꺼내거나 새로 만들어 캐시한다. 압축 이득이 없으면 null.
+     * 사전 압축본도 같은 "gzip:원본 경로" 키로 캐시한다. .gz 가 바뀌면 색인이 원본 항목을 다시 만들며
+     * 캐시를 비우므로, 원본의 수정 시각/크기 확인만으로 충분하다.
+     */
+    private byte[] compressedBody(StaticRouteIndex.Entry entry, String encoding) throws IOException {
+        if (entry.length() < ServerConfig.COMPRESSION_MIN_SIZE) {
             return null;
         }
-        return candidate;
+        String key = encoding + ":" + entry.file();
+        StaticBodyCache.Body cached = cache.get(key);
+        if (cached != null && cached.matches(entry)) {
+            return cached.body.length > 0 ? cached.body : null;
+        }
+        if (Compression.GZIP.equals(encoding) && entry.gzipSibling() != null) {
+            byte[] precompressed = Files.readAllBytes(entry.gzipSibling());
+            if (precompressed.length <= ServerConfig.STATIC_CACHE_MAX_FILE_BYTES) {
+                cache.put(key, new StaticBodyCache.Body(entry.lastModifiedMillis(), entry.length(), precompressed));
+            }
+            return precompressed;
+        }
+
+        byte[] raw = rawBody(entry);
+        byte[] compressed = Compression.encode(raw, encoding);
+        // 압축 이득이 없으면 빈 배열을 캐시해 다음 요청에서 다시 압축하지 않도록 한다.
+        byte[] stored = compressed.length < raw.length ? compressed : new byte[0];
+        cache.put(key, new StaticBodyCache.Body(entry.lastModifiedMillis(), entry.length(), stored));
+        return stored.length > 0 ? stored : null;
     }
 
-    private String stripLeadingSlash(String value) {
-        if (value.startsWith("/")) {
-            return value.substring(1);
+    /**
+     * 원본 파일 내용을 캐시에서 꺼내거나 읽어서 캐시한다. 큰 파일은 캐시하지 않는다.
+     */
+    private byte[] rawBody(StaticRouteIndex.Entry entry) throws IOException {
+        String key = RAW_KEY_PREFIX + entry.file();
+        StaticBodyCache.Body cached = cache.get(key);
+        if (cached != null && cached.matches(entry)) {
+            return cached.body;
+        }
+        byte[] body = Files.readAllBytes(entry.file());
+        if (body.length <= ServerConfig.STATIC_CACHE_MAX_FILE_BYTES) {
+            cache.put(key, new StaticBodyCache.Body(entry.lastModifiedMillis(), entry.length(), body));
         }
-        return value;
+        return body;
     }
 
-    private HttpResponse forbidden() {
-        return HttpResponse.builder(403, "Forbidden")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Forbidden".getBytes(StandardCharsets.UTF_8))
-                .build();
+    /**
+     * 매니페스트에 나열된 자산을 미리 읽어(압축 가능하면 gzip 본까지) 캐시에 올리고,
+     * 지정한 페이지 응답에 해당 자산의 Link: rel=preload 헤더를 붙이도록 등록한다.
+     * 색인에 없는 항목(아직 업로드되지 않은 이미지 등)은 건너뛴다.
+     */
+    public void preload(String pagePath, List<ContentManifest.Item> items) {
+        List<String> links = new ArrayList<>();
+        int warmed = 0;
+        for (ContentManifest.Item item : items) {
+            StaticRouteIndex.Entry entry = index.lookup(item.path());
+            if (entry == null) {
+                continue;
+            }
+            try {
+                rawBody(entry);
+                if (entry.compressible()) {
+                    compressedBody(entry, Compression.GZIP);
+                }
+                warmed++;
+            } catch (IOException e) {
+                Logger.warn("Failed to prewarm " + item.path() + ": " + e.getMessage());
+                continue;
+            }
+            links.add(entry.contentType().startsWith("image/")
+                    ? "<" + item.path() + ">; rel=preload; as=image"
+                    : "<" + item.path() + ">; rel=preload; as=fetch; crossorigin");
+        }
+        StaticRouteIndex.Entry page = index.lookup(pagePath);
+        if (page != null && !links.isEmpty()) {
+            preloadLinks.put(page.file(), String.join(", ", links));
+        }
+        Logger.info("Prewarmed " + warmed + " static assets for " + pagePath);
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        out.put("static.cache.entries", String.valueOf(cache.size()));
+        out.put("static.cache.bytes", String.valueOf(cache.bytes()));
+        out.put("static.cache.evictions", String.valueOf(cache.evictions()));
     }
 
     private HttpResponse notFound() {
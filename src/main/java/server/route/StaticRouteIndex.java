@@ -0,0 +1,399 @@
+package server.route;
+
+import server.util.Logger;
+import server.util.MimeTypes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 웹 루트를 미리 스캔해 "요청 경로 → 파일 메타데이터" 를 담은 색인.
+ * 요청 처리 중에는 맵 조회 한 번으로 파일 위치/MIME/크기/검증자(ETag, Last-Modified)를 얻으며,
+ * 색인에 없는 경로는 파일 시스템을 보지 않고 곧바로 404 가 된다.
+ * 웹 루트가 바뀌면 WatchService 이벤트마다 해당 파일의 항목만 고치고, 이벤트를 놓쳤을 때(OVERFLOW)만 전체를 다시 훑는다.
+ *
+ * 색인은 불변 맵이며 volatile 참조로 바꿔 끼운다. 요청 처리 쪽은 잠금 없이 한 시점의 색인만 본다.
+ * 변경은 드물므로 감시 키 하나의 이벤트 묶음을 사본에 반영한 뒤 새 불변 맵으로 한 번에 교체한다.
+ */
+public final class StaticRouteIndex implements Closeable {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final Path root;
+    private volatile Map<String, Entry> routes;
+    /** 색인 교체를 한 번에 하나씩 하도록 잡는 잠금. 조회는 잡지 않는다. */
+    private final Object writeLock = new Object();
+    /** 파일 항목이 바뀌거나 빠질 때 그 파일 경로를 받는 쪽(본문 캐시 무효화 등) */
+    private final List<Consumer<Path>> listeners = new CopyOnWriteArrayList<>();
+    private WatchService watchService;
+    private Thread watcher;
+
+    public StaticRouteIndex(Path root) {
+        this.root = root.normalize().toAbsolutePath();
+        this.routes = scan(this.root);
+    }
+
+    /**
+     * 요청 경로(질의 문자열 제외)에 해당하는 항목을 반환한다. 없으면 null.
+     */
+    public Entry lookup(String path) {
+        return routes.get(path);
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    /**
+     * 웹 루트를 다시 스캔하여 색인을 통째로 교체한다.
+     */
+    public void refresh() {
+        Map<String, Entry> updated = scan(root);
+        Map<String, Entry> previous;
+        synchronized (writeLock) {
+            previous = routes;
+            routes = updated;
+        }
+        for (Entry entry : previous.values()) {
+            notifyChanged(entry.file());
+        }
+        Logger.info("Static index rebuilt: " + updated.size() + " routes");
+    }
+
+    /**
+     * 파일 항목이 바뀌거나 빠질 때마다 그 파일 경로로 listener 를 부른다.
+     */
+    public void onChange(Consumer<Path> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 파일 변경 감시 스레드를 시작한다.
+     */
+    public synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            registerDirectories();
+        } catch (IOException e) {
+            Logger.error("Failed to watch web root; static index will not auto-refresh", e);
+            return;
+        }
+        watcher = new Thread(this::watchLoop, "static-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                apply((Path) key.watchable(), key.pollEvents());
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+
+    /**
+     * 감시 키 하나의 이벤트 묶음을 색인 사본에 반영하고 새 불변 맵으로 교체한다.
+     * 바뀐 파일(새 디렉터리면 그 아래)만 다시 읽으며, 이벤트를 놓쳤으면(OVERFLOW) 전체를 다시 훑는다.
+     */
+    void apply(Path dir, List<WatchEvent<?>> events) {
+        Set<Path> changed = new LinkedHashSet<>();
+        boolean rescan = false;
+        synchronized (writeLock) {
+            Map<String, Entry> next = new HashMap<>(routes);
+            for (WatchEvent<?> event : events) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    rescan = true;
+                    break;
+                }
+                Path file = dir.resolve((Path) event.context()).normalize();
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    removeTree(next, file, changed);
+                } else if (Files.isDirectory(file)) {
+                    if (!addTree(next, file, changed)) {
+                        rescan = true;
+                        break;
+                    }
+                } else {
+                    update(next, file, changed);
+                }
+            }
+            if (!rescan) {
+                routes = Map.copyOf(next);
+            }
+        }
+        if (rescan) {
+            rescan();
+            return;
+        }
+        for (Path file : changed) {
+            notifyChanged(file);
+        }
+    }
+
+    /** 놓친 이벤트가 있으면 감시 대상 디렉터리를 다시 등록하고 색인을 새로 만든다. */
+    private void rescan() {
+        if (watchService != null) {
+            try {
+                registerDirectories();
+            } catch (IOException e) {
+                Logger.error("Failed to re-register web root watches", e);
+            }
+        }
+        refresh();
+    }
+
+    /** 파일 하나의 항목을 다시 만든다. 없거나 읽을 수 없으면 뺀다. */
+    private void update(Map<String, Entry> next, Path file, Set<Path> changed) {
+        if (Files.isRegularFile(file) && Files.isReadable(file)) {
+            try {
+                putEntry(next, file, Entry.of(file), changed);
+            } catch (IOException e) {
+                Logger.warn("Skipping unreadable static file " + file + ": " + e.getMessage());
+                removeEntry(next, file, changed);
+            }
+        } else {
+            removeEntry(next, file, changed);
+        }
+        String name = file.getFileName().toString();
+        if (name.endsWith(".gz")) {
+            // 사전 압축본이 생기거나 바뀌면 원본 항목의 gzipSibling 도 다시 정한다.
+            Path original = file.resolveSibling(name.substring(0, name.length() - 3));
+            if (next.containsKey(routeOf(original))) {
+                update(next, original, changed);
+            }
+        }
+    }
+
+    /**
+     * 새로 생긴(또는 옮겨 온) 디렉터리를 감시 대상에 넣고 그 아래 파일을 색인한다.
+     * 디렉터리를 읽지 못하면 false 를 돌려 전체를 다시 훑게 한다.
+     */
+    private boolean addTree(Map<String, Entry> next, Path dir, Set<Path> changed) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) walk::iterator) {
+                if (Files.isDirectory(path)) {
+                    if (watchService != null) {
+                        path.register(watchService,
+                                StandardWatchEventKinds.ENTRY_CREATE,
+                                StandardWatchEventKinds.ENTRY_DELETE,
+                                StandardWatchEventKinds.ENTRY_MODIFY);
+                    }
+                } else {
+                    update(next, path, changed);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            Logger.error("Failed to index new directory " + dir + "; rescanning web root", e);
+            return false;
+        }
+    }
+
+    /** 지워진 파일 또는 디렉터리(그 아래 전부)의 항목을 뺀다. */
+    private void removeTree(Map<String, Entry> next, Path path, Set<Path> changed) {
+        Entry indexed = next.get(routeOf(path));
+        // "/dir" 은 dir/index.html 의 별칭이기도 하므로, 항목의 파일이 바로 이 경로일 때만 파일로 본다.
+        if (indexed != null && indexed.file().equals(path)) {
+            update(next, path, changed); // 파일이면 여기서 빠지고, .gz 면 원본 항목도 고쳐진다.
+            return;
+        }
+        // 디렉터리였다면 그 아래 파일의 항목(디렉터리 별칭 포함)을 모두 뺀다.
+        Iterator<Entry> it = next.values().iterator();
+        while (it.hasNext()) {
+            Path file = it.next().file();
+            if (file.startsWith(path)) {
+                it.remove();
+                changed.add(file);
+            }
+        }
+    }
+
+    private void putEntry(Map<String, Entry> next, Path file, Entry entry, Set<Path> changed) {
+        String path = routeOf(file);
+        Entry previous = next.put(path, entry);
+        for (String alias : aliases(path)) {
+            next.put(alias, entry);
+        }
+        if (previous != null) {
+            changed.add(file);
+        }
+    }
+
+    private void removeEntry(Map<String, Entry> next, Path file, Set<Path> changed) {
+        String path = routeOf(file);
+        if (next.remove(path) != null) {
+            for (String alias : aliases(path)) {
+                next.remove(alias);
+            }
+            changed.add(file);
+        }
+    }
+
+    private void notifyChanged(Path file) {
+        for (Consumer<Path> listener : listeners) {
+            listener.accept(file);
+        }
+    }
+
+    private String routeOf(Path file) {
+        return "/" + root.relativize(file).toString().replace('\\', '/');
+    }
+
+    /** index.html 이면 디렉터리 요청 경로("/dir/", "/dir")도 같은 항목으로 연결한다. */
+    private static List<String> aliases(String path) {
+        if (!path.endsWith("/index.html")) {
+            return List.of();
+        }
+        String dir = path.substring(0, path.length() - "index.html".length());
+        return dir.length() > 1 ? List.of(dir, dir.substring(0, dir.length() - 1)) : List.of(dir);
+    }
+
+    private void registerDirectories() throws IOException {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    private static Map<String, Entry> scan(Path root) {
+        Map<String, Entry> map = new HashMap<>();
+        if (!Files.isDirectory(root)) {
+            return Map.of();
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(Files::isReadable).toList();
+        } catch (IOException e) {
+            Logger.error("Failed to scan web root: " + root, e);
+            return Map.of();
+        }
+        for (Path file : files) {
+            try {
+                Entry entry = Entry.of(file);
+                String path = "/" + root.relativize(file).toString().replace('\\', '/');
+                map.put(path, entry);
+                if (file.getFileName().toString().equals("index.html")) {
+                    // 디렉터리 요청은 index.html 로 연결한다.
+                    String dir = path.substring(0, path.length() - "index.html".length());
+                    map.put(dir, entry);
+                    if (dir.length() > 1) {
+                        map.put(dir.substring(0, dir.length() - 1), entry);
+                    }
+                }
+            } catch (IOException e) {
+                Logger.warn("Skipping unreadable static file " + file + ": " + e.getMessage());
+            }
+        }
+        return Map.copyOf(map);
+    }
+
+    /**
+     * 정적 파일 하나에 대한 사전 계산된 메타데이터.
+     */
+    public static final class Entry {
+        private final Path file;
+        private final String contentType;
+        private final boolean compressible;
+        private final long length;
+        private final long lastModifiedMillis;
+        private final String lastModified;
+        private final String etag;
+        private final Path gzipSibling;
+
+        private Entry(Path file, String contentType, long length, long lastModifiedMillis, Path gzipSibling) {
+            this.file = file;
+            this.contentType = contentType;
+            this.compressible = MimeTypes.isCompressible(contentType);
+            this.length = length;
+            this.lastModifiedMillis = lastModifiedMillis;
+            this.lastModified = HTTP_DATE.format(Instant.ofEpochMilli(lastModifiedMillis));
+            this.etag = "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModifiedMillis) + "\"";
+            this.gzipSibling = gzipSibling;
+        }
+
+        private static Entry of(Path file) throws IOException {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            long modified = attrs.lastModifiedTime().toMillis();
+            Path sibling = file.resolveSibling(file.getFileName() + ".gz");
+            Path gzip = null;
+            if (Files.isRegularFile(sibling) && Files.getLastModifiedTime(sibling).toMillis() >= modified) {
+                gzip = sibling;
+            }
+            return new Entry(file, MimeTypes.probe(file), attrs.size(), modified, gzip);
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public boolean compressible() {
+            return compressible;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public long lastModifiedMillis() {
+            return lastModifiedMillis;
+        }
+
+        /** RFC 1123 형식으로 미리 포맷해 둔 Last-Modified 값 */
+        public String lastModified() {
+            return lastModified;
+        }
+
+        public String etag() {
+            return etag;
+        }
+
+        /** 원본보다 최신인 .gz 사전 압축본. 없으면 null */
+        public Path gzipSibling() {
+            return gzipSibling;
+        }
+    }
+}
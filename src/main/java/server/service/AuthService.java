@@ -2,19 +2,41 @@ package server.service;
 
 import java.util.Optional;
 
+import server.config.ServerConfig;
+import server.http.HttpRequest;
 import server.model.Session;
 import server.model.User;
+import server.util.CookieUtil;
 
 /**
  * 사용자 인증 통합 서비스
  */
-public final class AuthService {
+public final class AuthService implements AutoCloseable {
+    /** 요청 속성: 확인한 세션(Optional&lt;Session&gt;) */
+    public static final String SESSION_ATTRIBUTE = "auth.session";
+    /** 요청 속성: 세션의 사용자(Optional&lt;User&gt;) */
+    public static final String USER_ATTRIBUTE = "auth.user";
+
     private final UserRepository userRepository;
     private final SessionManager sessionManager;
+    /** 서명 토큰 모드일 때만 사용한다. null 이면 서버 측 세션을 쓴다. */
+    private final SessionTokenService tokenService;
+
+    /**
+     * 세션 저장소가 메모리에 있으므로, ServerMain 에서 하나만 만들어 필터/핸들러가 공유한다.
+     */
+    public AuthService(UserRepository userRepository, SessionManager sessionManager) {
+        this(userRepository, sessionManager, null);
+    }
 
-    public AuthService() {
-        this.userRepository = new UserRepository();
-        this.sessionManager = new SessionManager();
+    /**
+     * tokenService 가 있으면 로그인 시 서버에 세션을 저장하지 않고 서명 토큰을 발급한다.
+     */
+    public AuthService(UserRepository userRepository, SessionManager sessionManager,
+                       SessionTokenService tokenService) {
+        this.userRepository = userRepository;
+        this.sessionManager = sessionManager;
+        this.tokenService = tokenService;
     }
 
     /**
@@ -36,6 +58,9 @@ public final class AuthService {
         boolean success = userRepository.registerUser(username, password);
         if (success) {
             return new RegisterResult(true, "회원가입이 완료되었습니다.");
+        } else if (userRepository.isRegistering(username) || userRepository.userExists(username)) {
+            // 같은 이름의 동시 등록에서 진 경우. 진행 중인 등록을 먼저 봐야 끝난 직후의 틈을 놓치지 않는다.
+            return new RegisterResult(false, "이미 존재하는 아이디입니다.");
         } else {
             return new RegisterResult(false, "회원가입 중 오류가 발생했습니다.");
         }
@@ -51,7 +76,9 @@ public final class AuthService {
 
         boolean authenticated = userRepository.authenticateUser(username, password);
         if (authenticated) {
-            Session session = sessionManager.createSession(username);
+            Session session = tokenService != null
+                    ? tokenService.issue(username, ServerConfig.SESSION_DURATION_MINUTES)
+                    : sessionManager.createSession(username);
             return new LoginResult(true, session, "로그인 성공");
         } else {
             return new LoginResult(false, null, "아이디 또는 비밀번호가 잘못되었습니다.");
@@ -66,8 +93,23 @@ public final class AuthService {
             return Optional.empty();
         }
 
-        Optional<Session> sessionOpt = sessionManager.getValidSession(sessionId);
-        return sessionOpt.map(Session::getUsername);
+        return findSession(sessionId).map(Session::getUsername);
+    }
+
+    /**
+     * 요청의 세션 쿠키로 세션을 확인한다. 결과는 요청 속성에 보관되어 같은 요청에서는 다시 조회하지 않는다.
+     */
+    public Optional<Session> currentSession(HttpRequest request) {
+        return request.computeAttributeIfAbsent(SESSION_ATTRIBUTE,
+                name -> findSession(CookieUtil.getSessionId(request)));
+    }
+
+    /**
+     * 요청 세션의 사용자 정보. 처음 호출할 때 한 번만 읽어 요청 속성에 보관한다.
+     */
+    public Optional<User> currentUser(HttpRequest request) {
+        return request.computeAttributeIfAbsent(USER_ATTRIBUTE,
+                name -> currentSession(request).flatMap(session -> userRepository.loadUser(session.getUsername())));
     }
 
     /**
@@ -75,10 +117,36 @@ public final class AuthService {
      */
     public void logout(String sessionId) {
         if (sessionId != null && !sessionId.trim().isEmpty()) {
-            sessionManager.deleteSession(sessionId);
+            if (tokenService != null) {
+                tokenService.revoke(sessionId);
+            } else {
+                sessionManager.deleteSession(sessionId);
+            }
         }
     }
 
+    /**
+     * 토큰 모드면 서명만 확인하고(I/O 없음), 아니면 세션 저장소에서 찾는다.
+     */
+    private Optional<Session> findSession(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return Optional.empty();
+        }
+        return tokenService != null ? tokenService.verify(sessionId) : sessionManager.getValidSession(sessionId);
+    }
+
+    /**
+     * 요청의 세션으로 로그아웃하고, 같은 요청에 남아 있던 세션/사용자 속성도 비운다.
+     * 삭제한 세션 ID 를 반환한다.
+     */
+    public Optional<String> logout(HttpRequest request) {
+        Optional<String> sessionId = currentSession(request).map(Session::getSessionId);
+        sessionId.ifPresent(this::logout);
+        request.setAttribute(SESSION_ATTRIBUTE, Optional.empty());
+        request.setAttribute(USER_ATTRIBUTE, Optional.empty());
+        return sessionId;
+    }
+
     /**
      * 사용자 정보 조회
      */
@@ -93,6 +161,18 @@ public final class AuthService {
         sessionManager.cleanupExpiredSessions();
     }
 
+    /**
+     * 밀린 세션 변경과 로그인 시각을 파일에 반영한다. 서버 종료 시 호출한다.
+     */
+    @Override
+    public void close() {
+        sessionManager.close();
+        userRepository.close();
+        if (tokenService != null) {
+            tokenService.close();
+        }
+    }
+
     /**
      * 회원가입 결과
      */
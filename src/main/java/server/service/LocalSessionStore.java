@@ -0,0 +1,461 @@
+package server.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import server.config.ServerConfig;
+import server.http.Deadline;
+import server.model.Session;
+import server.util.Logger;
+import server.util.MetricsSource;
+
+/**
+ * 노드 안에서만 쓰는 세션 저장소.
+ * 조회는 메모리의 SessionTable 에서 바로 처리하고, 디렉토리의 파일은 재시작 시 복구용으로만 쓴다.
+ * 생성/삭제는 즉시 테이블에 반영한 뒤 파일 쓰기는 모아서 백그라운드에서 처리한다(write-behind).
+ *
+ * 만료 시각을 늦춘 세션은 "갱신됨" 으로 표시해 두고, 파일에는 정해진 주기마다 세션별 마지막 만료 시각 한 번만 기록한다.
+ *
+ * 만료 정리는 만료 시각 순으로 정렬된 큐를 주기적으로 앞에서부터 꺼내는 방식이라
+ * 디렉터리 전체를 훑지 않고, 만료된 세션만 작은 묶음으로 나눠 제거한다.
+ *
+ * 토큰 폐기 목록은 세션 테이블과 별도의 맵에 두고, 같은 디렉터리의 revoked-tokens.log 에 한 줄씩 덧붙여 남긴다.
+ * 파일 이름이 .txt 로 끝나지 않으므로 세션 복구 대상이 아니며, 만료 정리 때 지난 항목을 빼고 다시 쓴다.
+ */
+public final class LocalSessionStore implements SessionStore, MetricsSource {
+    private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String REVOCATIONS_FILE = "revoked-tokens.log";
+    /** 대기 중인 변경이 "삭제"임을 나타내는 표시 값 */
+    private static final Session DELETED = new Session("", "", LocalDateTime.MIN, LocalDateTime.MIN);
+
+    private final Path dir;
+    private final SessionTable sessions = new SessionTable();
+    /** 아직 파일에 반영되지 않은 변경. 같은 세션의 변경은 마지막 것만 남는다. */
+    private final Map<String, Session> pendingWrites = new ConcurrentHashMap<>();
+    /** 만료 시각이 늦춰졌지만 아직 파일에 반영하지 않은 세션 ID */
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+    /** 만료 시각 순 색인. 로그아웃 등으로 이미 지워진 세션의 항목은 꺼낼 때 건너뛴다. */
+    private final PriorityQueue<Expiry> expiryQueue = new PriorityQueue<>();
+    /** 폐기한 토큰ID → 토큰 만료 시각(epoch 초). 세션 테이블과 섞이지 않는다. */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final Object revocationFileLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private final AtomicLong touchFlushes = new AtomicLong();
+    private final AtomicLong sweepRuns = new AtomicLong();
+    private final AtomicLong sweptTotal = new AtomicLong();
+    private volatile long lastSweepMicros;
+    private volatile int lastSweepEvicted;
+
+    /**
+     * @param dir 세션 파일을 둘 디렉토리. 없으면 만든다.
+     */
+    public LocalSessionStore(Path dir) {
+        this.dir = dir;
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            Logger.error("Failed to create sessions directory", e);
+        }
+        recover();
+        recoverRevocations();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, ServerConfig.SESSION_FLUSH_INTERVAL_MILLIS,
+                ServerConfig.SESSION_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::flushTouches, ServerConfig.SESSION_TOUCH_FLUSH_INTERVAL_MILLIS,
+                ServerConfig.SESSION_TOUCH_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::evictExpired, ServerConfig.SESSION_SWEEP_INTERVAL_MILLIS,
+                ServerConfig.SESSION_SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void put(Session session) {
+        sessions.put(session);
+        track(session);
+        enqueue(session.getSessionId(), session);
+    }
+
+    @Override
+    public Session get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    /**
+     * 메모리의 만료 시각만 늦추고, 파일 쓰기는 flushTouches 가 주기적으로 모아서 처리한다.
+     */
+    @Override
+    public boolean extend(String sessionId, long newExpiresAt) {
+        if (!sessions.extend(sessionId, newExpiresAt)) {
+            return false;
+        }
+        touched.add(sessionId);
+        return true;
+    }
+
+    @Override
+    public boolean remove(String sessionId) {
+        if (!sessions.remove(sessionId, -1)) {
+            return false;
+        }
+        enqueue(sessionId, DELETED);
+        return true;
+    }
+
+    /**
+     * 폐기는 드물고 재시작 뒤에도 남아야 하므로 write-behind 를 거치지 않고 바로 파일에 덧붙인다.
+     */
+    @Override
+    public void revoke(String tokenId, long expiresAt) {
+        if (tokenId.isEmpty() || tokenId.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("Malformed token id");
+        }
+        revoked.merge(tokenId, expiresAt, Math::max);
+        synchronized (revocationFileLock) {
+            try {
+                Files.writeString(dir.resolve(REVOCATIONS_FILE), tokenId + " " + expiresAt + "\n",
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                Logger.error("Failed to save token revocation: " + tokenId, e);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Long> revocations() {
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, Long> live = new HashMap<>();
+        revoked.forEach((tokenId, expiresAt) -> {
+            if (expiresAt > now) {
+                live.put(tokenId, expiresAt);
+            }
+        });
+        return live;
+    }
+
+    /**
+     * 갱신된 세션의 현재 만료 시각을 write-behind 대기열에 넣는다.
+     * 한 주기 동안 여러 번 갱신되어도 파일 쓰기는 한 번이다.
+     */
+    void flushTouches() {
+        int flushed = 0;
+        for (String sessionId : touched) {
+            touched.remove(sessionId);
+            Session session = sessions.get(sessionId);
+            if (session != null) {
+                enqueue(sessionId, session);
+                if (sessions.expiresAt(sessionId) < 0) {
+                    enqueue(sessionId, DELETED); // 그 사이 로그아웃되었으면 삭제가 마지막이 되도록 한다.
+                }
+                flushed++;
+            }
+        }
+        touchFlushes.addAndGet(flushed);
+    }
+
+    /**
+     * 만료 큐의 앞쪽에서 만료 시각이 지난 항목을 묶음 단위로 꺼내 제거한다.
+     * 묶음 사이에는 잠금을 풀어 세션 생성이 오래 막히지 않도록 한다.
+     */
+    @Override
+    public void evictExpired() {
+        long start = System.nanoTime();
+        int evicted = 0;
+        List<Expiry> batch = new ArrayList<>(ServerConfig.SESSION_SWEEP_BATCH_SIZE);
+        while (true) {
+            Deadline.checkCurrent(); // 요청 처리 중 호출된 경우 시한이 지나면 중단
+            long now = System.currentTimeMillis() / 1000;
+            batch.clear();
+            synchronized (expiryQueue) {
+                while (batch.size() < ServerConfig.SESSION_SWEEP_BATCH_SIZE) {
+                    Expiry head = expiryQueue.peek();
+                    if (head == null || head.expiresAt > now) {
+                        break;
+                    }
+                    batch.add(expiryQueue.poll());
+                }
+            }
+            for (Expiry expiry : batch) {
+                long expiresAt = sessions.expiresAt(expiry.sessionId);
+                if (expiresAt < 0) {
+                    continue; // 큐에 들어간 이후 로그아웃 등으로 이미 지워진 경우
+                }
+                if (expiresAt > now) {
+                    track(expiry.sessionId, expiresAt); // 아직 만료 전이면 현재 만료 시각으로 다시 넣는다.
+                } else if (sessions.remove(expiry.sessionId, expiresAt)) {
+                    enqueue(expiry.sessionId, DELETED);
+                    evicted++;
+                } else {
+                    // 확인하는 사이 만료 시각이 늦춰졌으면 새 시각으로 다시 넣는다.
+                    long extended = sessions.expiresAt(expiry.sessionId);
+                    if (extended >= 0) {
+                        track(expiry.sessionId, extended);
+                    }
+                }
+            }
+            if (batch.size() < ServerConfig.SESSION_SWEEP_BATCH_SIZE) {
+                break;
+            }
+        }
+        sweepRuns.incrementAndGet();
+        sweptTotal.addAndGet(evicted);
+        lastSweepEvicted = evicted;
+        lastSweepMicros = (System.nanoTime() - start) / 1_000;
+        if (evicted > 0) {
+            Logger.info("Expired " + evicted + " sessions");
+        }
+        evictExpiredRevocations();
+    }
+
+    /**
+     * 만료가 지난 폐기 항목을 지우고, 지운 것이 있으면 남은 항목만으로 파일을 다시 쓴다.
+     */
+    private void evictExpiredRevocations() {
+        long now = System.currentTimeMillis() / 1000;
+        if (!revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        synchronized (revocationFileLock) {
+            StringBuilder content = new StringBuilder();
+            revoked.forEach((tokenId, expiresAt) -> content.append(tokenId).append(' ').append(expiresAt).append('\n'));
+            Path file = dir.resolve(REVOCATIONS_FILE);
+            Path tmp = dir.resolve(REVOCATIONS_FILE + ".tmp");
+            try {
+                Files.writeString(tmp, content);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Logger.error("Failed to compact token revocations", e);
+            }
+        }
+    }
+
+    /** 메모리에 있는 세션 수 */
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        out.put("sessions.active", String.valueOf(sessions.size()));
+        out.put("sessions.table_bytes", String.valueOf(sessions.memoryBytes()));
+        out.put("sessions.pending_writes", String.valueOf(pendingWrites.size()));
+        out.put("sessions.revoked_tokens", String.valueOf(revoked.size()));
+        synchronized (expiryQueue) {
+            out.put("sessions.expiry_queue", String.valueOf(expiryQueue.size()));
+        }
+        out.put("sessions.touch_flushes", String.valueOf(touchFlushes.get()));
+        out.put("sessions.sweep.runs", String.valueOf(sweepRuns.get()));
+        out.put("sessions.sweep.evicted_total", String.valueOf(sweptTotal.get()));
+        out.put("sessions.sweep.last_evicted", String.valueOf(lastSweepEvicted));
+        out.put("sessions.sweep.last_duration_us", String.valueOf(lastSweepMicros));
+    }
+
+    /**
+     * 밀린 변경을 모두 파일에 반영하고 백그라운드 쓰기를 멈춘다.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        flushTouches();
+        flush();
+    }
+
+    private void track(Session session) {
+        track(session.getSessionId(), SessionTable.toEpochSecond(session.getExpiresAt()));
+    }
+
+    private void track(String sessionId, long expiresAt) {
+        synchronized (expiryQueue) {
+            expiryQueue.add(new Expiry(expiresAt, sessionId));
+        }
+    }
+
+    private void enqueue(String sessionId, Session change) {
+        pendingWrites.put(sessionId, change);
+        if (pendingWrites.size() >= ServerConfig.SESSION_FLUSH_BATCH_SIZE) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // 종료 중이면 close() 가 마지막으로 반영한다.
+            }
+        }
+    }
+
+    /**
+     * 대기 중인 변경을 한 번에 파일에 반영한다.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            int written = 0;
+            for (String sessionId : pendingWrites.keySet()) {
+                Session change = pendingWrites.remove(sessionId);
+                if (change == null) {
+                    continue;
+                }
+                if (change == DELETED) {
+                    removeFile(sessionId);
+                } else {
+                    saveSession(change);
+                }
+                written++;
+            }
+            if (written > 0) {
+                Logger.info("Flushed " + written + " session changes");
+            }
+        }
+    }
+
+    /**
+     * 시작 시 디렉토리의 파일을 읽어 메모리로 올린다. 이미 만료된 세션은 파일을 지운다.
+     */
+    private void recover() {
+        int loaded = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (!name.endsWith(".txt") || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                String sessionId = name.substring(0, name.length() - ".txt".length());
+                Optional<Session> sessionOpt = loadSession(sessionId);
+                if (sessionOpt.isPresent() && !sessionOpt.get().isExpired()
+                        && SessionTable.parseId(sessionOpt.get().getSessionId()) != null) {
+                    sessions.put(sessionOpt.get());
+                    track(sessionOpt.get());
+                    loaded++;
+                } else {
+                    removeFile(sessionId);
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Failed to recover sessions", e);
+        }
+        Logger.info("Recovered " + loaded + " sessions from " + dir);
+    }
+
+    /**
+     * 시작 시 폐기 목록 파일을 읽는다. 같은 토큰이 여러 줄이면 가장 늦은 만료 시각을 쓴다.
+     */
+    private void recoverRevocations() {
+        Path file = dir.resolve(REVOCATIONS_FILE);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        try {
+            for (String line : Files.readAllLines(file)) {
+                String[] parts = line.split(" ");
+                if (parts.length != 2) {
+                    continue;
+                }
+                try {
+                    long expiresAt = Long.parseLong(parts[1]);
+                    if (expiresAt > now) {
+                        revoked.merge(parts[0], expiresAt, Math::max);
+                    }
+                } catch (NumberFormatException e) {
+                    // 쓰다 만 마지막 줄
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Failed to recover token revocations", e);
+        }
+    }
+
+    /**
+     * 세션 정보 로드
+     */
+    private Optional<Session> loadSession(String sessionId) {
+        Path sessionFile = dir.resolve(sessionId + ".txt");
+        if (!Files.exists(sessionFile)) {
+            return Optional.empty();
+        }
+
+        try {
+            String content = Files.readString(sessionFile);
+            String[] lines = content.split("\n");
+
+            if (lines.length < 4) {
+                return Optional.empty();
+            }
+
+            String storedSessionId = lines[0].substring(10); // "sessionId:" 제거
+            String username = lines[1].substring(9);         // "username:" 제거
+            String createdAtStr = lines[2].substring(10);    // "createdAt:" 제거
+            String expiresAtStr = lines[3].substring(10);    // "expiresAt:" 제거
+
+            LocalDateTime createdAt = LocalDateTime.parse(createdAtStr, DATETIME_FORMAT);
+            LocalDateTime expiresAt = LocalDateTime.parse(expiresAtStr, DATETIME_FORMAT);
+
+            return Optional.of(new Session(storedSessionId, username, createdAt, expiresAt));
+        } catch (Exception e) {
+            Logger.error("Failed to load session: " + sessionId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 세션 정보 저장
+     */
+    private void saveSession(Session session) {
+        Path sessionFile = dir.resolve(session.getSessionId() + ".txt");
+
+        StringBuilder content = new StringBuilder();
+        content.append("sessionId:").append(session.getSessionId()).append("\n");
+        content.append("username:").append(session.getUsername()).append("\n");
+        content.append("createdAt:").append(session.getCreatedAt().format(DATETIME_FORMAT)).append("\n");
+        content.append("expiresAt:").append(session.getExpiresAt().format(DATETIME_FORMAT)).append("\n");
+
+        try {
+            Files.writeString(sessionFile, content.toString());
+        } catch (IOException e) {
+            Logger.error("Failed to save session: " + session.getSessionId(), e);
+        }
+    }
+
+    private void removeFile(String sessionId) {
+        try {
+            Files.deleteIfExists(dir.resolve(sessionId + ".txt"));
+        } catch (IOException e) {
+            Logger.error("Failed to delete session: " + sessionId, e);
+        }
+    }
+
+    /** 만료 큐 항목(만료 시각은 epoch 초) */
+    private static final class Expiry implements Comparable<Expiry> {
+        private final long expiresAt;
+        private final String sessionId;
+
+        private Expiry(long expiresAt, String sessionId) {
+            this.expiresAt = expiresAt;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(expiresAt, other.expiresAt);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package server.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 존재하지 않는 것으로 확인된 세션 ID 를 잠시 기억해 두는 캐시.
+ * 만료된 쿠키를 반복해서 보내는 봇이나 위조된 쿠키가 매번 세션 저장소까지 내려가지 않도록 앞에서 거른다.
+ *
+ * 항목 수와 보관 시간이 모두 제한되며, 같은 ID 로 세션이 만들어지면 즉시 지운다.
+ */
+final class NegativeSessionCache {
+    private final int maxEntries;
+    private final long ttlNanos;
+    /** 세션 ID → 이 시각(nanoTime)까지 "없음" 으로 취급 */
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    NegativeSessionCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * 최근에 없다고 확인된 ID 면 true. 결과는 적중률 집계에 포함된다.
+     */
+    boolean knownMissing(String sessionId) {
+        Long until = entries.get(sessionId);
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                hits.increment();
+                return true;
+            }
+            entries.remove(sessionId, until);
+        }
+        misses.increment();
+        return false;
+    }
+
+    void recordMissing(String sessionId) {
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(sessionId, System.nanoTime() + ttlNanos);
+    }
+
+    /** 세션이 만들어지면 같은 ID 의 "없음" 기록을 지운다. */
+    void invalidate(String sessionId) {
+        entries.remove(sessionId);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    /** 조회 중 캐시로 거른 비율(0~1) */
+    double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * 기한이 지난 항목을 먼저 지우고, 그래도 가득 차 있으면 상한의 1/4 만큼 임의로 비운다.
+     */
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(until -> now - until >= 0);
+        int excess = entries.size() - maxEntries * 3 / 4;
+        Iterator<String> it = entries.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package server.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 파일을 고정 크기 페이지 단위로 읽어 LRU 로 보관하는 캐시.
+ * 자주 읽는 레코드가 같은 페이지에 모여 있으면 시스템 호출 없이 메모리에서 복사해 준다.
+ *
+ * 파일에 쓰는 쪽은 쓴 범위를 invalidate 해야 한다. 쓰기와 읽기의 순서는 호출하는 쪽(UserDatabase)의 잠금이 보장한다.
+ */
+final class PageCache {
+    private final FileChannel channel;
+    private final int pageSize;
+    private final Map<Long, byte[]> pages;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    PageCache(FileChannel channel, int pageSize, int maxPages) {
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    /**
+     * offset 부터 length 바이트를 읽는다. 파일 끝을 넘으면 EOFException.
+     */
+    byte[] read(long offset, int length) throws IOException {
+        byte[] out = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long position = offset + copied;
+            long pageNo = position / pageSize;
+            byte[] page = page(pageNo);
+            int from = (int) (position - pageNo * pageSize);
+            if (from >= page.length) {
+                throw new EOFException("Read past end of file at " + position);
+            }
+            int n = Math.min(length - copied, page.length - from);
+            System.arraycopy(page, from, out, copied, n);
+            copied += n;
+        }
+        return out;
+    }
+
+    /** offset 부터 length 바이트에 걸친 페이지를 버린다. */
+    void invalidate(long offset, int length) {
+        long first = offset / pageSize;
+        long last = (offset + Math.max(length, 1) - 1) / pageSize;
+        synchronized (pages) {
+            for (long pageNo = first; pageNo <= last; pageNo++) {
+                pages.remove(pageNo);
+            }
+        }
+    }
+
+    int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * 페이지를 돌려준다. 파일 끝 페이지는 pageSize 보다 짧을 수 있다.
+     */
+    private byte[] page(long pageNo) throws IOException {
+        synchronized (pages) {
+            byte[] page = pages.get(pageNo);
+            if (page != null) {
+                hits.increment();
+                return page;
+            }
+        }
+        misses.increment();
+        ByteBuffer buffer = ByteBuffer.allocate(pageSize);
+        long position = pageNo * pageSize;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                break;
+            }
+        }
+        byte[] page = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, page, 0, page.length);
+        synchronized (pages) {
+            pages.put(pageNo, page);
+        }
+        return page;
+    }
+}
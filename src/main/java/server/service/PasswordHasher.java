@@ -0,0 +1,252 @@
+package server.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import server.config.ServerConfig;
+import server.http.Deadline;
+import server.http.DeadlineExceededException;
+import server.util.MetricsSource;
+
+/**
+ * 비밀번호 해시 생성/검증기.
+ * 새 해시는 솔트를 붙인 PBKDF2-HMAC-SHA256 이며 "pbkdf2_sha256$반복횟수$솔트$해시" 형식으로 저장한다.
+ * 예전 형식(솔트 없는 SHA-256 한 번, Base64)도 검증할 수 있고, needsUpgrade 로 다시 해시할 대상을 알려 준다.
+ *
+ * PBKDF2 계산은 일부러 느리므로 요청 스레드가 아니라 전용 스레드 풀에서 돌린다.
+ * 풀의 스레드 수와 대기열 길이가 고정되어 있어 로그인이 몰려도 CPU 를 다른 요청과 나눠 쓰며,
+ * 대기열이 가득 차면 기다리지 않고 PasswordHasherBusyException 으로 바로 거절한다(503).
+ *
+ * 요청에 처리 시한이 있으면 넣기 전에 "앞선 작업 수 / 스레드 수 + 1" 에 최근 해시 시간을 곱해 끝날 시각을 어림하고,
+ * 남은 시한 안에 끝나지 못할 작업은 대기열에 자리가 있어도 넣지 않고 같은 예외로 바로 거절한다.
+ * 시한 끝까지 기다렸다가 504 로 끝나는 대신 곧바로 503 을 돌려주고, 어차피 버려질 계산에 CPU 를 쓰지 않는다.
+ */
+public final class PasswordHasher implements AutoCloseable, MetricsSource {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2_sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private final int iterations;
+    private final ThreadPoolExecutor pool;
+    private final SecureRandom random = new SecureRandom();
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rejectedLate = new AtomicLong();
+    /** 최근 해시 계산 시간의 지수 이동 평균(나노초). 아직 계산한 적이 없으면 0 */
+    private final AtomicLong recentHashNanos = new AtomicLong();
+    private final AtomicLong upgraded = new AtomicLong();
+
+    public PasswordHasher() {
+        this(ServerConfig.PASSWORD_HASH_ITERATIONS, ServerConfig.PASSWORD_HASH_THREADS,
+                ServerConfig.PASSWORD_HASH_QUEUE);
+    }
+
+    public PasswordHasher(int iterations, int threads, int queueCapacity) {
+        this.iterations = iterations;
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(ServerConfig.PASSWORD_HASH_PRIORITY);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 새 솔트로 현재 반복 횟수의 해시를 만든다.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] key = derive(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(key);
+    }
+
+    /**
+     * 저장된 해시와 비밀번호가 맞는지 확인한다. 형식을 알 수 없으면 false.
+     */
+    public boolean verify(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX + "$")) {
+            return MessageDigest.isEqual(legacyHash(password).getBytes(StandardCharsets.US_ASCII),
+                    stored.getBytes(StandardCharsets.US_ASCII));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(derive(password, salt, storedIterations), expected);
+        } catch (IllegalArgumentException e) {
+            return false; // 숫자나 Base64 형식 오류
+        }
+    }
+
+    /**
+     * 예전 형식이거나 반복 횟수가 현재 설정보다 적으면 true. 로그인에 성공했을 때 다시 해시한다.
+     */
+    public boolean needsUpgrade(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /** 해시를 다시 만들어 저장한 횟수를 센다. */
+    void recordUpgrade() {
+        upgraded.incrementAndGet();
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        long count = hashes.sum();
+        out.put("password_hash.iterations", String.valueOf(iterations));
+        out.put("password_hash.threads", String.valueOf(pool.getMaximumPoolSize()));
+        out.put("password_hash.active", String.valueOf(pool.getActiveCount()));
+        out.put("password_hash.queued", String.valueOf(pool.getQueue().size()));
+        out.put("password_hash.completed", String.valueOf(count));
+        out.put("password_hash.rejected", String.valueOf(rejected.get()));
+        out.put("password_hash.rejected_late", String.valueOf(rejectedLate.get()));
+        out.put("password_hash.recent_ms", millis(recentHashNanos.get()));
+        out.put("password_hash.upgraded", String.valueOf(upgraded.get()));
+        out.put("password_hash.avg_ms", millis(count == 0 ? 0 : hashNanos.sum() / count));
+        out.put("password_hash.max_ms", millis(maxHashNanos.get()));
+        out.put("password_hash.queue_wait_avg_ms", millis(count == 0 ? 0 : waitNanos.sum() / count));
+        out.put("password_hash.queue_wait_max_ms", millis(maxWaitNanos.get()));
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 전용 풀에서 PBKDF2 를 계산하고 끝날 때까지 기다린다.
+     * 요청에 처리 시한이 있으면 그만큼만 기다리고, 아직 시작하지 않은 작업은 취소한다.
+     */
+    private byte[] derive(String password, byte[] salt, int rounds) {
+        long submitted = System.nanoTime();
+        Callable<byte[]> task = () -> {
+            long started = System.nanoTime();
+            record(waitNanos, maxWaitNanos, started - submitted);
+            try {
+                PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, KEY_BITS);
+                try {
+                    return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+                } finally {
+                    spec.clearPassword();
+                }
+            } finally {
+                long elapsed = System.nanoTime() - started;
+                hashes.increment();
+                record(hashNanos, maxHashNanos, elapsed);
+                recentHashNanos.accumulateAndGet(elapsed, (avg, x) -> avg == 0 ? x : avg + (x - avg) / 8);
+            }
+        };
+
+        Deadline deadline = Deadline.current();
+        if (deadline != null && estimatedCompletionMillis() > deadline.remainingMillis()) {
+            rejected.incrementAndGet();
+            rejectedLate.incrementAndGet();
+            throw new PasswordHasherBusyException();
+        }
+        Future<byte[]> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHasherBusyException();
+        }
+        try {
+            return deadline == null ? future.get()
+                    : future.get(Math.max(1, deadline.remainingMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new DeadlineExceededException(false);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException(false);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GeneralSecurityException) {
+                throw new IllegalStateException(ALGORITHM + " not available", cause);
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    /**
+     * 지금 넣은 작업이 끝나기까지 걸릴 시간의 어림값(밀리초).
+     * 스레드가 남아 있으면 해시 한 번, 아니면 앞선 작업이 스레드 수만큼씩 끝나기를 기다린 뒤 한 번이다.
+     */
+    private long estimatedCompletionMillis() {
+        long perHash = recentHashNanos.get();
+        if (perHash == 0) {
+            return 0;
+        }
+        int threads = pool.getMaximumPoolSize();
+        long ahead = pool.getQueue().size() + pool.getActiveCount();
+        long rounds = ahead < threads ? 1 : ahead / threads + 1;
+        return rounds * perHash / 1_000_000L;
+    }
+
+    private static void record(LongAdder total, AtomicLong max, long nanos) {
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * 예전 형식: 솔트 없는 SHA-256 한 번, Base64. 계산이 가벼우므로 호출한 스레드에서 처리한다.
+     */
+    private static String legacyHash(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(password.getBytes()); // 기존 해시와 맞추기 위해 기본 문자셋 그대로
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 algorithm not available", e);
+        }
+    }
+}
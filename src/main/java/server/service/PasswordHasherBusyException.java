@@ -0,0 +1,12 @@
+package server.service;
+
+/**
+ * 비밀번호 해시 전용 풀의 대기열이 가득 차 작업을 받지 못했을 때 던지는 예외.
+ * 요청을 기다리게 하지 않고 바로 503 으로 돌려보내기 위해 쓴다.
+ */
+public class PasswordHasherBusyException extends RuntimeException {
+
+    public PasswordHasherBusyException() {
+        super("Password hashing capacity exceeded");
+    }
+}
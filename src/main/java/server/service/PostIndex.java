@@ -0,0 +1,252 @@
+package server.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import server.util.Logger;
+
+/**
+ * 게시글 파일 이름의 메모리 색인.
+ * 시작할 때 posts/ 를 한 번 훑어 만들고, 이후에는 PostService 의 작성/삭제가 바로 반영하며
+ * 서버 밖에서 파일을 넣거나 지운 것은 WatchService 이벤트로 따라간다. 목록 조회는 디스크를 보지 않는다.
+ *
+ * 항목은 파일 이름에 붙은 작성 시각(generateFilename 의 밀리초), 같으면 이름 순으로 정렬된다.
+ * 내용이 바뀔 때마다 version 이 1씩 늘어나므로 목록이 바뀌었는지 version 만 비교해 알 수 있다.
+ * page 는 정렬된 집합에서 기준 위치를 찾아 필요한 만큼만 읽으므로 전체 글 수와 상관없이 페이지 크기에 비례한다.
+ */
+final class PostIndex implements Closeable {
+    private static final String SUFFIX = ".txt";
+
+    private final Path dir;
+    private final ConcurrentSkipListSet<Key> posts = new ConcurrentSkipListSet<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong externalChanges = new AtomicLong();
+    private final AtomicLong rescans = new AtomicLong();
+    private WatchService watchService;
+    private Thread watcher;
+
+    PostIndex(Path dir) {
+        this.dir = dir;
+        rescan();
+    }
+
+    /** 색인에 넣는다. 새로 들어갔으면 true */
+    boolean add(String filename) {
+        if (!filename.endsWith(SUFFIX) || !posts.add(Key.of(filename))) {
+            return false;
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /** 색인에서 뺀다. 있었으면 true */
+    boolean remove(String filename) {
+        if (!posts.remove(Key.of(filename))) {
+            return false;
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /** 작성 시각 오름차순의 파일 이름 목록. 만드는 동안의 변경은 반영될 수도, 안 될 수도 있다. */
+    List<String> snapshot() {
+        List<String> names = new ArrayList<>(posts.size());
+        for (Key key : posts) {
+            names.add(key.filename);
+        }
+        return names;
+    }
+
+    /**
+     * after 다음부터 limit 개를 돌려준다(after 가 null 이면 처음부터).
+     * 한 개를 더 읽어 보아 뒤에 남은 글이 있으면 limit + 1 개를 돌려주므로, 호출하는 쪽이 잘라서 다음 페이지 여부를 판단한다.
+     * after 가 그 사이 삭제되었어도 정렬 위치는 이름으로 정해지므로 그 다음 글부터 이어진다.
+     */
+    List<String> page(String after, boolean newestFirst, int limit) {
+        NavigableSet<Key> view = newestFirst ? posts.descendingSet() : posts;
+        if (after != null) {
+            view = view.tailSet(Key.of(after), false);
+        }
+        List<String> names = new ArrayList<>(limit + 1);
+        for (Key key : view) {
+            names.add(key.filename);
+            if (names.size() > limit) {
+                break;
+            }
+        }
+        return names;
+    }
+
+    int size() {
+        return posts.size();
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    long externalChanges() {
+        return externalChanges.get();
+    }
+
+    long rescans() {
+        return rescans.get();
+    }
+
+    /**
+     * 디렉터리를 다시 훑어 색인을 맞춘다. 시작할 때와 감시 이벤트를 놓쳤을 때(OVERFLOW) 쓴다.
+     */
+    void rescan() {
+        Set<String> present = new HashSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX) && Files.isRegularFile(file)) {
+                    present.add(name);
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Failed to scan posts directory: " + dir, e);
+            return;
+        }
+        for (String name : present) {
+            add(name);
+        }
+        for (Key key : posts) {
+            // 훑은 뒤에 작성된 글일 수 있으므로 지우기 전에 한 번 더 확인한다.
+            if (!present.contains(key.filename) && !Files.exists(dir.resolve(key.filename))) {
+                remove(key.filename);
+            }
+        }
+        rescans.incrementAndGet();
+    }
+
+    /**
+     * 서버 밖에서의 변경을 따라가는 감시 스레드를 시작한다.
+     */
+    synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            Logger.error("Failed to watch posts directory; external changes will not be indexed", e);
+            return;
+        }
+        // 감시를 등록하기 전에 생긴 파일을 놓치지 않도록 한 번 더 맞춘다.
+        rescan();
+        watcher = new Thread(this::watchLoop, "post-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    apply(event);
+                }
+                if (!key.reset()) {
+                    Logger.warn("Posts directory is no longer watched: " + dir);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+
+    private void apply(WatchEvent<?> event) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            rescan();
+            return;
+        }
+        String name = ((Path) event.context()).getFileName().toString();
+        boolean changed;
+        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+            changed = Files.isRegularFile(dir.resolve(name)) && add(name);
+        } else {
+            changed = remove(name);
+        }
+        if (changed) {
+            externalChanges.incrementAndGet(); // 서버가 직접 바꾼 것은 이미 반영되어 있어 여기서 세지 않는다.
+        }
+    }
+
+    /** 정렬 키: 파일 이름의 작성 시각(밀리초, 없으면 -1) → 파일 이름 */
+    private static final class Key implements Comparable<Key> {
+        private final long timestamp;
+        private final String filename;
+
+        private Key(long timestamp, String filename) {
+            this.timestamp = timestamp;
+            this.filename = filename;
+        }
+
+        private static Key of(String filename) {
+            return new Key(timestampOf(filename), filename);
+        }
+
+        /** "제목_1700000000000.txt" 의 밀리초. 형식이 다르면 -1 */
+        private static long timestampOf(String filename) {
+            int end = filename.length() - SUFFIX.length();
+            int start = filename.lastIndexOf('_', end) + 1;
+            if (start == 0 || start >= end) {
+                return -1;
+            }
+            long value = 0;
+            for (int i = start; i < end; i++) {
+                char c = filename.charAt(i);
+                if (c < '0' || c > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(timestamp, other.timestamp);
+            return byTime != 0 ? byTime : filename.compareTo(other.filename);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && filename.equals(((Key) o).filename);
+        }
+
+        @Override
+        public int hashCode() {
+            return filename.hashCode();
+        }
+    }
+}
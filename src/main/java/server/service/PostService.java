@@ -2,22 +2,27 @@
 package server.service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
 import server.config.ServerConfig;
 import server.util.Logger;
+import server.util.MetricsSource;
 
 /**
  * 게시글 관리 서비스
  * posts/ 디렉토리에 텍스트 파일로 게시글을 저장
+ * 목록은 메모리 색인(PostIndex)에서 읽으므로 요청마다 디렉토리를 훑지 않는다.
  */
-public final class PostService {
+public final class PostService implements AutoCloseable, MetricsSource {
     private final Path postsDir;
+    private final PostIndex index;
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public PostService() {
@@ -31,6 +36,14 @@ public final class PostService {
         } catch (IOException e) {
             Logger.error("Failed to create posts directory", e);
         }
+        this.index = new PostIndex(this.postsDir);
+    }
+
+    /**
+     * 서버 밖에서 posts/ 에 넣거나 지운 파일도 목록에 반영되도록 감시를 시작한다.
+     */
+    public void startWatching() {
+        index.startWatching();
     }
 
     /**
@@ -53,6 +66,7 @@ public final class PostService {
             postContent.append(content);
 
             Files.writeString(postFile, postContent.toString());
+            index.add(filename);
             Logger.info("Post created: " + filename);
             return true;
         } catch (Exception e) {
@@ -62,19 +76,32 @@ public final class PostService {
     }
 
     /**
-     * 게시글 목록 조회
+     * 게시글 목록 조회. 작성 시각 오름차순이며 디스크를 읽지 않는다.
      */
     public List<String> listPosts() {
-        List<String> posts = new ArrayList<>();
-        try {
-            Files.list(postsDir)
-                .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".txt"))
-                .forEach(path -> posts.add(path.getFileName().toString()));
-        } catch (Exception e) {
-            Logger.error("Failed to list posts", e);
+        return index.snapshot();
+    }
+
+    /**
+     * 게시글 목록의 한 페이지. cursor 는 앞 페이지의 nextCursor(첫 페이지는 null)이며, 같은 정렬 순서로만 이어 쓸 수 있다.
+     *
+     * @throws IllegalArgumentException cursor 형식이 틀리거나 다른 정렬 순서의 cursor 인 경우
+     */
+    public PostPage listPosts(String cursor, boolean newestFirst, int limit) {
+        String after = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor, newestFirst);
+        List<String> posts = index.page(after, newestFirst, limit);
+        if (posts.size() <= limit) {
+            return new PostPage(posts, null);
         }
-        return posts;
+        posts = posts.subList(0, limit);
+        return new PostPage(posts, encodeCursor(posts.get(limit - 1), newestFirst));
+    }
+
+    /**
+     * 게시글 목록의 버전. 글이 추가되거나 삭제될 때마다 늘어난다.
+     */
+    public long listVersion() {
+        return index.version();
     }
 
     /**
@@ -94,6 +121,7 @@ public final class PostService {
         try {
             boolean deleted = Files.deleteIfExists(postFile);
             if (deleted) {
+                index.remove(postFile.getFileName().toString());
                 Logger.info("Post deleted: " + filename);
             }
             return deleted;
@@ -103,6 +131,42 @@ public final class PostService {
         }
     }
 
+    @Override
+    public void collect(Map<String, String> out) {
+        out.put("posts.index.size", String.valueOf(index.size()));
+        out.put("posts.index.version", String.valueOf(index.version()));
+        out.put("posts.index.external_changes", String.valueOf(index.externalChanges()));
+        out.put("posts.index.rescans", String.valueOf(index.rescans()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        index.close();
+    }
+
+    /**
+     * 마지막으로 돌려준 파일 이름과 정렬 순서를 URL 에 그대로 쓸 수 있는 문자열로 감싼다.
+     * 정렬 키는 파일 이름만으로 다시 만들 수 있으므로 이름만 담으면 된다.
+     */
+    private static String encodeCursor(String lastFilename, boolean newestFirst) {
+        String raw = (newestFirst ? "n:" : "o:") + lastFilename;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor, boolean newestFirst) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        String prefix = newestFirst ? "n:" : "o:";
+        if (!raw.startsWith(prefix) || raw.length() == prefix.length()) {
+            throw new IllegalArgumentException("Cursor does not match sort order");
+        }
+        return raw.substring(prefix.length());
+    }
+
     /**
      * 파일명 생성 (제목을 안전한 파일명으로 변환)
      */
@@ -112,4 +176,25 @@ public final class PostService {
                           .toLowerCase();
         return safe + "_" + System.currentTimeMillis() + ".txt";
     }
+
+    /**
+     * 게시글 목록 한 페이지. nextCursor 가 null 이면 마지막 페이지다.
+     */
+    public static class PostPage {
+        private final List<String> posts;
+        private final String nextCursor;
+
+        public PostPage(List<String> posts, String nextCursor) {
+            this.posts = posts;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<String> getPosts() {
+            return posts;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
 }
@@ -0,0 +1,356 @@
+package server.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.config.ServerConfig;
+import server.http.Deadline;
+import server.model.Session;
+import server.util.Logger;
+import server.util.MetricsSource;
+
+/**
+ * 여러 서버 인스턴스가 함께 쓰는 원격 세션 저장소 클라이언트.
+ * 세션 ID 를 일관 해싱 링에 올려 담당 노드를 고르므로, 노드가 추가/제거되어도 일부 세션만 자리를 옮긴다.
+ * 노드와는 SessionStoreServer 의 한 줄 프로토콜로 통신하며, 노드마다 연결을 몇 개 열어 두고 재사용한다.
+ *
+ * 조회 결과는 노드 안의 near-cache 에 짧게 들고 있어 같은 세션의 연속 요청은 네트워크를 타지 않는다.
+ * 이 노드에서 만든 변경은 캐시에 바로 반영하지만, 다른 노드에서의 로그아웃은 캐시 기간만큼 늦게 보일 수 있다.
+ *
+ * 토큰 폐기 항목은 토큰ID 로 담당 노드를 골라 올리고, 폐기 목록 전체는 모든 노드에서 모아 돌려준다.
+ *
+ * 노드에 닿지 못하면 SessionStoreUnavailableException 을 던져 요청을 503 으로 끊는다(없는 세션으로 취급하지 않음).
+ */
+public final class RemoteSessionStore implements SessionStore, MetricsSource {
+    private final NavigableMap<Long, Node> ring = new TreeMap<>();
+    private final List<Node> nodes = new ArrayList<>();
+    private final int timeoutMillis;
+    private final int poolSize;
+    private final int nearCacheSize;
+    private final long nearCacheTtlNanos;
+    private final Map<String, Cached> nearCache = new ConcurrentHashMap<>();
+    private final LongAdder nearHits = new LongAdder();
+    private final LongAdder nearMisses = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public RemoteSessionStore(List<String> addresses) {
+        this(addresses, ServerConfig.SESSION_STORE_VIRTUAL_NODES, ServerConfig.SESSION_STORE_TIMEOUT_MILLIS,
+                ServerConfig.SESSION_STORE_POOL_SIZE, ServerConfig.SESSION_NEAR_CACHE_SIZE,
+                ServerConfig.SESSION_NEAR_CACHE_TTL_MILLIS);
+    }
+
+    /**
+     * @param addresses "host:port" 형식의 노드 주소. 모든 인스턴스가 같은 목록을 써야 같은 노드를 고른다.
+     * @param nearCacheTtlMillis 0 이면 near-cache 를 쓰지 않는다.
+     */
+    public RemoteSessionStore(List<String> addresses, int virtualNodes, int timeoutMillis, int poolSize,
+                              int nearCacheSize, long nearCacheTtlMillis) {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("No session store nodes");
+        }
+        for (String address : addresses) {
+            Node node = new Node(address);
+            nodes.add(node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(address + "#" + i), node);
+            }
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.poolSize = poolSize;
+        this.nearCacheSize = nearCacheSize;
+        this.nearCacheTtlNanos = nearCacheTtlMillis * 1_000_000L;
+    }
+
+    @Override
+    public void put(Session session) {
+        String id = session.getSessionId();
+        call(id, "PUT " + id + " " + SessionStoreServer.format(session));
+        cache(session);
+    }
+
+    @Override
+    public Session get(String sessionId) {
+        if (SessionTable.parseId(sessionId) == null) {
+            return null; // 형식이 틀린 쿠키는 노드까지 보내지 않는다.
+        }
+        Cached cached = nearCache.get(sessionId);
+        if (cached != null) {
+            if (System.nanoTime() - cached.until < 0) {
+                nearHits.increment();
+                return cached.session;
+            }
+            nearCache.remove(sessionId, cached);
+        }
+        nearMisses.increment();
+        String reply = call(sessionId, "GET " + sessionId);
+        if (!reply.startsWith("OK ")) {
+            return null;
+        }
+        Session session = SessionStoreServer.parse(sessionId, reply.split(" "), 1);
+        cache(session);
+        return session;
+    }
+
+    @Override
+    public boolean extend(String sessionId, long newExpiresAt) {
+        nearCache.remove(sessionId);
+        return "OK".equals(call(sessionId, "EXTEND " + sessionId + " " + newExpiresAt));
+    }
+
+    @Override
+    public boolean remove(String sessionId) {
+        nearCache.remove(sessionId);
+        if (SessionTable.parseId(sessionId) == null) {
+            return false;
+        }
+        return "OK".equals(call(sessionId, "DEL " + sessionId));
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAt) {
+        call(nodeFor(tokenId), "REVOKE " + tokenId + " " + expiresAt);
+    }
+
+    /**
+     * 노드 하나라도 닿지 않으면 일부만 돌려주지 않고 SessionStoreUnavailableException 을 던진다.
+     */
+    @Override
+    public Map<String, Long> revocations() {
+        Map<String, Long> all = new HashMap<>();
+        for (Node node : nodes) {
+            String[] parts = call(node, "REVOCATIONS").split(" ");
+            for (int i = 1; i + 1 < parts.length; i += 2) {
+                all.merge(parts[i], Long.parseLong(parts[i + 1]), Math::max);
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        out.put("session_store.nodes", String.valueOf(nodes.size()));
+        out.put("session_store.errors", String.valueOf(errors.sum()));
+        for (Node node : nodes) {
+            out.put("session_store." + node.address + ".calls", String.valueOf(node.calls.sum()));
+        }
+        long hits = nearHits.sum();
+        long total = hits + nearMisses.sum();
+        out.put("session_store.near_cache.size", String.valueOf(nearCache.size()));
+        out.put("session_store.near_cache.hits", String.valueOf(hits));
+        out.put("session_store.near_cache.misses", String.valueOf(total - hits));
+        out.put("session_store.near_cache.hit_ratio",
+                String.format(Locale.ROOT, "%.3f", total == 0 ? 0.0 : (double) hits / total));
+    }
+
+    @Override
+    public void close() {
+        for (Node node : nodes) {
+            Connection conn;
+            while ((conn = node.idle.poll()) != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /** 세션 ID 를 담당하는 노드(링에서 해시 값 이후 첫 가상 노드) */
+    private Node nodeFor(String sessionId) {
+        Map.Entry<Long, Node> entry = ring.ceilingEntry(hash(sessionId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /** 세션 ID 를 담당하는 노드에 요청한다. */
+    private String call(String sessionId, String request) {
+        return call(nodeFor(sessionId), request);
+    }
+
+    /**
+     * 노드에 요청 한 줄을 보내고 응답 한 줄을 받는다.
+     * 재사용한 연결이 그 사이 끊겨 있었을 수 있으므로 새 연결로 한 번만 다시 시도한다.
+     */
+    private String call(Node node, String request) {
+        node.calls.increment();
+        IOException failure = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Connection conn = attempt == 0 ? node.idle.poll() : null;
+            boolean reused = conn != null;
+            try {
+                if (conn == null) {
+                    conn = new Connection(node.socketAddress(), timeoutFor());
+                }
+                String reply = conn.exchange(request, timeoutFor());
+                if (reply.startsWith("ERR")) {
+                    conn.close();
+                    throw new IOException("Session store " + node.address + " rejected request: " + reply);
+                }
+                release(node, conn);
+                return reply;
+            } catch (IOException e) {
+                if (conn != null) {
+                    conn.close();
+                }
+                failure = e;
+                if (!reused) {
+                    break;
+                }
+            }
+        }
+        errors.increment();
+        Logger.warn("Session store " + node.address + " unavailable: " + failure.getMessage());
+        throw new SessionStoreUnavailableException("Session store " + node.address + " unavailable", failure);
+    }
+
+    private void release(Node node, Connection conn) {
+        if (node.idle.size() < poolSize) {
+            node.idle.push(conn);
+        } else {
+            conn.close();
+        }
+    }
+
+    /** 요청에 남은 처리 시한이 더 짧으면 그만큼만 기다린다. */
+    private int timeoutFor() {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return timeoutMillis;
+        }
+        return (int) Math.max(1, Math.min(timeoutMillis, deadline.remainingMillis()));
+    }
+
+    private void cache(Session session) {
+        if (nearCacheTtlNanos <= 0) {
+            return;
+        }
+        if (nearCache.size() >= nearCacheSize) {
+            evictNearCache();
+        }
+        nearCache.put(session.getSessionId(), new Cached(session, System.nanoTime() + nearCacheTtlNanos));
+    }
+
+    /**
+     * 기한이 지난 항목을 먼저 지우고, 그래도 가득 차 있으면 상한의 1/4 만큼 임의로 비운다.
+     */
+    private void evictNearCache() {
+        long now = System.nanoTime();
+        nearCache.values().removeIf(c -> now - c.until >= 0);
+        int excess = nearCache.size() - nearCacheSize * 3 / 4;
+        Iterator<String> it = nearCache.keySet().iterator();
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /** MD5 앞 8바이트. 노드마다 같은 값을 내야 하므로 String.hashCode 대신 쓴다. */
+    private static long hash(String key) {
+        byte[] digest = MD5.get().digest(key.getBytes(StandardCharsets.UTF_8));
+        long h = 0;
+        for (int i = 0; i < 8; i++) {
+            h = (h << 8) | (digest[i] & 0xff);
+        }
+        return h;
+    }
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    });
+
+    /** 링에 올라간 실제 노드와 그 노드로 열어 둔 연결 */
+    private static final class Node {
+        private final String address;
+        private final ConcurrentLinkedDeque<Connection> idle = new ConcurrentLinkedDeque<>();
+        private final LongAdder calls = new LongAdder();
+
+        private Node(String address) {
+            int colon = address.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Session store node must be host:port: " + address);
+            }
+            this.address = address;
+        }
+
+        private InetSocketAddress socketAddress() {
+            int colon = address.lastIndexOf(':');
+            return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        }
+    }
+
+    /** 노드와의 연결 하나. 한 번에 한 스레드만 빌려 쓴다. */
+    private static final class Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        private Connection(InetSocketAddress address, int timeoutMillis) throws IOException {
+            this.socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.connect(address, timeoutMillis);
+                if (socket.getLocalSocketAddress().equals(socket.getRemoteSocketAddress())) {
+                    // 내려간 노드의 포트가 임시 포트 범위면 TCP 동시 열기로 자기 자신에게 붙을 수 있다.
+                    throw new IOException("Connected to itself; session store is not listening on " + address);
+                }
+                this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private String exchange(String request, int timeoutMillis) throws IOException {
+            socket.setSoTimeout(timeoutMillis);
+            out.write(request);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null) {
+                throw new EOFException("Connection closed by session store");
+            }
+            return reply;
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 이미 닫힌 소켓
+            }
+        }
+    }
+
+    /** near-cache 항목. until(nanoTime) 이 지나면 다시 조회한다. */
+    private static final class Cached {
+        private final Session session;
+        private final long until;
+
+        private Cached(Session session, long until) {
+            this.session = session;
+            this.until = until;
+        }
+    }
+}
@@ -1,38 +1,43 @@
 package server.service;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+import server.config.ServerConfig;
 import server.model.Session;
 import server.util.Logger;
+import server.util.MetricsSource;
 
 /**
- * 파일 기반 세션 관리자
- * sessions/ 디렉토리에 세션 정보를 파일로 저장
+ * 세션 관리자
+ * 세션의 보관과 영속화, 만료 정리는 SessionStore 에 맡기고 여기서는 조회 정책만 담당한다.
+ * 기본 저장소는 노드 안의 메모리 + sessions/ 파일(LocalSessionStore)이다.
+ *
+ * 최근에 없다고 확인된 세션 ID 는 음성 캐시로 걸러 저장소까지 내려가지 않게 하고,
+ * 슬라이딩 만료가 켜져 있으면 조회할 때마다 저장소의 만료 시각을 늦춘다.
  */
-public final class SessionManager {
-    private static final Path SESSIONS_DIR = Paths.get("sessions");
-    private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static final long DEFAULT_SESSION_DURATION_MINUTES = 120; // 2시간
+public final class SessionManager implements AutoCloseable, MetricsSource {
+    private final SessionStore store;
+    private final NegativeSessionCache unknownSessions = new NegativeSessionCache(
+            ServerConfig.NEGATIVE_SESSION_CACHE_SIZE, ServerConfig.NEGATIVE_SESSION_CACHE_TTL_MILLIS);
+    private final AtomicLong touches = new AtomicLong();
 
     public SessionManager() {
-        try {
-            Files.createDirectories(SESSIONS_DIR);
-        } catch (IOException e) {
-            Logger.error("Failed to create sessions directory", e);
-        }
+        this(new LocalSessionStore(Paths.get("sessions")));
+    }
+
+    public SessionManager(SessionStore store) {
+        this.store = store;
     }
 
     /**
      * 새 세션 생성
      */
     public Session createSession(String username) {
-        return createSession(username, DEFAULT_SESSION_DURATION_MINUTES);
+        return createSession(username, ServerConfig.SESSION_DURATION_MINUTES);
     }
 
     /**
@@ -40,7 +45,8 @@ public final class SessionManager {
      */
     public Session createSession(String username, long durationMinutes) {
         Session session = new Session(username, durationMinutes);
-        saveSession(session);
+        unknownSessions.invalidate(session.getSessionId());
+        store.put(session);
         Logger.info("Session created for user: " + username + ", sessionId: " + session.getSessionId());
         return session;
     }
@@ -53,18 +59,40 @@ public final class SessionManager {
             return Optional.empty();
         }
 
-        Optional<Session> sessionOpt = loadSession(sessionId);
-        if (sessionOpt.isEmpty()) {
+        // 최근에 없다고 확인된 ID(로그아웃/만료된 쿠키, 위조 값)는 저장소를 보지 않고 거절한다.
+        if (unknownSessions.knownMissing(sessionId)) {
+            return Optional.empty();
+        }
+
+        Session session = store.get(sessionId);
+        if (session == null) {
+            unknownSessions.recordMissing(sessionId);
             return Optional.empty();
         }
 
-        Session session = sessionOpt.get();
         if (session.isExpired()) {
             deleteSession(sessionId);
             return Optional.empty();
         }
 
-        return Optional.of(session);
+        return Optional.of(ServerConfig.SESSION_SLIDING_EXPIRATION ? touch(session) : session);
+    }
+
+    /**
+     * 만료 시각을 "지금 + 유지 시간" 으로 늦춘다. 늘어나는 폭이 작으면 아무것도 하지 않는다.
+     * 늦춘 만료 시각이 반영된 세션을 돌려준다.
+     */
+    private Session touch(Session session) {
+        long now = System.currentTimeMillis() / 1000;
+        long extended = now + ServerConfig.SESSION_DURATION_MINUTES * 60;
+        long current = SessionTable.toEpochSecond(session.getExpiresAt());
+        if (extended - current >= ServerConfig.SESSION_TOUCH_GRANULARITY_SECONDS
+                && store.extend(session.getSessionId(), extended)) {
+            touches.incrementAndGet();
+            return new Session(session.getSessionId(), session.getUsername(), session.getCreatedAt(),
+                    SessionTable.toDateTime(extended));
+        }
+        return session;
     }
 
     /**
@@ -75,83 +103,37 @@ public final class SessionManager {
             return;
         }
 
-        Path sessionFile = SESSIONS_DIR.resolve(sessionId + ".txt");
-        try {
-            Files.deleteIfExists(sessionFile);
+        if (store.remove(sessionId)) {
+            unknownSessions.recordMissing(sessionId);
             Logger.info("Session deleted: " + sessionId);
-        } catch (IOException e) {
-            Logger.error("Failed to delete session: " + sessionId, e);
         }
     }
 
     /**
      * 만료된 세션들 정리
+     * 저장소가 백그라운드에서 주기적으로 정리하므로 직접 호출할 필요는 없다.
      */
     public void cleanupExpiredSessions() {
-        try {
-            Files.list(SESSIONS_DIR)
-                .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".txt"))
-                .forEach(path -> {
-                    String sessionId = path.getFileName().toString().replace(".txt", "");
-                    Optional<Session> sessionOpt = loadSession(sessionId);
-                    if (sessionOpt.isPresent() && sessionOpt.get().isExpired()) {
-                        deleteSession(sessionId);
-                    }
-                });
-        } catch (IOException e) {
-            Logger.error("Failed to cleanup expired sessions", e);
-        }
+        store.evictExpired();
     }
 
-    /**
-     * 세션 정보 로드
-     */
-    private Optional<Session> loadSession(String sessionId) {
-        Path sessionFile = SESSIONS_DIR.resolve(sessionId + ".txt");
-        if (!Files.exists(sessionFile)) {
-            return Optional.empty();
-        }
-
-        try {
-            String content = Files.readString(sessionFile);
-            String[] lines = content.split("\n");
-            
-            if (lines.length < 4) {
-                return Optional.empty();
-            }
-
-            String storedSessionId = lines[0].substring(10); // "sessionId:" 제거
-            String username = lines[1].substring(9);         // "username:" 제거
-            String createdAtStr = lines[2].substring(10);    // "createdAt:" 제거
-            String expiresAtStr = lines[3].substring(10);    // "expiresAt:" 제거
-            
-            LocalDateTime createdAt = LocalDateTime.parse(createdAtStr, DATETIME_FORMAT);
-            LocalDateTime expiresAt = LocalDateTime.parse(expiresAtStr, DATETIME_FORMAT);
-
-            return Optional.of(new Session(storedSessionId, username, createdAt, expiresAt));
-        } catch (Exception e) {
-            Logger.error("Failed to load session: " + sessionId, e);
-            return Optional.empty();
+    @Override
+    public void collect(Map<String, String> out) {
+        if (store instanceof MetricsSource source) {
+            source.collect(out);
         }
+        out.put("sessions.touches", String.valueOf(touches.get()));
+        out.put("sessions.negative_cache.size", String.valueOf(unknownSessions.size()));
+        out.put("sessions.negative_cache.hits", String.valueOf(unknownSessions.hits()));
+        out.put("sessions.negative_cache.misses", String.valueOf(unknownSessions.misses()));
+        out.put("sessions.negative_cache.hit_ratio", String.format(Locale.ROOT, "%.3f", unknownSessions.hitRatio()));
     }
 
     /**
-     * 세션 정보 저장
+     * 저장소의 밀린 변경을 반영하고 자원을 정리한다.
      */
-    private void saveSession(Session session) {
-        Path sessionFile = SESSIONS_DIR.resolve(session.getSessionId() + ".txt");
-        
-        StringBuilder content = new StringBuilder();
-        content.append("sessionId:").append(session.getSessionId()).append("\n");
-        content.append("username:").append(session.getUsername()).append("\n");
-        content.append("createdAt:").append(session.getCreatedAt().format(DATETIME_FORMAT)).append("\n");
-        content.append("expiresAt:").append(session.getExpiresAt().format(DATETIME_FORMAT)).append("\n");
-
-        try {
-            Files.writeString(sessionFile, content.toString());
-        } catch (IOException e) {
-            Logger.error("Failed to save session: " + session.getSessionId(), e);
-        }
+    @Override
+    public void close() {
+        store.close();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package server.service;
+
+import java.util.Map;
+
+import server.model.Session;
+
+/**
+ * 세션을 실제로 보관하는 저장소 SPI.
+ * SessionManager 는 음성 캐시, 슬라이딩 만료 같은 정책만 맡고 보관/영속화/만료 정리는 저장소에 맡긴다.
+ *
+ * 기본 구현은 노드 안의 메모리 + sessions/ 파일인 LocalSessionStore 이며,
+ * 여러 인스턴스가 세션을 공유해야 하면 RemoteSessionStore 를 사용한다.
+ *
+ * 서명 토큰(SessionTokenService)의 폐기 목록도 같은 저장소에 두지만 세션과는 다른 이름공간이라,
+ * 폐기 항목은 get 으로 찾을 수 없고 세션 ID 와 겹칠 일도 없다.
+ */
+public interface SessionStore extends AutoCloseable {
+
+    /** 세션을 저장한다. 같은 ID 가 있으면 덮어쓴다. */
+    void put(Session session);
+
+    /** 세션을 찾는다. 없으면 null. 만료 여부는 호출하는 쪽에서 판단한다. */
+    Session get(String sessionId);
+
+    /** 만료 시각(epoch 초)을 늦춘다. 세션이 없거나 이미 더 늦으면 false. */
+    boolean extend(String sessionId, long newExpiresAt);
+
+    /** 세션을 지운다. 있었으면 true. */
+    boolean remove(String sessionId);
+
+    /** 로그아웃한 토큰ID 를 만료 시각(epoch 초)까지 폐기 목록에 올린다. */
+    void revoke(String tokenId, long expiresAt);
+
+    /** 아직 만료되지 않은 폐기 항목 전체(토큰ID → 만료 epoch 초). 폐기 목록을 백그라운드에서 새로 읽을 때 쓴다. */
+    Map<String, Long> revocations();
+
+    /** 만료된 세션을 즉시 정리한다. 저장소가 스스로 정리한다면 아무것도 하지 않아도 된다. */
+    default void evictExpired() {
+    }
+
+    /** 밀린 쓰기를 마치고 자원을 정리한다. */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,215 @@
+package server.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import server.model.Session;
+import server.util.Logger;
+
+/**
+ * RemoteSessionStore 가 접속하는 세션 저장소 노드의 최소 구현.
+ * 루프백 주소에만 바인딩하므로 운영용 공유 저장소가 아니라 개발/시험용 대역(stand-in)이다.
+ * 같은 프로세스 안에서 start() 로 띄우거나, main 으로 별도 프로세스로 띄울 수 있다.
+ *
+ * 한 줄에 요청 하나를 보내고 한 줄로 응답받는다. 사용자 이름은 URL 인코딩, 시각은 epoch 초다.
+ * <pre>
+ * GET id                        → OK user created expires | NONE
+ * PUT id user created expires   → OK
+ * EXTEND id expires             → OK | NONE
+ * DEL id                        → OK | NONE
+ * REVOKE tokenId expires        → OK
+ * REVOCATIONS                   → OK [tokenId expires]...
+ * </pre>
+ * 실제 보관과 만료 정리, 파일 영속화는 넘겨받은 SessionStore(보통 LocalSessionStore)가 맡는다.
+ */
+public final class SessionStoreServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 7070;
+
+    private final ServerSocket serverSocket;
+    private final SessionStore store;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+    private Thread acceptor;
+
+    /**
+     * @param port 0 이면 빈 포트를 고른다(port() 로 확인)
+     * @param store 세션을 실제로 보관할 저장소. close() 때 함께 닫는다.
+     */
+    public SessionStoreServer(int port, SessionStore store) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.store = store;
+    }
+
+    /** 실제로 바인딩된 포트 */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** RemoteSessionStore 에 넘길 "host:port" 주소 */
+    public String address() {
+        return serverSocket.getInetAddress().getHostAddress() + ":" + port();
+    }
+
+    /**
+     * 연결 수락 스레드를 띄운다. 연결마다 스레드 하나가 요청을 순서대로 처리한다.
+     */
+    public synchronized SessionStoreServer start() {
+        acceptor = new Thread(this::acceptLoop, "session-store-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        Logger.info("Session store listening on " + address());
+        return this;
+    }
+
+    /**
+     * 수락 스레드가 accept 에서 막혀 있으면 JDK 는 리슨 소켓을 그 스레드가 깨어날 때 닫으므로,
+     * 그 스레드가 끝날 때까지 기다려 close() 가 돌아온 뒤에는 새 연결을 받지 않게 한다.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            Logger.error("Failed to close session store socket", e);
+        }
+        Thread running;
+        synchronized (this) {
+            running = acceptor;
+        }
+        if (running != null && running != Thread.currentThread()) {
+            try {
+                running.join(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Socket socket : connections) {
+            closeQuietly(socket);
+        }
+        store.close();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                if (closed) {
+                    closeQuietly(socket); // 닫히는 사이에 들어온 연결
+                    break;
+                }
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                Thread worker = new Thread(() -> serve(socket), "session-store-conn");
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    Logger.error("Session store accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                out.write(handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (SocketException e) {
+            // 상대가 연결을 끊었거나 close() 로 닫은 경우
+        } catch (IOException e) {
+            Logger.error("Session store connection failed", e);
+        } finally {
+            connections.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    String handle(String line) {
+        String[] parts = line.split(" ");
+        try {
+            switch (parts[0]) {
+                case "GET": {
+                    Session session = store.get(parts[1]);
+                    return session == null || session.isExpired() ? "NONE" : "OK " + format(session);
+                }
+                case "PUT":
+                    store.put(parse(parts[1], parts, 2));
+                    return "OK";
+                case "EXTEND":
+                    return store.extend(parts[1], Long.parseLong(parts[2])) ? "OK" : "NONE";
+                case "DEL":
+                    return store.remove(parts[1]) ? "OK" : "NONE";
+                case "REVOKE":
+                    store.revoke(parts[1], Long.parseLong(parts[2]));
+                    return "OK";
+                case "REVOCATIONS": {
+                    StringBuilder reply = new StringBuilder("OK");
+                    store.revocations().forEach((tokenId, expiresAt) ->
+                            reply.append(' ').append(tokenId).append(' ').append(expiresAt));
+                    return reply.toString();
+                }
+                default:
+                    return "ERR unknown command";
+            }
+        } catch (RuntimeException e) {
+            return "ERR " + e.getClass().getSimpleName();
+        }
+    }
+
+    /** "user created expires" 형식. ID 는 요청 쪽이 이미 알고 있으므로 넣지 않는다. */
+    static String format(Session session) {
+        return URLEncoder.encode(session.getUsername(), StandardCharsets.UTF_8)
+                + " " + SessionTable.toEpochSecond(session.getCreatedAt())
+                + " " + SessionTable.toEpochSecond(session.getExpiresAt());
+    }
+
+    /** parts[offset] 부터 "user created expires" 를 읽는다. */
+    static Session parse(String sessionId, String[] parts, int offset) {
+        if (parts.length < offset + 3) {
+            throw new IllegalArgumentException("Malformed session record");
+        }
+        return new Session(sessionId, URLDecoder.decode(parts[offset], StandardCharsets.UTF_8),
+                SessionTable.toDateTime(Long.parseLong(parts[offset + 1])),
+                SessionTable.toDateTime(Long.parseLong(parts[offset + 2])));
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 이미 닫힌 소켓
+        }
+    }
+
+    /**
+     * 단독 실행: java server.service.SessionStoreServer [port] [dir]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String dir = args.length > 1 ? args[1] : "session-store";
+        SessionStoreServer server = new SessionStoreServer(port, new LocalSessionStore(Paths.get(dir)));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        Logger.info("Session store listening on " + server.address());
+        server.acceptLoop(); // 데몬 스레드가 아닌 메인 스레드에서 수락해 프로세스를 유지한다.
+    }
+}
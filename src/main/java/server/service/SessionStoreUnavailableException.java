@@ -0,0 +1,12 @@
+package server.service;
+
+/**
+ * 원격 세션 저장소에 닿지 못했을 때 던지는 예외.
+ * 세션이 "없음" 으로 처리되어 음성 캐시에 올라가지 않도록 일반 조회 실패와 구분하며, 503 으로 응답한다.
+ */
+public class SessionStoreUnavailableException extends RuntimeException {
+
+    public SessionStoreUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
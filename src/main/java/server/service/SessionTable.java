@@ -0,0 +1,343 @@
+package server.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+import server.model.Session;
+
+/**
+ * UUID 세션 ID 의 상위/하위 64비트를 키로 쓰는 개방 주소법(선형 탐사) 세션 테이블.
+ * 항목마다 String 키, Session, LocalDateTime 두 개를 들고 있는 대신
+ * long 배열 네 개(키 두 개, 생성/만료 epoch 초)와 사용자 번호 int 배열에 나눠 담는다.
+ * 사용자 이름은 번호로 한 번만 보관하므로 같은 사용자의 세션이 여러 개여도 문자열은 하나다.
+ *
+ * 조회는 StampedLock 의 낙관적 읽기로 잠금 없이 처리하고, 쓰기 도중이었으면 읽기 잠금으로 다시 읽는다.
+ */
+final class SessionTable {
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+    private static final int MIN_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Slots slots;
+    private int size;
+    private int removed;
+
+    /** 사용자 이름 ↔ 번호. 사용자 수만큼만 늘어난다. */
+    private final Map<String, Integer> userIds = new HashMap<>();
+    private final List<String> usernames = new ArrayList<>();
+
+    SessionTable() {
+        this.slots = new Slots(MIN_CAPACITY);
+    }
+
+    /**
+     * 세션 ID 가 정규형(소문자) UUID 문자열이 아니면 null. 위조/손상된 쿠키는 테이블을 보지 않고 걸러진다.
+     * UUID.fromString 은 대소문자를 가리지 않으므로, 대문자가 섞인 ID 를 받아들이면 테이블에서는 같은 칸을 찾지만
+     * 돌려주는 Session 과 세션 파일 이름은 호출한 쪽의 표기를 따르게 된다. 그래서 uuid.toString() 과 같은 표기만 받는다.
+     */
+    static UUID parseId(String sessionId) {
+        if (sessionId == null || sessionId.length() != 36) {
+            return null;
+        }
+        try {
+            UUID id = UUID.fromString(sessionId);
+            return id.toString().equals(sessionId) ? id : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    /**
+     * 세션을 넣는다. 같은 ID 가 있으면 덮어쓴다.
+     */
+    void put(Session session) {
+        UUID id = parseId(session.getSessionId());
+        if (id == null) {
+            throw new IllegalArgumentException("Session id is not a UUID: " + session.getSessionId());
+        }
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            if ((size + removed + 1) * 4L > slots.capacity() * 3L) {
+                resize(size * 4L > slots.capacity() ? slots.capacity() * 2 : slots.capacity());
+            }
+            Slots s = slots;
+            int userId = internUser(session.getUsername());
+            int firstRemoved = -1;
+            int i = index(hi, lo, s.mask);
+            while (true) {
+                byte state = s.state[i];
+                if (state == FREE) {
+                    int target = firstRemoved >= 0 ? firstRemoved : i;
+                    if (firstRemoved >= 0) {
+                        removed--;
+                    }
+                    s.set(target, hi, lo, toEpochSecond(session.getCreatedAt()),
+                            toEpochSecond(session.getExpiresAt()), userId);
+                    size++;
+                    return;
+                }
+                if (state == REMOVED) {
+                    if (firstRemoved < 0) {
+                        firstRemoved = i;
+                    }
+                } else if (s.hi[i] == hi && s.lo[i] == lo) {
+                    s.set(i, hi, lo, toEpochSecond(session.getCreatedAt()),
+                            toEpochSecond(session.getExpiresAt()), userId);
+                    return;
+                }
+                i = (i + 1) & s.mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 세션을 찾는다. 없으면 null. 만료 여부는 호출하는 쪽에서 판단한다.
+     */
+    Session get(String sessionId) {
+        UUID id = parseId(sessionId);
+        if (id == null) {
+            return null;
+        }
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        long[] found = new long[3];
+
+        long stamp = lock.tryOptimisticRead();
+        boolean hit = find(slots, hi, lo, found);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                hit = find(slots, hi, lo, found);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (!hit) {
+            return null;
+        }
+        String username;
+        synchronized (usernames) {
+            username = usernames.get((int) found[2]);
+        }
+        return new Session(sessionId, username, toDateTime(found[0]), toDateTime(found[1]));
+    }
+
+    /**
+     * 세션의 만료 시각(epoch 초). 없으면 -1.
+     */
+    long expiresAt(String sessionId) {
+        UUID id = parseId(sessionId);
+        if (id == null) {
+            return -1;
+        }
+        long[] found = new long[3];
+        long stamp = lock.readLock();
+        try {
+            return find(slots, id.getMostSignificantBits(), id.getLeastSignificantBits(), found) ? found[1] : -1;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 만료 시각을 newExpiresAt 으로 늦춘다. 이미 그보다 늦거나 세션이 없으면 false.
+     */
+    boolean extend(String sessionId, long newExpiresAt) {
+        UUID id = parseId(sessionId);
+        if (id == null) {
+            return false;
+        }
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            Slots s = slots;
+            int i = index(hi, lo, s.mask);
+            for (int probes = 0; probes <= s.mask; probes++) {
+                byte state = s.state[i];
+                if (state == FREE) {
+                    return false;
+                }
+                if (state == USED && s.hi[i] == hi && s.lo[i] == lo) {
+                    if (s.expires[i] >= newExpiresAt) {
+                        return false;
+                    }
+                    s.expires[i] = newExpiresAt;
+                    return true;
+                }
+                i = (i + 1) & s.mask;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 세션을 지운다. expectedExpiresAt 이 0 이상이면 만료 시각이 그 값과 같을 때만 지운다.
+     */
+    boolean remove(String sessionId, long expectedExpiresAt) {
+        UUID id = parseId(sessionId);
+        if (id == null) {
+            return false;
+        }
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        long stamp = lock.writeLock();
+        try {
+            Slots s = slots;
+            int i = index(hi, lo, s.mask);
+            for (int probes = 0; probes <= s.mask; probes++) {
+                byte state = s.state[i];
+                if (state == FREE) {
+                    return false;
+                }
+                if (state == USED && s.hi[i] == hi && s.lo[i] == lo) {
+                    if (expectedExpiresAt >= 0 && s.expires[i] != expectedExpiresAt) {
+                        return false;
+                    }
+                    s.state[i] = REMOVED;
+                    size--;
+                    removed++;
+                    return true;
+                }
+                i = (i + 1) & s.mask;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** 슬롯 배열이 차지하는 대략의 바이트 수(사용자 이름 제외) */
+    long memoryBytes() {
+        return (long) slots.capacity() * (4 * Long.BYTES + Integer.BYTES + 1);
+    }
+
+    /**
+     * 낙관적 읽기 중에는 배열이 바뀌고 있을 수 있으므로 탐사 횟수를 용량으로 제한한다.
+     * 찾으면 out 에 {생성, 만료, 사용자 번호} 를 채운다.
+     */
+    private static boolean find(Slots s, long hi, long lo, long[] out) {
+        int i = index(hi, lo, s.mask);
+        for (int probes = 0; probes <= s.mask; probes++) {
+            byte state = s.state[i];
+            if (state == FREE) {
+                return false;
+            }
+            if (state == USED && s.hi[i] == hi && s.lo[i] == lo) {
+                out[0] = s.created[i];
+                out[1] = s.expires[i];
+                out[2] = s.user[i];
+                return true;
+            }
+            i = (i + 1) & s.mask;
+        }
+        return false;
+    }
+
+    private static int index(long hi, long lo, int mask) {
+        long h = hi ^ lo;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private int internUser(String username) {
+        Integer id = userIds.get(username);
+        if (id != null) {
+            return id;
+        }
+        synchronized (usernames) {
+            usernames.add(username);
+            id = usernames.size() - 1;
+        }
+        userIds.put(username, id);
+        return id;
+    }
+
+    /**
+     * 지운 자리를 정리하면서 새 배열로 옮긴다. 쓰기 잠금 안에서만 호출한다.
+     */
+    private void resize(int capacity) {
+        Slots old = slots;
+        Slots next = new Slots(capacity);
+        for (int i = 0; i < old.capacity(); i++) {
+            if (old.state[i] != USED) {
+                continue;
+            }
+            int j = index(old.hi[i], old.lo[i], next.mask);
+            while (next.state[j] != FREE) {
+                j = (j + 1) & next.mask;
+            }
+            next.set(j, old.hi[i], old.lo[i], old.created[i], old.expires[i], old.user[i]);
+        }
+        slots = next;
+        removed = 0;
+    }
+
+    /** 한 세대의 슬롯 배열. 크기를 바꿀 때는 통째로 새로 만든다. */
+    private static final class Slots {
+        private final int mask;
+        private final long[] hi;
+        private final long[] lo;
+        private final long[] created;
+        private final long[] expires;
+        private final int[] user;
+        private final byte[] state;
+
+        private Slots(int capacity) {
+            this.mask = capacity - 1;
+            this.hi = new long[capacity];
+            this.lo = new long[capacity];
+            this.created = new long[capacity];
+            this.expires = new long[capacity];
+            this.user = new int[capacity];
+            this.state = new byte[capacity];
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private void set(int i, long hiBits, long loBits, long createdAt, long expiresAt, int userId) {
+            hi[i] = hiBits;
+            lo[i] = loBits;
+            created[i] = createdAt;
+            expires[i] = expiresAt;
+            user[i] = userId;
+            state[i] = USED;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package server.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import server.config.ServerConfig;
+import server.model.Session;
+import server.util.Logger;
+import server.util.MetricsSource;
+
+/**
+ * 서버에 상태를 남기지 않는 HMAC-SHA256 서명 세션 토큰 발급/검증기.
+ * 토큰은 "base64url(키ID|발급|만료|토큰ID|사용자명).base64url(서명)" 형식이며,
+ * 검증은 서명과 만료 시각만 확인하므로 파일이나 공유 저장소를 읽지 않는다.
+ *
+ * 서명 키는 주기적으로 교체하고, 이전 키 몇 개는 검증용으로 남겨 두어 이미 발급한 토큰이 계속 통한다.
+ * 키 파일(ServerConfig.SESSION_KEYS_PATH)이 있으면 그 키를 쓰고 주기마다 다시 읽으므로,
+ * 여러 인스턴스가 같은 파일을 공유하면 어느 노드에서 발급한 토큰이든 검증된다.
+ *
+ * 로그아웃한 토큰은 세션 저장소의 폐기 목록(SessionStore.revoke)에 토큰 만료 시각까지 남긴다.
+ * 폐기 목록은 세션과 다른 이름공간이라 SessionManager 가 세션으로 찾을 수 없다.
+ * 검증은 저장소를 읽지 않고 메모리의 폐기 목록만 보며, 이 목록은 백그라운드에서
+ * SESSION_REVOCATION_REFRESH_MILLIS 마다 저장소 전체 목록으로 새로 채운다.
+ * 따라서 다른 노드에서 로그아웃한 토큰은 그 주기만큼 늦게 거절될 수 있고, 로그아웃을 처리한 노드에서는 바로 거절된다.
+ * 저장소가 RemoteSessionStore 면 모든 노드가 같은 폐기 목록을 보고, LocalSessionStore 면 재시작 후에도 남는다.
+ */
+public final class SessionTokenService implements AutoCloseable, MetricsSource {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Path keysFile;
+    private final SessionStore store;
+    private final SecureRandom random = new SecureRandom();
+    /** 첫 번째가 서명용 키. 교체 시 목록 전체를 바꿔 끼운다. */
+    private volatile List<SigningKey> keys;
+    /** 이 노드가 폐기했거나 저장소에서 읽어 온 토큰ID → 토큰 만료 시각(epoch 초) */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicLong revocationRefreshes = new AtomicLong();
+    private final AtomicLong revocationRefreshFailures = new AtomicLong();
+    private final ScheduledExecutorService maintenance;
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * @param store 폐기 목록을 둘 세션 저장소. 여러 노드가 함께 쓰려면 SessionManager 와 같은 공유 저장소를 넘긴다.
+     */
+    public SessionTokenService(SessionStore store) {
+        this(ServerConfig.SESSION_KEYS_PATH, store);
+    }
+
+    public SessionTokenService(Path keysFile, SessionStore store) {
+        this.keysFile = keysFile;
+        this.store = store;
+        this.keys = Files.isRegularFile(keysFile) ? readKeys(keysFile) : List.of(newKey());
+        refreshRevocations();
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-token-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::rotate, ServerConfig.SESSION_KEY_ROTATION_MINUTES,
+                ServerConfig.SESSION_KEY_ROTATION_MINUTES, TimeUnit.MINUTES);
+        maintenance.scheduleWithFixedDelay(this::refreshRevocations, ServerConfig.SESSION_REVOCATION_REFRESH_MILLIS,
+                ServerConfig.SESSION_REVOCATION_REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 토큰을 발급한다. 반환되는 Session 의 sessionId 가 쿠키에 넣을 토큰이다.
+     */
+    public Session issue(String username, long durationMinutes) {
+        long issuedAt = System.currentTimeMillis() / 1000;
+        long expiresAt = issuedAt + durationMinutes * 60;
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        SigningKey key = keys.get(0);
+        String payload = key.id + "|" + issuedAt + "|" + expiresAt + "|" + ENCODER.encodeToString(id) + "|" + username;
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        String token = ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(key.sign(payloadBytes));
+        issued.incrementAndGet();
+        return new Session(token, username, toDateTime(issuedAt), toDateTime(expiresAt));
+    }
+
+    /**
+     * 서명, 만료, 폐기 여부를 확인한다. 유효하지 않으면 비어 있는 Optional.
+     * 폐기 여부는 메모리의 목록만 보므로 저장소 I/O 가 없다.
+     */
+    public Optional<Session> verify(String token) {
+        Claims claims = parse(token);
+        if (claims == null || claims.expiresAt <= System.currentTimeMillis() / 1000
+                || revoked.containsKey(claims.tokenId)) {
+            rejected.incrementAndGet();
+            return Optional.empty();
+        }
+        verified.incrementAndGet();
+        return Optional.of(new Session(token, claims.username, toDateTime(claims.issuedAt), toDateTime(claims.expiresAt)));
+    }
+
+    /**
+     * 로그아웃한 토큰을 만료 시각까지 거절하도록 공유 폐기 목록에 올린다.
+     * 저장소에 쓰지 못하면 SessionStoreUnavailableException 이 그대로 전달된다.
+     */
+    public void revoke(String token) {
+        Claims claims = parse(token);
+        if (claims != null) {
+            store.revoke(claims.tokenId, claims.expiresAt);
+            revoked.put(claims.tokenId, claims.expiresAt);
+        }
+    }
+
+    /**
+     * 저장소의 폐기 목록을 읽어 메모리 목록에 더하고, 만료가 지난 항목을 정리한다.
+     * 저장소에 닿지 못하면 지금까지 아는 목록을 그대로 쓰고 다음 주기에 다시 읽는다.
+     */
+    void refreshRevocations() {
+        try {
+            revoked.putAll(store.revocations());
+            revocationRefreshes.incrementAndGet();
+        } catch (RuntimeException e) {
+            revocationRefreshFailures.incrementAndGet();
+            Logger.warn("Failed to refresh token revocations: " + e.getMessage());
+        }
+        long now = System.currentTimeMillis() / 1000;
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    /**
+     * 키 파일이 있으면 다시 읽고, 없으면 새 서명 키를 만들어 앞에 넣는다.
+     */
+    void rotate() {
+        try {
+            if (Files.isRegularFile(keysFile)) {
+                keys = readKeys(keysFile);
+            } else {
+                List<SigningKey> next = new ArrayList<>(ServerConfig.SESSION_KEYS_RETAINED);
+                next.add(newKey());
+                for (SigningKey key : keys) {
+                    if (next.size() >= ServerConfig.SESSION_KEYS_RETAINED) {
+                        break;
+                    }
+                    next.add(key);
+                }
+                keys = List.copyOf(next);
+            }
+        } catch (RuntimeException e) {
+            Logger.error("Failed to rotate session keys", e);
+        }
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        out.put("session_tokens.keys", String.valueOf(keys.size()));
+        out.put("session_tokens.issued", String.valueOf(issued.get()));
+        out.put("session_tokens.verified", String.valueOf(verified.get()));
+        out.put("session_tokens.rejected", String.valueOf(rejected.get()));
+        out.put("session_tokens.revoked", String.valueOf(revoked.size()));
+        out.put("session_tokens.revocation_refreshes", String.valueOf(revocationRefreshes.get()));
+        out.put("session_tokens.revocation_refresh_failures", String.valueOf(revocationRefreshFailures.get()));
+    }
+
+    @Override
+    public void close() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * 서명이 맞는 토큰의 내용. 형식이 틀리거나 서명이 맞지 않으면 null.
+     */
+    private Claims parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 5);
+            if (parts.length != 5) {
+                return null;
+            }
+            SigningKey key = findKey(parts[0]);
+            if (key == null || !MessageDigest.isEqual(key.sign(payloadBytes), signature)) {
+                return null;
+            }
+            return new Claims(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3], parts[4]);
+        } catch (IllegalArgumentException e) {
+            return null; // base64 또는 숫자 형식 오류
+        }
+    }
+
+    private SigningKey findKey(String id) {
+        for (SigningKey key : keys) {
+            if (key.id.equals(id)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private SigningKey newKey() {
+        byte[] secret = new byte[KEY_BYTES];
+        random.nextBytes(secret);
+        byte[] id = new byte[6];
+        random.nextBytes(id);
+        return new SigningKey(ENCODER.encodeToString(id), secret);
+    }
+
+    private static List<SigningKey> readKeys(Path file) {
+        try {
+            List<SigningKey> loaded = new ArrayList<>();
+            for (String raw : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String line = raw.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 2);
+                if (parts.length == 2) {
+                    loaded.add(new SigningKey(parts[0], Base64.getDecoder().decode(parts[1])));
+                }
+            }
+            if (loaded.isEmpty()) {
+                throw new IllegalStateException("No session keys in " + file);
+            }
+            return List.copyOf(loaded);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read session keys: " + file, e);
+        }
+    }
+
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+    }
+
+    /** 검증된 토큰 내용 */
+    private static final class Claims {
+        private final long issuedAt;
+        private final long expiresAt;
+        private final String tokenId;
+        private final String username;
+
+        private Claims(long issuedAt, long expiresAt, String tokenId, String username) {
+            this.issuedAt = issuedAt;
+            this.expiresAt = expiresAt;
+            this.tokenId = tokenId;
+            this.username = username;
+        }
+    }
+
+    /**
+     * 키ID 와 HMAC 키. Mac 인스턴스는 스레드마다 하나씩 만들어 재사용한다.
+     */
+    private static final class SigningKey {
+        private final String id;
+        private final ThreadLocal<Mac> mac;
+
+        private SigningKey(String id, byte[] secret) {
+            this.id = id;
+            SecretKeySpec spec = new SecretKeySpec(secret, ALGORITHM);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac m = Mac.getInstance(ALGORITHM);
+                    m.init(spec);
+                    return m;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(ALGORITHM + " not available", e);
+                }
+            });
+        }
+
+        private byte[] sign(byte[] payload) {
+            return mac.get().doFinal(payload);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package server.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.model.User;
+
+/**
+ * 사용자 레코드를 담아 두는 크기 제한 LRU 캐시.
+ * 사용자 이름의 해시로 나눈 구역(segment)마다 접근 순서 LinkedHashMap 을 두고 구역별로 잠그므로,
+ * 서로 다른 사용자의 조회는 대부분 같은 잠금을 다투지 않는다. 구역이 가득 차면 가장 오래 안 쓴 항목을 버린다.
+ *
+ * 파일에 없는 것으로 확인된 사용자는 ABSENT 로 기록해 같은 이름을 다시 디스크에서 찾지 않게 한다.
+ */
+final class UserCache {
+    /** 파일에 없는 사용자임을 나타내는 표시 값 */
+    static final User ABSENT = new User("", "", LocalDateTime.MIN, null);
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    UserCache(int maxEntries) {
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * 캐시된 레코드(없는 사용자면 ABSENT). 캐시에 없으면 null.
+     */
+    User get(String username) {
+        Segment segment = segmentFor(username);
+        User user;
+        synchronized (segment) {
+            user = segment.get(username);
+        }
+        (user != null ? hits : misses).increment();
+        return user;
+    }
+
+    /** 파일에 쓴 직후의 최신 레코드로 덮어쓴다. */
+    void put(String username, User user) {
+        Segment segment = segmentFor(username);
+        synchronized (segment) {
+            segment.put(username, user);
+        }
+    }
+
+    /**
+     * 디스크에서 읽은 레코드를 넣는다. 읽는 사이 다른 스레드가 더 새 값을 넣었으면 그 값을 남긴다.
+     */
+    void putIfAbsent(String username, User user) {
+        Segment segment = segmentFor(username);
+        synchronized (segment) {
+            segment.putIfAbsent(username, user);
+        }
+    }
+
+    /** 파일을 캐시 밖에서 바꿨을 때 다음 조회가 다시 읽도록 지운다. */
+    void invalidate(String username) {
+        Segment segment = segmentFor(username);
+        synchronized (segment) {
+            segment.remove(username);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(String username) {
+        int h = username.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /** 접근 순서로 정렬되는 LinkedHashMap. 자신을 잠금으로 쓴다. */
+    private final class Segment extends LinkedHashMap<String, User> {
+        private final int maxEntries;
+
+        private Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+            if (size() > maxEntries) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
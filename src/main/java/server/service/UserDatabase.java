@@ -0,0 +1,490 @@
+package server.service;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.zip.CRC32;
+
+import server.model.User;
+import server.util.Logger;
+
+/**
+ * 사용자 레코드를 파일 하나에 모아 두는 저장 엔진.
+ * users.dat 는 가변 길이 레코드를 뒤에 덧붙이기만 하는 데이터 파일이고,
+ * users.idx 는 사용자 이름으로 최신 레코드 위치를 찾는 디스크 해시 색인(UserIndex)이다.
+ * 레코드 읽기는 PageCache 를 거치므로 자주 쓰는 페이지는 디스크를 다시 읽지 않는다.
+ *
+ * 레코드: [길이 int][CRC32 int][마지막 로그인 long][생성 long][이름 short+bytes][해시 short+bytes]
+ * CRC 는 생성 시각부터 끝까지를 덮는다. 마지막 로그인은 자리에서 덮어쓰는 필드라 CRC 에 넣지 않는다.
+ * 비밀번호 해시처럼 나머지 내용이 바뀌면 새 레코드를 덧붙이고 색인이 그 위치를 가리키게 한다.
+ *
+ * 데이터 파일이 곧 선행 기록(write-ahead log)이다. 레코드는 fsync 한 뒤에만 색인에 반영하고,
+ * 색인은 checkpoint 때 디스크에 내리면서 "여기까지 반영됨" 위치를 남긴다.
+ * 시작할 때 그 위치부터 데이터 파일을 다시 읽어(redo) 색인을 맞추고, CRC 가 맞지 않는 잘린 꼬리는 잘라낸다.
+ *
+ * 새 사용자 추가는 덧붙이기만 쓰기 잠금 안에서 하고, fsync 는 잠금을 놓은 뒤 한다.
+ * 덧붙였지만 아직 색인에 없는 이름은 inFlight 에 올려 두어 같은 이름이 두 번 들어가지 않게 하고,
+ * 동시에 기다리는 fsync 는 한 번으로 합친다(group commit). 그래서 다른 이름의 등록은 fsync 를 나란히 기다린다.
+ */
+final class UserDatabase implements AutoCloseable {
+    private static final String DATA_FILE = "users.dat";
+    private static final String INDEX_FILE = "users.idx";
+    private static final long MAGIC = 0x5553455244415431L; // "USERDAT1"
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 16;
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final int PAGE_SIZE = 4096;
+    private static final long NO_LOGIN = Long.MIN_VALUE;
+
+    private final FileChannel data;
+    private final UserIndex index;
+    private final PageCache pages;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long dataLength;
+    /** 덧붙였지만 fsync 를 기다리느라 아직 색인에 넣지 않은 이름과 그 레코드 위치. 쓰기 잠금으로 보호한다. */
+    private final Map<String, Long> inFlight = new HashMap<>();
+    /** 이 위치까지는 fsync 되었다. forceLock 안에서만 바꾼다. */
+    private volatile long forcedLength;
+    /** dataLength 를 잠금 없이 읽기 위한 사본. append 에서만 바꾼다. */
+    private volatile long appendedLength;
+    private final Object forceLock = new Object();
+    /** 마지막 checkpoint 이후 색인이나 데이터 파일이 바뀌었는지 */
+    private boolean dirty;
+
+    UserDatabase(Path dir, int initialCapacity, int cachePages) throws IOException {
+        Files.createDirectories(dir);
+        this.data = FileChannel.open(dir.resolve(DATA_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (data.size() == 0) {
+                writeFully(ByteBuffer.allocate(FILE_HEADER_BYTES).putLong(0, MAGIC), 0);
+                data.force(true);
+            } else if (data.size() < FILE_HEADER_BYTES || readLong(0) != MAGIC) {
+                throw new IOException("Not a user data file: " + dir.resolve(DATA_FILE));
+            }
+            this.index = UserIndex.open(dir.resolve(INDEX_FILE), initialCapacity);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+        this.pages = new PageCache(data, PAGE_SIZE, cachePages);
+        recover();
+    }
+
+    /**
+     * 사용자 레코드. 없으면 null.
+     */
+    User get(String username) throws IOException {
+        long key = UserIndex.hash(username);
+        lock.readLock().lock();
+        try {
+            long offset = find(key, username);
+            return offset < 0 ? null : readRecord(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 새 사용자를 넣는다. 같은 이름이 이미 있거나 다른 스레드가 넣는 중이면 false.
+     * 레코드를 fsync 한 뒤에 색인에 반영하므로 true 를 돌려준 사용자는 비정상 종료 뒤에도 남아 있다.
+     */
+    boolean insert(User user) throws IOException {
+        return insert(user, true);
+    }
+
+    /**
+     * durable 이 false 면 fsync 를 다음 checkpoint 로 미룬다. 대량 가져오기에서만 쓴다.
+     */
+    boolean insert(User user, boolean durable) throws IOException {
+        String username = user.getUsername();
+        long key = UserIndex.hash(username);
+        long offset;
+        long end;
+        lock.writeLock().lock();
+        try {
+            if (inFlight.containsKey(username) || find(key, username) >= 0) {
+                return false;
+            }
+            offset = append(user);
+            if (!durable) {
+                put(key, offset, existing -> false);
+                dirty = true;
+                return true;
+            }
+            end = dataLength;
+            inFlight.put(username, offset);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            force(end);
+        } catch (IOException e) {
+            lock.writeLock().lock();
+            try {
+                inFlight.remove(username);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            put(key, offset, existing -> false);
+            dirty = true;
+        } finally {
+            inFlight.remove(username);
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 기존 사용자의 레코드를 새로 덧붙이고 색인이 새 위치를 가리키게 한다. 없는 사용자면 false.
+     */
+    boolean update(User user) throws IOException {
+        long key = UserIndex.hash(user.getUsername());
+        lock.writeLock().lock();
+        try {
+            if (find(key, user.getUsername()) < 0) {
+                return false;
+            }
+            long offset = append(user);
+            data.force(false);
+            put(key, offset, named(user.getUsername()));
+            dirty = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 마지막 로그인 시각만 레코드 자리에서 덮어쓴다. fsync 는 checkpoint 에서 모아서 한다.
+     */
+    boolean updateLastLogin(String username, LocalDateTime lastLoginAt) throws IOException {
+        long key = UserIndex.hash(username);
+        lock.writeLock().lock();
+        try {
+            long offset = find(key, username);
+            if (offset < 0) {
+                return false;
+            }
+            writeFully(ByteBuffer.allocate(Long.BYTES).putLong(0, toEpoch(lastLoginAt)), offset + 8);
+            pages.invalidate(offset + 8, Long.BYTES);
+            dirty = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 모든 사용자 이름을 넘긴다. 순서는 정해져 있지 않다. */
+    void forEachUsername(Consumer<String> consumer) throws IOException {
+        lock.readLock().lock();
+        try {
+            IOException[] failure = new IOException[1];
+            index.forEachOffset(offset -> {
+                if (failure[0] == null) {
+                    try {
+                        consumer.accept(usernameAt(offset));
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 데이터 파일과 색인을 디스크에 내리고 checkpoint 위치를 기록한다. 바뀐 것이 없으면 아무것도 하지 않는다.
+     */
+    void checkpoint() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            data.force(true);
+            // fsync 를 기다리는 레코드는 아직 색인에 없으므로 그 앞까지만 반영된 것으로 기록한다.
+            long indexed = dataLength;
+            for (long offset : inFlight.values()) {
+                indexed = Math.min(indexed, offset);
+            }
+            index.checkpoint(indexed);
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long dataBytes() {
+        lock.readLock().lock();
+        try {
+            return dataLength;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long indexBytes() {
+        lock.readLock().lock();
+        try {
+            return index.fileBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    PageCache pageCache() {
+        return pages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkpoint();
+        lock.writeLock().lock();
+        try {
+            index.close();
+            data.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 색인의 checkpoint 부터 데이터 파일 끝까지 레코드를 다시 읽어 색인에 반영한다.
+     * 길이나 CRC 가 맞지 않는 레코드를 만나면 쓰다 만 꼬리로 보고 그 위치에서 파일을 자른다.
+     *
+     * checkpoint 앞의 슬롯은 fsync 된 레코드를 가리키지만, 그 뒤의 슬롯은 매핑된 페이지가 데이터보다 먼저
+     * 디스크에 내려갔을 수 있어 잘려 나간 위치나 없는 위치를 가리킬 수 있다(fsync 를 미루는 가져오기 중 종료 등).
+     * 그런 슬롯이 하나라도 있으면 믿을 수 없으므로 색인을 비우고 처음부터 다시 만든다.
+     */
+    private void recover() throws IOException {
+        long fileLength = data.size();
+        long start = index.checkpoint();
+        if (start > fileLength) {
+            Logger.warn("User index is ahead of the data file; rebuilding");
+            index.clear();
+            start = 0;
+        } else if (start != fileLength && hasSlotAtOrAfter(start)) {
+            Logger.warn("User index has entries past its checkpoint at " + start + "; rebuilding");
+            index.clear();
+            start = 0;
+        }
+        start = Math.max(FILE_HEADER_BYTES, start);
+        long position = replay(start, fileLength);
+        if (position < fileLength) {
+            Logger.warn("Truncating " + (fileLength - position) + " bytes of incomplete user records");
+            data.truncate(position);
+        }
+        dataLength = position;
+        appendedLength = position;
+        if (position != index.checkpoint()) {
+            dirty = true;
+            checkpoint();
+        }
+        if (position > start) {
+            Logger.info("Replayed user records from offset " + start + " to " + position);
+        }
+    }
+
+    private boolean hasSlotAtOrAfter(long offset) {
+        boolean[] found = new boolean[1];
+        index.forEachOffset(slotOffset -> found[0] |= slotOffset >= offset);
+        return found[0];
+    }
+
+    /**
+     * from 부터 to 까지의 레코드를 색인에 반영하고, 처음으로 온전하지 않은 레코드의 위치(또는 to)를 돌려준다.
+     */
+    private long replay(long from, long to) throws IOException {
+        long position = from;
+        InputStream raw = Channels.newInputStream(data.position(position));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16));
+        while (position + RECORD_HEADER_BYTES <= to) {
+            int length = in.readInt();
+            if (length < RECORD_HEADER_BYTES + 12 || length > MAX_RECORD_BYTES || position + length > to) {
+                break;
+            }
+            byte[] record = new byte[length];
+            ByteBuffer.wrap(record).putInt(length);
+            in.readFully(record, 4, length - 4);
+            User user = decode(record);
+            if (user == null) {
+                break;
+            }
+            put(UserIndex.hash(user.getUsername()), position, named(user.getUsername()));
+            position += length;
+        }
+        return position;
+    }
+
+    /** 레코드를 데이터 파일 끝에 덧붙이고 그 위치를 돌려준다. 쓰기 잠금 안에서만 호출한다. */
+    private long append(User user) throws IOException {
+        byte[] record = encode(user);
+        long offset = dataLength;
+        writeFully(ByteBuffer.wrap(record), offset);
+        pages.invalidate(offset, record.length);
+        dataLength += record.length;
+        appendedLength = dataLength;
+        return offset;
+    }
+
+    /**
+     * end 위치까지 데이터 파일을 fsync 한다. 다른 스레드의 fsync 가 이미 end 를 덮었으면 기다리기만 한다.
+     * 잠금 밖에서 부르므로 그 사이 덧붙여진 레코드도 한 번의 fsync 에 함께 실린다.
+     */
+    private void force(long end) throws IOException {
+        if (forcedLength >= end) {
+            return;
+        }
+        synchronized (forceLock) {
+            if (forcedLength >= end) {
+                return;
+            }
+            long target = appendedLength;
+            data.force(false);
+            forcedLength = target;
+        }
+    }
+
+    private long find(long key, String username) throws IOException {
+        try {
+            return index.find(key, named(username));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void put(long key, long offset, LongPredicate sameUser) throws IOException {
+        try {
+            index.put(key, offset, sameUser);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** 색인 슬롯이 가리키는 레코드의 이름이 username 인지 확인하는 조건 */
+    private LongPredicate named(String username) {
+        return offset -> {
+            try {
+                return username.equals(usernameAt(offset));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private User readRecord(long offset) throws IOException {
+        int length = ByteBuffer.wrap(pages.read(offset, 4)).getInt();
+        if (length < RECORD_HEADER_BYTES || length > MAX_RECORD_BYTES) {
+            throw new IOException("Corrupt user record at " + offset);
+        }
+        User user = decode(pages.read(offset, length));
+        if (user == null) {
+            throw new IOException("Corrupt user record at " + offset);
+        }
+        return user;
+    }
+
+    private String usernameAt(long offset) throws IOException {
+        byte[] head = pages.read(offset + RECORD_HEADER_BYTES + 8, 2);
+        int nameLength = ByteBuffer.wrap(head).getShort() & 0xffff;
+        return new String(pages.read(offset + RECORD_HEADER_BYTES + 10, nameLength), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(User user) {
+        byte[] name = user.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] hash = user.getPasswordHash().getBytes(StandardCharsets.UTF_8);
+        int length = RECORD_HEADER_BYTES + 8 + 2 + name.length + 2 + hash.length;
+        if (name.length > 0xffff || hash.length > 0xffff || length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("User record too large: " + user.getUsername());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(length);
+        buffer.putInt(0); // CRC 자리
+        buffer.putLong(toEpoch(user.getLastLoginAt()));
+        buffer.putLong(toEpoch(user.getCreatedAt()));
+        buffer.putShort((short) name.length).put(name);
+        buffer.putShort((short) hash.length).put(hash);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), RECORD_HEADER_BYTES, length - RECORD_HEADER_BYTES);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /** CRC 나 길이가 맞지 않으면 null */
+    private static User decode(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int length = buffer.getInt();
+        int storedCrc = buffer.getInt();
+        if (length != record.length) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_BYTES, length - RECORD_HEADER_BYTES);
+        if ((int) crc.getValue() != storedCrc) {
+            return null;
+        }
+        long lastLogin = buffer.getLong();
+        long created = buffer.getLong();
+        byte[] name = new byte[buffer.getShort() & 0xffff];
+        buffer.get(name);
+        byte[] hash = new byte[buffer.getShort() & 0xffff];
+        buffer.get(hash);
+        return new User(new String(name, StandardCharsets.UTF_8), new String(hash, StandardCharsets.UTF_8),
+                SessionTable.toDateTime(created), lastLogin == NO_LOGIN ? null : SessionTable.toDateTime(lastLogin));
+    }
+
+    private static long toEpoch(LocalDateTime time) {
+        return time == null ? NO_LOGIN : SessionTable.toEpochSecond(time);
+    }
+
+    private long readLong(long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer.getLong(0);
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            data.write(buffer, position + buffer.position());
+        }
+    }
+}
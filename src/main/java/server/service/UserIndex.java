@@ -0,0 +1,247 @@
+package server.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * 사용자 이름 → 데이터 파일 위치를 담는 디스크 해시 색인(개방 주소법, 선형 탐사).
+ * 파일 전체를 메모리에 매핑하므로 조회는 시스템 호출 없이 처리된다.
+ *
+ * 슬롯은 {이름 해시 64비트, 레코드 위치} 16바이트이며 해시가 0 이면 빈 슬롯이다.
+ * 해시가 같아도 다른 이름일 수 있으므로 호출하는 쪽이 레코드를 읽어 이름을 확인한다.
+ *
+ * 헤더의 checkpoint 는 "이 위치까지의 데이터 파일 레코드는 색인에 반영되어 있다" 는 표시로,
+ * 비정상 종료 뒤에는 그 위치부터 데이터 파일을 다시 읽어 색인을 맞춘다.
+ * 잠금은 UserDatabase 가 잡는다.
+ */
+final class UserIndex implements AutoCloseable {
+    private static final int MAGIC = 0x55494458; // "UIDX"
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 16;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+    private static final int CHECKPOINT_OFFSET = 16;
+    /** MappedByteBuffer 한 개로 매핑할 수 있는 최대 슬롯 수 */
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int size;
+
+    private UserIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 색인 파일을 연다. 없거나 헤더가 맞지 않으면 빈 색인(checkpoint 0)을 새로 만든다.
+     */
+    static UserIndex open(Path file, int initialCapacity) throws IOException {
+        UserIndex index = new UserIndex(file);
+        if (Files.isRegularFile(file) && index.map(file)) {
+            return index;
+        }
+        index.close();
+        create(file, Integer.highestOneBit(Math.max(64, initialCapacity - 1) << 1));
+        if (!index.map(file)) {
+            throw new IOException("Failed to create user index: " + file);
+        }
+        return index;
+    }
+
+    /** 이름 해시. 0 은 빈 슬롯 표시로 쓰므로 피한다. */
+    static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * key 가 같은 슬롯의 위치를 차례로 matches 에 넘겨, 처음 true 를 돌려준 위치를 반환한다. 없으면 -1.
+     */
+    long find(long key, LongPredicate matches) {
+        int mask = capacity - 1;
+        int i = (int) key & mask;
+        while (true) {
+            long slotKey = map.getLong(slot(i));
+            if (slotKey == 0) {
+                return -1;
+            }
+            if (slotKey == key) {
+                long offset = map.getLong(slot(i) + 8);
+                if (matches.test(offset)) {
+                    return offset;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * 같은 사용자(sameUser 가 true 인 위치)의 슬롯이 있으면 위치를 바꾸고, 없으면 새로 넣는다.
+     */
+    void put(long key, long offset, LongPredicate sameUser) throws IOException {
+        if ((size + 1) * 10L > capacity * 7L) {
+            grow();
+        }
+        int mask = capacity - 1;
+        int i = (int) key & mask;
+        while (true) {
+            long slotKey = map.getLong(slot(i));
+            if (slotKey == 0) {
+                map.putLong(slot(i) + 8, offset);
+                map.putLong(slot(i), key);
+                size++;
+                map.putInt(SIZE_OFFSET, size);
+                return;
+            }
+            if (slotKey == key && sameUser.test(map.getLong(slot(i) + 8))) {
+                map.putLong(slot(i) + 8, offset);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** 모든 슬롯을 비우고 checkpoint 를 0 으로 돌린다. 색인을 처음부터 다시 만들 때 쓴다. */
+    void clear() {
+        for (int i = 0; i < capacity; i++) {
+            map.putLong(slot(i), 0);
+            map.putLong(slot(i) + 8, 0);
+        }
+        size = 0;
+        map.putInt(SIZE_OFFSET, 0);
+        map.putLong(CHECKPOINT_OFFSET, 0);
+    }
+
+    /** 모든 레코드 위치를 넘긴다. */
+    void forEachOffset(LongConsumer consumer) {
+        for (int i = 0; i < capacity; i++) {
+            if (map.getLong(slot(i)) != 0) {
+                consumer.accept(map.getLong(slot(i) + 8));
+            }
+        }
+    }
+
+    long checkpoint() {
+        return map.getLong(CHECKPOINT_OFFSET);
+    }
+
+    /** 색인 내용을 디스크에 내린 뒤 checkpoint 를 기록한다. */
+    void checkpoint(long dataLength) {
+        map.force();
+        map.putLong(CHECKPOINT_OFFSET, dataLength);
+        map.force();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    long fileBytes() {
+        return HEADER_BYTES + (long) capacity * SLOT_BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (map != null) {
+            map.force();
+            map = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * 두 배 크기의 새 파일에 슬롯을 옮겨 담고 원자적으로 바꿔치기한다.
+     * 새 파일의 checkpoint 는 옛 값을 그대로 쓰므로 도중에 종료되어도 다시 맞출 수 있다.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IOException("User index is full: " + capacity + " slots");
+        }
+        int next = capacity * 2;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        create(temp, next);
+        try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer target = tempChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) next * SLOT_BYTES);
+            int mask = next - 1;
+            for (int i = 0; i < capacity; i++) {
+                long key = map.getLong(slot(i));
+                if (key == 0) {
+                    continue;
+                }
+                int j = (int) key & mask;
+                while (target.getLong(slot(j)) != 0) {
+                    j = (j + 1) & mask;
+                }
+                target.putLong(slot(j), key);
+                target.putLong(slot(j) + 8, map.getLong(slot(i) + 8));
+            }
+            target.putInt(SIZE_OFFSET, size);
+            target.putLong(CHECKPOINT_OFFSET, checkpoint());
+            target.force();
+        }
+        close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (!map(file)) {
+            throw new IOException("Failed to reopen user index: " + file);
+        }
+    }
+
+    /** 헤더를 확인하고 매핑한다. 헤더가 맞지 않으면 false. */
+    private boolean map(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = channel.size();
+        if (length < HEADER_BYTES) {
+            return false;
+        }
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        int slots = map.getInt(CAPACITY_OFFSET);
+        if (map.getInt(0) != MAGIC || Integer.bitCount(slots) != 1
+                || length != HEADER_BYTES + (long) slots * SLOT_BYTES) {
+            map = null;
+            return false;
+        }
+        capacity = slots;
+        size = map.getInt(SIZE_OFFSET);
+        return true;
+    }
+
+    private static void create(Path path, int capacity) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = ch.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) capacity * SLOT_BYTES);
+            header.putInt(0, MAGIC);
+            header.putInt(CAPACITY_OFFSET, capacity);
+            header.force();
+        }
+    }
+
+    private static int slot(int i) {
+        return HEADER_BYTES + i * SLOT_BYTES;
+    }
+}
@@ -2,31 +2,92 @@ package server.service;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
+import server.config.ServerConfig;
+import server.http.DeadlineExceededException;
 import server.model.User;
 import server.util.Logger;
+import server.util.MetricsSource;
 
 /**
- * 파일 시스템 기반 사용자 저장소
- * users/ 디렉토리에 각 사용자별로 파일을 생성하여 정보를 저장
+ * 사용자 저장소
+ * 사용자 레코드는 userdb/ 의 단일 파일 저장 엔진(UserDatabase)에 보관한다.
+ * 예전 형식인 users/ 디렉토리(사용자별 파일)는 데이터베이스가 비어 있을 때 한 번 가져오며,
+ * 수동으로 옮길 때는 server.tool.UserMigrationTool 을 쓴다.
+ *
+ * 읽은 사용자 레코드는 크기 제한 LRU 캐시(UserCache)에 두고, 쓰기는 저장소에 먼저 쓴 뒤 캐시를 갱신한다(write-through).
+ * 로그인과 중복 확인은 캐시에 있으면 디스크를 읽지 않는다.
+ * 그보다 앞에서 사용자 이름 블룸 필터(UsernameFilter)가 "확실히 없는 이름" 을 걸러 내므로,
+ * 없는 이름을 계속 찔러 보는 요청은 캐시도 디스크도 건드리지 않는다.
+ *
+ * 로그인 시각은 메모리에만 바로 반영하고, 백그라운드에서 주기마다 사용자별 마지막 값만 모아 레코드 자리에 덮어쓴다.
+ *
+ * 등록은 사용자 이름별 예약(registering)으로 같은 이름의 동시 등록 중 하나만 해시와 저장까지 가게 하고,
+ * 저장소도 같은 이름을 한 번만 받으므로 정확히 하나만 성공한다. 전역 잠금이 없어 다른 이름의 등록은 나란히 진행된다.
+ *
+ * 비밀번호 해시는 PasswordHasher 가 전용 스레드 풀에서 계산한다. 예전 형식(솔트 없는 SHA-256)으로 저장된 사용자는
+ * 로그인에 성공할 때 새 형식으로 다시 해시해 저장한다.
  */
-public final class UserRepository {
-    private static final Path USERS_DIR = Paths.get("users");
+public final class UserRepository implements AutoCloseable, MetricsSource {
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
+
+    private final UserDatabase database;
+    private final UserCache cache = new UserCache(ServerConfig.USER_CACHE_SIZE);
+    /** 로그인 시각이 바뀌었지만 아직 저장소에 쓰지 않은 사용자. 같은 사용자는 마지막 값만 남는다. */
+    private final Map<String, User> pendingLogins = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+    private final AtomicLong lastLoginWrites = new AtomicLong();
+    private final PasswordHasher hasher = new PasswordHasher();
+    /** 지금 등록 중인 사용자 이름. ConcurrentHashMap 의 구역별 잠금만 쓰므로 다른 이름끼리는 서로 막지 않는다. */
+    private final Map<String, Boolean> registering = new ConcurrentHashMap<>();
+    private final LongAdder registrationConflicts = new LongAdder();
+    /** 존재하는 사용자 이름의 블룸 필터. 만들지 못했으면 null 이고 그때는 모든 이름을 저장소에서 확인한다. */
+    private volatile UsernameFilter usernames;
+    /** 필터에 이름을 넣는 일과 필터를 다시 만드는 일이 엇갈려 이름이 빠지지 않게 한다. */
+    private final Object usernamesLock = new Object();
+    private final AtomicBoolean usernamesRebuilding = new AtomicBoolean();
+    private final LongAdder filterNegatives = new LongAdder();
+    private final LongAdder filterFalsePositives = new LongAdder();
+
+    /**
+     * ServerConfig.USER_DATABASE_DIR 의 데이터베이스를 연다. 비어 있으면 users/ 의 예전 파일을 가져온다.
+     */
     public UserRepository() {
+        this(ServerConfig.USER_DATABASE_DIR);
+        if (database.size() == 0 && Files.isDirectory(ServerConfig.LEGACY_USERS_DIR)) {
+            importLegacy(ServerConfig.LEGACY_USERS_DIR);
+        }
+    }
+
+    public UserRepository(Path databaseDir) {
         try {
-            Files.createDirectories(USERS_DIR);
+            this.database = new UserDatabase(databaseDir, ServerConfig.USER_INDEX_INITIAL_CAPACITY,
+                    ServerConfig.USER_PAGE_CACHE_PAGES);
         } catch (IOException e) {
-            Logger.error("Failed to create users directory", e);
+            throw new IllegalStateException("Failed to open user database: " + databaseDir, e);
         }
+        Logger.info("Opened user database " + databaseDir + " (" + database.size() + " users)");
+        this.usernames = buildUsernameFilter();
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::flushLastLogins, ServerConfig.USER_LAST_LOGIN_FLUSH_INTERVAL_MILLIS,
+                ServerConfig.USER_LAST_LOGIN_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -37,23 +98,39 @@ public final class UserRepository {
             return false;
         }
 
-        Path userFile = USERS_DIR.resolve(username + ".txt");
-        if (Files.exists(userFile)) {
+        if (userExists(username)) {
             return false; // 이미 존재하는 사용자
         }
+        if (registering.putIfAbsent(username, Boolean.TRUE) != null) {
+            registrationConflicts.increment();
+            return false; // 같은 이름을 다른 요청이 등록하는 중
+        }
 
         try {
-            String passwordHash = hashPassword(password);
+            String passwordHash = hasher.hash(password);
             User user = new User(username, passwordHash);
-            saveUser(user);
+            if (!saveUser(user)) {
+                return false;
+            }
             Logger.info("User registered: " + username);
             return true;
+        } catch (PasswordHasherBusyException | DeadlineExceededException e) {
+            throw e; // 등록 실패가 아니라 과부하이므로 503 으로 돌려보낸다.
         } catch (Exception e) {
             Logger.error("Failed to register user: " + username, e);
             return false;
+        } finally {
+            registering.remove(username);
         }
     }
 
+    /**
+     * 같은 이름의 등록이 진행 중인지. 등록이 끝나면 저장소에 있거나(성공) 없으므로(실패) userExists 로 확인한다.
+     */
+    public boolean isRegistering(String username) {
+        return username != null && registering.containsKey(username);
+    }
+
     /**
      * 사용자 로그인 검증
      */
@@ -68,43 +145,181 @@ public final class UserRepository {
         }
 
         User user = userOpt.get();
-        String passwordHash = hashPassword(password);
-        
-        if (passwordHash.equals(user.getPasswordHash())) {
-            // 로그인 시간 업데이트
+        if (!hasher.verify(password, user.getPasswordHash())) {
+            return false;
+        }
+
+        if (hasher.needsUpgrade(user.getPasswordHash())) {
+            upgradePassword(user, password);
+        } else {
+            // 로그인 시간은 메모리에만 반영하고 파일 쓰기는 flushLastLogins 가 모아서 처리한다.
             User updatedUser = user.withLastLogin(LocalDateTime.now());
-            saveUser(updatedUser);
-            Logger.info("User authenticated: " + username);
-            return true;
+            cache.put(username, updatedUser);
+            pendingLogins.put(username, updatedUser);
         }
-        
-        return false;
+        Logger.info("User authenticated: " + username);
+        return true;
     }
 
     /**
      * 사용자 존재 여부 확인
      */
     public boolean userExists(String username) {
-        if (username == null || username.trim().isEmpty()) {
-            return false;
-        }
-        Path userFile = USERS_DIR.resolve(username + ".txt");
-        return Files.exists(userFile);
+        return loadUser(username).isPresent();
     }
 
     /**
-     * 사용자 정보 로드
+     * 사용자 정보 로드. 캐시에 있으면 디스크를 읽지 않는다.
      */
     public Optional<User> loadUser(String username) {
         if (username == null || username.trim().isEmpty()) {
             return Optional.empty();
         }
 
-        Path userFile = USERS_DIR.resolve(username + ".txt");
-        if (!Files.exists(userFile)) {
+        UsernameFilter filter = usernames;
+        if (filter != null && !filter.mightContain(username)) {
+            filterNegatives.increment();
             return Optional.empty();
         }
 
+        User cached = cache.get(username);
+        if (cached != null) {
+            if (cached == UserCache.ABSENT) {
+                countFalsePositive(filter);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
+        User pending = pendingLogins.get(username);
+        if (pending != null) {
+            return Optional.of(pending); // 캐시에서 밀려났지만 파일보다 새 값
+        }
+        try {
+            User loaded = database.get(username);
+            if (loaded == null) {
+                countFalsePositive(filter);
+            }
+            cache.putIfAbsent(username, loaded != null ? loaded : UserCache.ABSENT);
+            return Optional.ofNullable(loaded);
+        } catch (IOException e) {
+            Logger.error("Failed to load user: " + username, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 저장소를 캐시 밖에서 바꿨을 때 호출하면 다음 조회가 다시 읽는다.
+     */
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * 예전 형식(사용자별 "이름.txt" 파일) 디렉토리의 사용자를 가져온다. 이미 있는 사용자는 건너뛴다.
+     * 사용자마다 fsync 하지 않고 끝에 한 번 checkpoint 한다.
+     *
+     * @return 새로 가져온 사용자 수
+     */
+    public int importLegacy(Path legacyDir) {
+        int imported = 0;
+        int skipped = 0;
+        try (Stream<Path> files = Files.list(legacyDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(".txt") || !Files.isRegularFile(file)) {
+                    continue;
+                }
+                Optional<User> user = readLegacyUser(file);
+                if (user.isPresent() && database.insert(user.get(), false)) {
+                    addUsername(user.get().getUsername());
+                    imported++;
+                } else {
+                    skipped++;
+                }
+            }
+            database.checkpoint();
+        } catch (IOException e) {
+            Logger.error("Failed to import users from " + legacyDir, e);
+        }
+        Logger.info("Imported " + imported + " users from " + legacyDir + " (skipped " + skipped + ")");
+        return imported;
+    }
+
+    /**
+     * 밀린 로그인 시각을 저장소에 쓰고 checkpoint 한다. 쓰는 사이 다시 로그인했으면 그 값은 다음 주기에 쓴다.
+     */
+    void flushLastLogins() {
+        int written = 0;
+        for (Map.Entry<String, User> entry : pendingLogins.entrySet()) {
+            User user = entry.getValue();
+            try {
+                if (database.updateLastLogin(user.getUsername(), user.getLastLoginAt())) {
+                    written++;
+                }
+            } catch (IOException e) {
+                Logger.error("Failed to save user: " + user.getUsername(), e);
+            }
+            pendingLogins.remove(entry.getKey(), user);
+        }
+        lastLoginWrites.addAndGet(written);
+        try {
+            database.checkpoint();
+        } catch (IOException e) {
+            Logger.error("Failed to checkpoint user database", e);
+        }
+    }
+
+    /**
+     * 밀린 로그인 시각을 모두 저장소에 반영하고 데이터베이스를 닫는다.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        hasher.close();
+        flushLastLogins();
+        try {
+            database.close();
+        } catch (IOException e) {
+            Logger.error("Failed to close user database", e);
+        }
+    }
+
+    @Override
+    public void collect(Map<String, String> out) {
+        out.put("users.registering", String.valueOf(registering.size()));
+        out.put("users.registration_conflicts", String.valueOf(registrationConflicts.sum()));
+        out.put("users.pending_last_login", String.valueOf(pendingLogins.size()));
+        out.put("users.last_login_writes", String.valueOf(lastLoginWrites.get()));
+        out.put("users.cache.size", String.valueOf(cache.size()));
+        out.put("users.cache.hits", String.valueOf(cache.hits()));
+        out.put("users.cache.misses", String.valueOf(cache.misses()));
+        out.put("users.cache.evictions", String.valueOf(cache.evictions()));
+        out.put("users.db.records", String.valueOf(database.size()));
+        out.put("users.db.data_bytes", String.valueOf(database.dataBytes()));
+        out.put("users.db.index_bytes", String.valueOf(database.indexBytes()));
+        out.put("users.db.page_cache.pages", String.valueOf(database.pageCache().size()));
+        out.put("users.db.page_cache.hits", String.valueOf(database.pageCache().hits()));
+        out.put("users.db.page_cache.misses", String.valueOf(database.pageCache().misses()));
+        UsernameFilter filter = usernames;
+        if (filter != null) {
+            long negatives = filterNegatives.sum();
+            long falsePositives = filterFalsePositives.sum();
+            out.put("users.bloom.entries", String.valueOf(filter.entries()));
+            out.put("users.bloom.capacity", String.valueOf(filter.expectedEntries()));
+            out.put("users.bloom.bits", String.valueOf(filter.bitCount()));
+            out.put("users.bloom.hashes", String.valueOf(filter.hashes()));
+            out.put("users.bloom.negatives", String.valueOf(negatives));
+            out.put("users.bloom.false_positives", String.valueOf(falsePositives));
+            out.put("users.bloom.estimated_fpp", String.format(Locale.ROOT, "%.6f", filter.estimatedFalsePositiveRate()));
+            out.put("users.bloom.observed_fpp", String.format(Locale.ROOT, "%.6f",
+                    negatives + falsePositives == 0 ? 0.0 : (double) falsePositives / (negatives + falsePositives)));
+        }
+        hasher.collect(out);
+    }
+
+    /**
+     * 예전 형식의 사용자 파일 읽기
+     */
+    private static Optional<User> readLegacyUser(Path userFile) {
         try {
             String content = Files.readString(userFile);
             String[] lines = content.split("\n");
@@ -127,42 +342,102 @@ public final class UserRepository {
 
             return Optional.of(new User(storedUsername, passwordHash, createdAt, lastLoginAt));
         } catch (Exception e) {
-            Logger.error("Failed to load user: " + username, e);
+            Logger.error("Failed to load user: " + userFile, e);
             return Optional.empty();
         }
     }
 
     /**
-     * 사용자 정보 저장
+     * 새 사용자 저장. 저장소에 쓴 뒤 캐시를 갱신하고, 이미 있거나 실패하면 캐시에서 지워 다음 조회가 다시 읽게 한다.
      */
-    private void saveUser(User user) {
-        Path userFile = USERS_DIR.resolve(user.getUsername() + ".txt");
-        
-        StringBuilder content = new StringBuilder();
-        content.append("username:").append(user.getUsername()).append("\n");
-        content.append("password:").append(user.getPasswordHash()).append("\n");
-        content.append("createdAt:").append(user.getCreatedAt().format(DATETIME_FORMAT)).append("\n");
-        content.append("lastLoginAt:").append(
-            user.getLastLoginAt() != null ? user.getLastLoginAt().format(DATETIME_FORMAT) : "null"
-        ).append("\n");
-
+    private boolean saveUser(User user) {
         try {
-            Files.writeString(userFile, content.toString());
+            if (database.insert(user)) {
+                addUsername(user.getUsername());
+                cache.put(user.getUsername(), user);
+                return true;
+            }
         } catch (IOException e) {
             Logger.error("Failed to save user: " + user.getUsername(), e);
         }
+        cache.invalidate(user.getUsername());
+        return false;
     }
 
     /**
-     * 비밀번호 해시화
+     * 저장소의 모든 사용자 이름으로 블룸 필터를 만든다. 지금 수의 두 배(최소 USERNAME_FILTER_MIN_ENTRIES)를 담도록 잡는다.
+     * 저장소를 읽다 실패하면 이름이 빠진 필터가 "없음" 으로 잘못 답하지 않도록 null 을 돌려준다.
      */
-    private String hashPassword(String password) {
+    private UsernameFilter buildUsernameFilter() {
+        long started = System.nanoTime();
+        UsernameFilter filter = new UsernameFilter(
+                Math.max(ServerConfig.USERNAME_FILTER_MIN_ENTRIES, database.size() * 2L),
+                ServerConfig.USERNAME_FILTER_FALSE_POSITIVE_RATE);
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
+            database.forEachUsername(filter::add);
+        } catch (IOException e) {
+            Logger.error("Failed to build username filter, checking every name against the database", e);
+            return null;
+        }
+        Logger.info("Built username filter: " + filter.entries() + " names, " + filter.bitCount() / 8 / 1024 + "KB in "
+                + (System.nanoTime() - started) / 1_000_000 + "ms");
+        return filter;
+    }
+
+    /**
+     * 새로 저장한 이름을 필터에 넣는다. 필터가 예상 개수를 넘으면 user-writer 스레드에서 더 크게 다시 만든다.
+     */
+    private void addUsername(String username) {
+        UsernameFilter filter;
+        synchronized (usernamesLock) {
+            filter = usernames;
+            if (filter != null) {
+                filter.add(username);
+            }
+        }
+        if (filter != null && filter.isSaturated() && usernamesRebuilding.compareAndSet(false, true)) {
+            writer.execute(this::rebuildUsernameFilter);
+        }
+    }
+
+    /**
+     * 저장소를 다시 훑어 필터를 바꾼다. 훑는 동안 등록된 이름이 빠지지 않도록 addUsername 을 잠시 막는다.
+     */
+    private void rebuildUsernameFilter() {
+        try {
+            synchronized (usernamesLock) {
+                UsernameFilter rebuilt = buildUsernameFilter();
+                if (rebuilt != null) {
+                    usernames = rebuilt;
+                }
+            }
+        } finally {
+            usernamesRebuilding.set(false);
+        }
+    }
+
+    private void countFalsePositive(UsernameFilter filter) {
+        if (filter != null) {
+            filterFalsePositives.increment();
+        }
+    }
+
+    /**
+     * 예전 형식이나 반복 횟수가 적은 해시를 현재 설정으로 다시 만들어 로그인 시각과 함께 저장한다.
+     * 저장에 실패해도 로그인은 성공으로 두고 다음 로그인에서 다시 시도한다.
+     */
+    private void upgradePassword(User user, String password) {
+        User upgraded = new User(user.getUsername(), hasher.hash(password), user.getCreatedAt(), LocalDateTime.now());
+        try {
+            database.update(upgraded);
+            pendingLogins.remove(user.getUsername());
+            cache.put(user.getUsername(), upgraded);
+            hasher.recordUpgrade();
+        } catch (IOException e) {
+            Logger.error("Failed to upgrade password hash: " + user.getUsername(), e);
+            User updatedUser = user.withLastLogin(upgraded.getLastLoginAt());
+            cache.put(user.getUsername(), updatedUser);
+            pendingLogins.put(user.getUsername(), updatedUser);
         }
     }
 }
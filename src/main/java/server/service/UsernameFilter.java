@@ -0,0 +1,102 @@
+package server.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 존재하는 사용자 이름의 블룸 필터.
+ * mightContain 이 false 면 그 이름은 확실히 없으므로 캐시나 디스크를 보지 않고 답할 수 있다.
+ * true 는 "있을 수도 있음" 이라 호출하는 쪽이 저장소에서 확인한다.
+ *
+ * 비트 배열은 AtomicLongArray 라 add 와 mightContain 을 잠금 없이 동시에 불러도 된다.
+ * 이름을 지우는 기능은 없다(사용자 삭제가 없으므로). 예상 개수를 넘으면 오탐률이 올라가므로
+ * 호출하는 쪽이 isSaturated 를 보고 더 큰 필터로 다시 만든다.
+ */
+final class UsernameFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashes;
+    private final long expectedEntries;
+    private final LongAdder entries = new LongAdder();
+
+    /**
+     * @param expectedEntries 담을 것으로 예상하는 이름 수
+     * @param falsePositiveRate 예상 개수만큼 담았을 때의 목표 오탐률
+     */
+    UsernameFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        // 최적 비트 수 m = -n ln p / (ln 2)^2, 해시 수 k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.expectedEntries = n;
+    }
+
+    void add(String username) {
+        long h = UserIndex.hash(username);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                long witness = bits.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    break;
+                }
+                current = witness;
+            }
+        }
+        entries.increment();
+    }
+
+    boolean mightContain(String username) {
+        long h = UserIndex.hash(username);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 예상 개수보다 많이 담겨 목표 오탐률을 넘기 시작했으면 true */
+    boolean isSaturated() {
+        return entries.sum() > expectedEntries;
+    }
+
+    long entries() {
+        return entries.sum();
+    }
+
+    long expectedEntries() {
+        return expectedEntries;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    int hashes() {
+        return hashes;
+    }
+
+    /**
+     * 지금 채워진 비트 비율로 추정한 오탐률((켜진 비트 / 전체 비트)^k).
+     * 배열 전체를 훑으므로 지표를 모을 때만 부른다.
+     */
+    double estimatedFalsePositiveRate() {
+        long set = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            set += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashes);
+    }
+}
@@ -0,0 +1,99 @@
+package server.tool;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import server.config.ServerConfig;
+import server.util.ContentManifest;
+
+/**
+ * 빌드 단계에서 실행하는 자산 지문(fingerprint) 도구.
+ * content_manifest.json 에 나열된 자산을 "이름.해시.확장자" 로 복사하고 매니페스트 경로를 새 이름으로 바꾼다.
+ * 파일명이 내용에 따라 바뀌므로 CachePolicy 의 {hash} 규칙으로 1년 immutable 캐시를 걸 수 있다.
+ * 원본 파일은 남겨 두므로 예전 경로로 들어오는 요청도 계속 동작한다.
+ *
+ * 사용법: java -cp target/classes server.tool.AssetFingerprinter [웹루트] [타입,...]
+ * 기본 대상 타입은 image 이다. 게시글(text)은 API 로 수정/삭제되므로 기본적으로 제외한다.
+ */
+public final class AssetFingerprinter {
+    private static final Pattern FINGERPRINTED =
+            Pattern.compile("^(.*)\\.[0-9a-f]{" + ServerConfig.ASSET_HASH_LENGTH + "}(\\.[^./]+)$");
+
+    private AssetFingerprinter() {}
+
+    public static void main(String[] args) throws IOException {
+        Path webRoot = args.length > 0 ? Paths.get(args[0]) : ServerConfig.WEB_ROOT;
+        Set<String> types = new HashSet<>(Arrays.asList((args.length > 1 ? args[1] : "image").split(",")));
+        Path manifest = webRoot.resolve(ServerConfig.CONTENT_MANIFEST_PATH.getFileName());
+
+        String json = Files.readString(manifest, StandardCharsets.UTF_8);
+        int rewritten = 0;
+        for (ContentManifest.Item item : ContentManifest.parse(json)) {
+            if (!types.contains(item.type())) {
+                continue;
+            }
+            String source = originalPath(item.path());
+            Path file = webRoot.resolve(source.startsWith("/") ? source.substring(1) : source);
+            if (!Files.isRegularFile(file)) {
+                System.out.println("skip (missing): " + item.path());
+                continue;
+            }
+            String hashed = fingerprintedPath(source, hash(file));
+            Path target = webRoot.resolve(hashed.substring(1));
+            if (Files.notExists(target)) {
+                Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+            }
+            if (!hashed.equals(item.path())) {
+                json = json.replace("\"" + item.path() + "\"", "\"" + hashed + "\"");
+                rewritten++;
+            }
+            System.out.println(item.path() + " -> " + hashed);
+        }
+
+        if (rewritten > 0) {
+            Path tmp = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+            Files.writeString(tmp, json, StandardCharsets.UTF_8);
+            Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        System.out.println("Rewrote " + rewritten + " manifest entries");
+    }
+
+    /**
+     * 이미 지문이 붙은 경로면 원본 경로로 되돌린다.
+     */
+    static String originalPath(String path) {
+        Matcher m = FINGERPRINTED.matcher(path);
+        return m.matches() ? m.group(1) + m.group(2) : path;
+    }
+
+    static String fingerprintedPath(String path, String hash) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash) {
+            return path + "." + hash;
+        }
+        return path.substring(0, dot) + "." + hash + path.substring(dot);
+    }
+
+    private static String hash(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(Files.readAllBytes(file));
+            return HexFormat.of().formatHex(hash).substring(0, ServerConfig.ASSET_HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
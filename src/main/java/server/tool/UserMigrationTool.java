@@ -0,0 +1,37 @@
+package server.tool;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import server.config.ServerConfig;
+import server.service.UserRepository;
+
+/**
+ * 예전 형식의 사용자 디렉토리(users/이름.txt)를 단일 파일 사용자 데이터베이스(userdb/)로 옮기는 도구.
+ * 이미 데이터베이스에 있는 사용자는 건너뛰므로 여러 번 실행해도 된다. 원본 파일은 지우지 않는다.
+ * 서버가 같은 데이터베이스를 열고 있는 동안에는 실행하지 않는다.
+ *
+ * 사용법: java -cp target/classes server.tool.UserMigrationTool [원본 디렉토리] [데이터베이스 디렉토리]
+ */
+public final class UserMigrationTool {
+
+    private UserMigrationTool() {}
+
+    public static void main(String[] args) {
+        Path source = args.length > 0 ? Paths.get(args[0]) : ServerConfig.LEGACY_USERS_DIR;
+        Path target = args.length > 1 ? Paths.get(args[1]) : ServerConfig.USER_DATABASE_DIR;
+        if (!Files.isDirectory(source)) {
+            System.err.println("No such directory: " + source);
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        int imported;
+        try (UserRepository repository = new UserRepository(target)) {
+            imported = repository.importLegacy(source);
+        }
+        System.out.println("Imported " + imported + " users into " + target + " in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+}
@@ -0,0 +1,151 @@
+package server.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import server.config.ServerConfig;
+
+/**
+ * Accept-Encoding 협상과 gzip/deflate 압축을 담당하는 유틸리티.
+ * Deflater 는 네이티브 메모리를 잡기 때문에 요청마다 만들지 않고 풀에서 빌려 쓴다.
+ */
+public final class Compression {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+    /**
+     * 요청 속성: 핸들러가 본문 인코딩을 이미 정했음(Boolean.TRUE).
+     * 정적 파일 핸들러가 압축하지 않기로 한 응답에 남기며, CompressionFilter 는 이 응답을 다시 압축하지 않는다.
+     * 응답 헤더가 아니라 요청 속성이므로 필터가 빠진 체인에서도 밖으로 새지 않는다.
+     */
+    public static final String ENCODING_DECIDED_ATTRIBUTE = "compression.decided";
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    /** gzip 은 raw deflate(nowrap) 스트림, deflate 는 zlib 포맷을 사용하므로 풀을 분리한다. */
+    private static final BlockingQueue<Deflater> RAW_POOL = new ArrayBlockingQueue<>(ServerConfig.DEFLATER_POOL_SIZE);
+    private static final BlockingQueue<Deflater> ZLIB_POOL = new ArrayBlockingQueue<>(ServerConfig.DEFLATER_POOL_SIZE);
+
+    private Compression() {}
+
+    /**
+     * Accept-Encoding 헤더를 보고 사용할 인코딩을 고른다. gzip 을 우선하며, 둘 다 불가능하면 null.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case GZIP, "x-gzip" -> gzip = q;
+                case DEFLATE -> deflate = q;
+                case "*" -> wildcard = q;
+                default -> { }
+            }
+        }
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        if (deflate > 0) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    /**
+     * 지정한 인코딩으로 본문을 압축한다.
+     */
+    public static byte[] encode(byte[] data, String encoding) {
+        if (GZIP.equals(encoding)) {
+            return gzip(data);
+        }
+        if (DEFLATE.equals(encoding)) {
+            return deflate(data);
+        }
+        throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+    }
+
+    public static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        out.writeBytes(GZIP_HEADER);
+        Deflater deflater = borrow(RAW_POOL, true);
+        try {
+            compress(deflater, data, out);
+        } finally {
+            release(RAW_POOL, deflater);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        writeIntLE(out, (int) crc.getValue());
+        writeIntLE(out, data.length);
+        return out.toByteArray();
+    }
+
+    public static byte[] deflate(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        Deflater deflater = borrow(ZLIB_POOL, false);
+        try {
+            compress(deflater, data, out);
+        } finally {
+            release(ZLIB_POOL, deflater);
+        }
+        return out.toByteArray();
+    }
+
+    private static void compress(Deflater deflater, byte[] data, ByteArrayOutputStream out) {
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] buffer = new byte[8 * 1024];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+        }
+    }
+
+    private static Deflater borrow(BlockingQueue<Deflater> pool, boolean nowrap) {
+        Deflater deflater = pool.poll();
+        return deflater != null ? deflater : new Deflater(ServerConfig.COMPRESSION_LEVEL, nowrap);
+    }
+
+    private static void release(BlockingQueue<Deflater> pool, Deflater deflater) {
+        deflater.reset();
+        if (!pool.offer(deflater)) {
+            // 풀이 가득 찼으면 네이티브 자원을 즉시 반환한다.
+            deflater.end();
+        }
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+        out.write((value >>> 16) & 0xff);
+        out.write((value >>> 24) & 0xff);
+    }
+}
@@ -0,0 +1,67 @@
+package server.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * www/content_manifest.json 을 읽는 간단한 파서.
+ * JsonUtil 과 마찬가지로 범용 JSON 파서 대신, 배열 안의 평평한 객체에서 path/type 만 뽑아낸다.
+ */
+public final class ContentManifest {
+    private static final Pattern OBJECT = Pattern.compile("\\{[^{}]*\\}");
+    private static final Pattern PATH = Pattern.compile("\"path\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern TYPE = Pattern.compile("\"type\"\\s*:\\s*\"([^\"]*)\"");
+
+    private ContentManifest() {}
+
+    /**
+     * 매니페스트에 나열된 항목을 순서대로 반환한다. 파일이 없으면 빈 목록.
+     */
+    public static List<Item> read(Path manifest) throws IOException {
+        if (!Files.isRegularFile(manifest)) {
+            return List.of();
+        }
+        return parse(Files.readString(manifest));
+    }
+
+    public static List<Item> parse(String json) {
+        List<Item> items = new ArrayList<>();
+        Matcher object = OBJECT.matcher(json);
+        while (object.find()) {
+            String body = object.group();
+            Matcher path = PATH.matcher(body);
+            if (!path.find()) {
+                continue;
+            }
+            Matcher type = TYPE.matcher(body);
+            items.add(new Item(path.group(1), type.find() ? type.group(1) : ""));
+        }
+        return items;
+    }
+
+    /**
+     * 매니페스트 항목 하나(요청 경로와 콘텐츠 종류).
+     */
+    public static final class Item {
+        private final String path;
+        private final String type;
+
+        public Item(String path, String type) {
+            this.path = path;
+            this.type = type;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        public String type() {
+            return type;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package server.util;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,18 +14,23 @@ import server.http.HttpResponse;
  * HTTP 쿠키 처리 유틸리티
  */
 public final class CookieUtil {
+    private static final String COOKIES_ATTRIBUTE = "cookies";
 
     private CookieUtil() {}
 
     /**
      * 요청에서 쿠키 파싱
+     * Cookie 헤더는 요청당 처음 한 번만 파싱하고 결과를 요청 속성에 보관한다.
      */
     public static Map<String, String> parseCookies(HttpRequest request) {
+        return request.computeAttributeIfAbsent(COOKIES_ATTRIBUTE, name -> parseCookieHeader(request.header("cookie")));
+    }
+
+    private static Map<String, String> parseCookieHeader(String cookieHeader) {
         Map<String, String> cookies = new HashMap<>();
-        String cookieHeader = request.header("cookie");
-        
+
         if (cookieHeader == null || cookieHeader.trim().isEmpty()) {
-            return cookies;
+            return Collections.emptyMap();
         }
 
         String[] pairs = cookieHeader.split(";");
@@ -32,16 +38,24 @@ public final class CookieUtil {
             String[] keyValue = pair.trim().split("=", 2);
             if (keyValue.length == 2) {
                 try {
-                    String name = URLDecoder.decode(keyValue[0].trim(), StandardCharsets.UTF_8);
-                    String value = URLDecoder.decode(keyValue[1].trim(), StandardCharsets.UTF_8);
-                    cookies.put(name, value);
+                    cookies.put(decode(keyValue[0].trim()), decode(keyValue[1].trim()));
                 } catch (Exception e) {
                     // 디코딩 실패 시 무시
                 }
             }
         }
-        
-        return cookies;
+
+        return Collections.unmodifiableMap(cookies);
+    }
+
+    /**
+     * 인코딩된 문자가 없으면 디코딩을 건너뛴다(세션 ID 같은 일반 값은 대부분 그대로다).
+     */
+    private static String decode(String s) {
+        if (s.indexOf('%') < 0 && s.indexOf('+') < 0) {
+            return s;
+        }
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
     }
 
     /**
@@ -95,6 +95,19 @@ public final class JsonUtil {
     }
 
     public static String createListResponse(boolean success, String message, java.util.List<String> items) {
+        return createListResponse(success, message, items, null, false);
+    }
+
+    /**
+     * 페이지 단위 목록 응답 JSON 생성. nextCursor 가 null 이면 "nextCursor":null (마지막 페이지)
+     */
+    public static String createPageResponse(boolean success, String message, java.util.List<String> items,
+                                            String nextCursor) {
+        return createListResponse(success, message, items, nextCursor, true);
+    }
+
+    private static String createListResponse(boolean success, String message, java.util.List<String> items,
+                                             String nextCursor, boolean paged) {
         StringBuilder json = new StringBuilder();
         json.append("{");
         json.append("\"success\":\"").append(success).append("\",");
@@ -108,7 +121,16 @@ public final class JsonUtil {
                 json.append("\"").append(escapeJson(items.get(i))).append("\"");
             }
         }
-        json.append("]}");
+        json.append("]");
+        if (paged) {
+            json.append(",\"nextCursor\":");
+            if (nextCursor == null) {
+                json.append("null");
+            } else {
+                json.append("\"").append(escapeJson(nextCursor)).append("\"");
+            }
+        }
+        json.append("}");
         return json.toString();
     }
 
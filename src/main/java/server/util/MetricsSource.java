@@ -0,0 +1,11 @@
+package server.util;
+
+import java.util.Map;
+
+/**
+ * 운영 지표를 내보내는 구성 요소. collect 는 "이름 → 값" 형태로 현재 값을 채운다.
+ * 이름은 "bulkhead.static.active" 처럼 점으로 구분한 소문자 키를 사용한다.
+ */
+public interface MetricsSource {
+    void collect(Map<String, String> out);
+}
@@ -4,6 +4,7 @@ import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * 파일 확장자를 간단한 MIME 타입 문자열로 매핑해 주는 유틸리티.
@@ -22,8 +23,16 @@ public final class MimeTypes {
         TYPES.put("jpeg", "image/jpeg");
         TYPES.put("gif", "image/gif");
         TYPES.put("txt", "text/plain; charset=UTF-8");
+        TYPES.put("md", "text/markdown; charset=UTF-8");
+        TYPES.put("svg", "image/svg+xml");
     }
 
+    /** 이미 압축된 포맷이라 다시 압축해도 이득이 없는 타입 */
+    private static final Set<String> PRECOMPRESSED = Set.of(
+            "image/png", "image/jpeg", "image/gif",
+            "application/gzip", "application/zip", "application/octet-stream"
+    );
+
     private MimeTypes() {}
 
     public static String probe(Path path) {
@@ -38,4 +47,27 @@ public final class MimeTypes {
         }
         return "application/octet-stream";
     }
+
+    /**
+     * Content-Type 값이 압축할 가치가 있는 타입인지 판단한다. 파라미터(; charset=...)는 무시한다.
+     */
+    public static boolean isCompressible(String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int semi = type.indexOf(';');
+        if (semi >= 0) {
+            type = type.substring(0, semi).trim();
+        }
+        if (PRECOMPRESSED.contains(type)) {
+            return false;
+        }
+        return type.startsWith("text/")
+                || type.equals("application/json")
+                || type.equals("application/javascript")
+                || type.equals("image/svg+xml")
+                || type.endsWith("+xml")
+                || type.endsWith("/xml");
+    }
 }
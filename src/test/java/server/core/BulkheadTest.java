@@ -0,0 +1,114 @@
+package server.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import server.http.HttpResponse;
+import server.route.Router;
+
+/**
+ * bulkhead 의 용량이 핸들러 실행에만 쓰이는지 확인한다.
+ * 응답을 읽지 않는 클라이언트가 있어도 bulkhead 스레드는 핸들러가 끝나는 대로 풀려나야 한다.
+ */
+class BulkheadTest {
+    private static final long WAIT_MILLIS = 5_000;
+
+    private ServerSocket server;
+    private ExecutorService connections;
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new ServerSocket(0);
+        connections = Executors.newCachedThreadPool();
+        bulkhead = new Bulkhead("test", 1, 1, Thread.NORM_PRIORITY);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.close();
+        connections.shutdownNow();
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void unreadResponseDoesNotOccupyBulkheadThread() throws Exception {
+        Router router = Router.builder()
+                .get("/large", bulkhead.wrap(request -> ConnectionWorkerTest.largeResponse()))
+                .get("/small", bulkhead.wrap(request -> HttpResponse.builder(200, "OK")
+                        .header("Content-Type", "text/plain")
+                        .body("ok".getBytes(StandardCharsets.UTF_8))
+                        .build()))
+                .build();
+
+        try (Socket slow = connect(router, "/large")) {
+            await(() -> "1".equals(metrics().get("bulkhead.test.completed")));
+            assertEquals("0", metrics().get("bulkhead.test.active"));
+
+            // 스레드 하나, 대기열 하나짜리 bulkhead 지만 느린 클라이언트와 상관없이 다른 요청을 처리한다.
+            for (int i = 0; i < 3; i++) {
+                try (Socket fast = connect(router, "/small")) {
+                    String status = readStatusLine(fast.getInputStream());
+                    assertEquals("HTTP/1.1 200 OK", status);
+                }
+            }
+            assertEquals("0", metrics().get("bulkhead.test.rejected"));
+            await(() -> "0".equals(metrics().get("bulkhead.test.active")));
+        }
+    }
+
+    private Socket connect(Router router, String path) throws IOException {
+        Socket client = new Socket();
+        client.setReceiveBufferSize(4096);
+        client.connect(server.getLocalSocketAddress());
+        Socket accepted = server.accept();
+        accepted.setSendBufferSize(4096);
+        connections.execute(new ConnectionWorker(accepted, router, connections));
+        OutputStream out = client.getOutputStream();
+        out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return client;
+    }
+
+    private Map<String, String> metrics() {
+        Map<String, String> out = new HashMap<>();
+        bulkhead.collect(out);
+        return out;
+    }
+
+    private static String readStatusLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long until = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < until, "조건이 시간 안에 성립하지 않았다");
+            Thread.sleep(20);
+        }
+    }
+}
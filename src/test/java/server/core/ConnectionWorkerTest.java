@@ -0,0 +1,97 @@
+package server.core;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.Handler;
+import server.route.Router;
+
+/**
+ * 비동기 응답의 소켓 기록이 stage 를 완료한 스레드가 아니라 연결 executor 에서 일어나는지 확인한다.
+ * 클라이언트가 응답을 읽지 않으면 소켓 쓰기가 막히므로, 완료한 스레드가 곧바로 풀려나는지로 판단한다.
+ */
+class ConnectionWorkerTest {
+    /** 소켓 버퍼를 훨씬 넘는 본문 */
+    static final int LARGE_BODY = 32 * 1024 * 1024;
+
+    private ServerSocket server;
+    private ExecutorService connections;
+    private ExecutorService completer;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new ServerSocket(0);
+        connections = Executors.newCachedThreadPool();
+        completer = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        server.close();
+        connections.shutdownNow();
+        completer.shutdownNow();
+    }
+
+    @Test
+    void slowReaderDoesNotHoldTheCompletingThread() throws Exception {
+        Handler handler = new Handler() {
+            @Override
+            public HttpResponse handle(HttpRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<HttpResponse> handleAsync(HttpRequest request) {
+                return CompletableFuture.supplyAsync(() -> largeResponse(), completer);
+            }
+        };
+        Router router = Router.builder().get("/large", handler).build();
+
+        try (Socket client = openUnreadClient(router, "/large")) {
+            // 응답을 만든 스레드가 소켓 쓰기에 붙잡혀 있지 않다면 다음 작업을 바로 실행한다.
+            CountDownLatch ran = new CountDownLatch(1);
+            Thread.sleep(200);
+            completer.execute(ran::countDown);
+            assertTrue(ran.await(2, TimeUnit.SECONDS), "응답을 완료한 스레드가 소켓 쓰기에 묶여 있다");
+        }
+    }
+
+    /**
+     * 요청을 보내고 응답은 읽지 않는 클라이언트를 연결한다. 서버 쪽은 연결 executor 에서 ConnectionWorker 가 처리한다.
+     */
+    Socket openUnreadClient(Router router, String path) throws IOException {
+        Socket client = new Socket();
+        client.setReceiveBufferSize(4096);
+        client.connect(server.getLocalSocketAddress());
+        Socket accepted = server.accept();
+        accepted.setSendBufferSize(4096);
+        connections.execute(new ConnectionWorker(accepted, router, connections));
+        OutputStream out = client.getOutputStream();
+        out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return client;
+    }
+
+    static HttpResponse largeResponse() {
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/octet-stream")
+                .body(new byte[LARGE_BODY])
+                .build();
+    }
+}
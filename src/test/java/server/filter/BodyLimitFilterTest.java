@@ -0,0 +1,49 @@
+package server.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.Handler;
+
+/**
+ * 본문 상한이 메서드와 관계없이 모든 라우트에 걸리는지 확인한다.
+ */
+class BodyLimitFilterTest {
+    private static final long LIMIT = 1024;
+
+    private final Handler ok = request -> HttpResponse.builder(200, "OK")
+            .header("Content-Type", "text/plain")
+            .body("ok".getBytes(StandardCharsets.UTF_8))
+            .build();
+
+    @Test
+    void oversizedBodyIsRejectedOnEveryMethod() throws Exception {
+        for (String method : new String[] {"GET", "DELETE", "POST", "PUT"}) {
+            HttpResponse res = call(method, Map.of("content-length", String.valueOf(LIMIT + 1)));
+            assertEquals(413, res.statusCode(), method);
+        }
+    }
+
+    @Test
+    void chunkedBodyIsRejectedOnGet() throws Exception {
+        assertEquals(400, call("GET", Map.of("transfer-encoding", "chunked")).statusCode());
+    }
+
+    @Test
+    void requestsWithinLimitPass() throws Exception {
+        assertEquals(200, call("GET", Map.of()).statusCode());
+        assertEquals(200, call("POST", Map.of("content-length", String.valueOf(LIMIT))).statusCode());
+    }
+
+    private HttpResponse call(String method, Map<String, String> headers) throws Exception {
+        FilterChain chain = FilterChain.compile(List.of(new BodyLimitFilter(LIMIT, "/")), method, "/posts", ok);
+        return chain.doFilter(new HttpRequest(method, "/posts", "HTTP/1.1", headers, null));
+    }
+}
@@ -0,0 +1,131 @@
+package server.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import server.core.Bulkhead;
+import server.http.Deadline;
+import server.http.DeadlineExceededException;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.Handler;
+
+/**
+ * 대기열에서 시한이 지난 요청(503)과 처리 중 시한이 지난 요청(504)을 구분하는지,
+ * 시한 초과 뒤 남은 작업이 협조적으로 멈추는지 확인한다.
+ */
+class DeadlineFilterTest {
+    private static final long BUDGET_MILLIS = 100;
+    private static final long WAIT_MILLIS = 5_000;
+
+    private Bulkhead bulkhead;
+    private DeadlineFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new Bulkhead("test", 1, 4, Thread.NORM_PRIORITY);
+        filter = new DeadlineFilter(BUDGET_MILLIS, Map.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void timeoutWhileQueuedAnswers503AndSkipsHandler() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // 필터를 거치지 않는 요청으로 유일한 bulkhead 스레드를 붙잡아 둔다.
+        bulkhead.wrap(request -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ok();
+        }).handleAsync(request("/busy"));
+
+        AtomicInteger handled = new AtomicInteger();
+        HttpResponse response = call(bulkhead.wrap(request -> {
+            handled.incrementAndGet();
+            return ok();
+        }), "/work");
+
+        assertEquals(503, response.statusCode());
+        assertEquals("1", metrics().get("deadline./work.exceeded_queued"));
+
+        // 대기열에서 꺼내진 작업은 시한이 지났음을 보고 핸들러를 부르지 않는다.
+        release.countDown();
+        bulkhead.wrap(request -> ok()).handleAsync(request("/after")).toCompletableFuture()
+                .get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        assertEquals(0, handled.get());
+    }
+
+    @Test
+    void timeoutWhileProcessingAnswers504AndCancelsHandler() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        HttpResponse response = call(bulkhead.wrap(request -> {
+            started.countDown();
+            try {
+                while (true) {
+                    Deadline.checkCurrent();
+                    Thread.onSpinWait();
+                }
+            } catch (DeadlineExceededException e) {
+                stopped.countDown();
+                throw e;
+            }
+        }), "/work");
+
+        assertTrue(started.await(0, TimeUnit.MILLISECONDS));
+        assertEquals(504, response.statusCode());
+        assertEquals("1", metrics().get("deadline./work.exceeded"));
+        assertTrue(stopped.await(WAIT_MILLIS, TimeUnit.MILLISECONDS), "handler kept running after 504");
+    }
+
+    @Test
+    void cancelledDeadlineIsObservedByRunningHandler() {
+        Deadline deadline = Deadline.after(60_000);
+        deadline.cancel();
+        assertThrows(DeadlineExceededException.class, () -> Deadline.runWith(deadline, () -> {
+            Deadline.checkCurrent();
+            return null;
+        }));
+    }
+
+    private HttpResponse call(Handler handler, String path) throws Exception {
+        FilterChain chain = FilterChain.compile(List.of(filter), "GET", path, handler);
+        return chain.doFilterAsync(request(path)).toCompletableFuture().get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private Map<String, String> metrics() {
+        Map<String, String> out = new HashMap<>();
+        filter.collect(out);
+        return out;
+    }
+
+    private static HttpRequest request(String path) {
+        return new HttpRequest("GET", path, "HTTP/1.1", Map.of(), null);
+    }
+
+    private static HttpResponse ok() {
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "text/plain")
+                .body("ok".getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
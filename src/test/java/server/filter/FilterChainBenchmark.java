@@ -0,0 +1,100 @@
+package server.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.Handler;
+import server.route.Router;
+import server.route.StaticRouteIndex;
+
+/**
+ * 라우트마다 시작 시 한 번 엮어 둔 필터 체인과, 요청마다 체인을 새로 엮던 이전 방식의 비용을 비교한다.
+ * 이전 FilterChain 은 요청마다 만들어져 모든 필터를 차례로 불렀고, 각 필터가 메서드/경로를 보고 스스로 건너뛰었다.
+ * 여기서는 요청마다 FilterChain.compile 을 부르는 것으로 그 비용(필터별 판단 + 체인 객체 생성)을 흉내 낸다.
+ * 요청 로그와 압축처럼 필터 자체 비용이 큰 것은 빼고, 검사만 하는 필터로 체인을 꾸민다.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=FilterChainBenchmark 로 실행한다.
+ * 요청 수는 -Dbenchmark.requests (기본 1,000,000) 로 바꾼다.
+ */
+@Tag("benchmark")
+class FilterChainBenchmark {
+    @TempDir
+    Path root;
+
+    @Test
+    void precompiledVersusPerRequest() throws IOException {
+        int requests = Integer.getInteger("benchmark.requests", 1_000_000);
+        Files.writeString(root.resolve("index.html"), "<html></html>");
+        try (StaticRouteIndex index = new StaticRouteIndex(root)) {
+            List<Filter> filters = List.of(
+                    new ExceptionMappingFilter("/"),
+                    new DeadlineFilter(60_000, Map.of()),
+                    new BodyLimitFilter(1 << 20, "/"),
+                    ContentTypeFilter.withDefaults("/"),
+                    new PathTraversalFilter(root, "/", index),
+                    new HeadFilter());
+            Handler ok = request -> HttpResponse.builder(200, "OK")
+                    .header("Content-Type", "text/plain")
+                    .body("ok".getBytes(StandardCharsets.UTF_8))
+                    .build();
+
+            HttpRequest get = new HttpRequest("GET", "/index.html", "HTTP/1.1", Map.of(), null)
+                    .withRoute(Router.FALLBACK, Map.of());
+            HttpRequest post = new HttpRequest("POST", "/posts/create", "HTTP/1.1",
+                    Map.of("content-type", "application/json", "content-length", "2"),
+                    "{}".getBytes(StandardCharsets.UTF_8))
+                    .withRoute("/posts/create", Map.of());
+
+            run("GET static", filters, "GET", Router.FALLBACK, ok, get, requests);
+            run("POST /posts/create", filters, "POST", "/posts/create", ok, post, requests);
+        }
+    }
+
+    private static void run(String label, List<Filter> filters, String method, String route, Handler handler,
+                            HttpRequest request, int requests) {
+        FilterChain compiled = FilterChain.compile(filters, method, route, handler);
+        System.out.printf("-- %s (%d of %d filters on the route)%n", label, compiled.length(), filters.size());
+        for (int round = 0; round < 2; round++) { // 첫 회는 예열
+            long started = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                assertEquals(200, call(FilterChain.compile(filters, method, route, handler), request));
+            }
+            long perRequest = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                assertEquals(200, call(compiled, request));
+            }
+            long precompiled = System.nanoTime() - started;
+
+            if (round == 1) {
+                report("chain built per request (previous)", requests, perRequest);
+                report("precompiled chain", requests, precompiled);
+            }
+        }
+    }
+
+    private static int call(FilterChain chain, HttpRequest request) {
+        try {
+            return chain.doFilter(request).statusCode();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+}
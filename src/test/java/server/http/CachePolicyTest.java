@@ -0,0 +1,49 @@
+package server.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import server.config.ServerConfig;
+
+class CachePolicyTest {
+
+    @Test
+    void sessionGatedResponsesAreNeverPublic() {
+        for (CachePolicy policy : new CachePolicy[] {CachePolicy.defaults(), CachePolicy.load(ServerConfig.CACHE_POLICY_PATH)}) {
+            assertEquals("no-store", policy.match("/server/metrics", "application/json").cacheControl());
+            assertEquals("public, no-cache", policy.match("/login.html", "text/html; charset=UTF-8").cacheControl());
+            assertEquals("public, no-cache", policy.match("/register.html", "text/html").cacheControl());
+
+            assertTrue(control(policy, "/index.html", "text/html").startsWith("private"));
+            assertTrue(control(policy, "/images/cat.png", "image/png").startsWith("private"));
+            assertTrue(control(policy, "/images/cat.0123456789.png", "image/png").startsWith("private"));
+            assertTrue(control(policy, "/posts/list", "application/json").startsWith("private"));
+            assertTrue(control(policy, "/style.css", "text/css").startsWith("private"));
+        }
+    }
+
+    @Test
+    void hashMatchesOnlyFingerprinterDigestLength() {
+        CachePolicy policy = CachePolicy.defaults();
+        String hash = "0123456789abcdef".substring(0, ServerConfig.ASSET_HASH_LENGTH);
+
+        assertEquals("private, max-age=31536000, immutable", control(policy, "/images/cat." + hash + ".png", "image/png"));
+        assertEquals("private, max-age=300", control(policy, "/report.20240101.css", "text/css"));
+        assertEquals("private, max-age=300", control(policy, "/app." + hash + "0.js", "text/javascript"));
+    }
+
+    @Test
+    void maxAgeIsIgnoredForUncacheableRules() {
+        CachePolicy policy = CachePolicy.builder().rule("/**", "*", "private, no-cache, max-age=60").build();
+        assertEquals(-1, policy.match("/a", "text/plain").maxAgeSeconds());
+        assertEquals(-1, CachePolicy.load(Path.of("missing.conf")).match("/server/metrics", "").maxAgeSeconds());
+    }
+
+    private static String control(CachePolicy policy, String path, String contentType) {
+        return policy.match(path, contentType).cacheControl();
+    }
+}
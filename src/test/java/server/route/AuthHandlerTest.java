@@ -0,0 +1,108 @@
+package server.route;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.http.HttpRequest;
+import server.model.Session;
+import server.service.AuthService;
+import server.service.SessionManager;
+import server.service.SessionStore;
+import server.service.SessionStoreUnavailableException;
+import server.service.UserRepository;
+
+/**
+ * 세션 저장소 장애가 500 으로 묻히지 않고 ExceptionMappingFilter 까지 올라가는지 확인한다.
+ */
+class AuthHandlerTest {
+    @TempDir
+    Path dir;
+
+    private UserRepository users;
+    private AuthHandler handler;
+
+    @BeforeEach
+    void start() {
+        users = new UserRepository(dir.resolve("users"));
+        AuthService authService = new AuthService(users, new SessionManager(new UnavailableStore()), null);
+        assertTrue(authService.register("alice", "secret123").isSuccess());
+        handler = new AuthHandler(authService);
+    }
+
+    @AfterEach
+    void stop() {
+        users.close();
+    }
+
+    @Test
+    void loginPropagatesSessionStoreFailure() {
+        HttpRequest request = post("/login", Map.of("content-type", "application/json"),
+                "{\"username\":\"alice\",\"password\":\"secret123\"}");
+        assertThrows(SessionStoreUnavailableException.class, () -> handler.handle(request));
+    }
+
+    @Test
+    void logoutPropagatesSessionStoreFailure() {
+        HttpRequest request = post("/logout", Map.of("cookie", "JSESSIONID=" + UUID.randomUUID()), "");
+        assertThrows(SessionStoreUnavailableException.class, () -> handler.handle(request));
+    }
+
+    @Test
+    void registerDoesNotTouchSessionStore() throws Exception {
+        HttpRequest request = post("/register", Map.of("content-type", "application/json"),
+                "{\"username\":\"bob\",\"password\":\"secret123\"}");
+        assertEquals(201, handler.handle(request).statusCode());
+    }
+
+    private static HttpRequest post(String path, Map<String, String> headers, String body) {
+        return new HttpRequest("POST", path, "HTTP/1.1", headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 모든 호출이 실패하는 원격 저장소 */
+    private static final class UnavailableStore implements SessionStore {
+        @Override
+        public void put(Session session) {
+            throw unavailable();
+        }
+
+        @Override
+        public Session get(String sessionId) {
+            throw unavailable();
+        }
+
+        @Override
+        public boolean extend(String sessionId, long newExpiresAt) {
+            throw unavailable();
+        }
+
+        @Override
+        public boolean remove(String sessionId) {
+            throw unavailable();
+        }
+
+        @Override
+        public void revoke(String tokenId, long expiresAt) {
+            throw unavailable();
+        }
+
+        @Override
+        public Map<String, Long> revocations() {
+            throw unavailable();
+        }
+
+        private static SessionStoreUnavailableException unavailable() {
+            return new SessionStoreUnavailableException("session store down", null);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package server.route;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 라우트 수에 따른 트라이 Router 의 조회 시간을 이전 방식과 비교한다.
+ * 이전 Router/RoutedPostHandler 는 메서드로 나눈 뒤 정확한 경로를 HashMap 에서 찾았으므로 {param} 라우트를 다룰 수 없었다.
+ * 그래서 같은 라우트 집합을 등록 순서대로 하나씩 맞춰 보는 단순 선형 분기도 함께 잰다.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=RouterBenchmark 로 실행한다.
+ * 조회 횟수는 -Dbenchmark.lookups (기본 1,000,000) 로 바꾼다.
+ */
+@Tag("benchmark")
+class RouterBenchmark {
+    private static final int[] ROUTE_COUNTS = {10, 100, 1_000};
+
+    @Test
+    void dispatch() {
+        int lookups = Integer.getInteger("benchmark.lookups", 1_000_000);
+        for (int routes : ROUTE_COUNTS) {
+            Handler handler = request -> null;
+            Router.Builder builder = Router.builder();
+            LinearRouter linear = new LinearRouter();
+            Map<String, Handler> getRoutes = new HashMap<>();
+            Map<String, Handler> postRoutes = new HashMap<>();
+            for (int i = 0; i < routes; i++) {
+                // 절반은 고정 경로, 절반은 경로 변수가 있는 경로
+                String pattern = i % 2 == 0 ? "/api/r" + i + "/list" : "/api/r" + i + "/items/{id}";
+                String method = i % 3 == 0 ? "POST" : "GET";
+                builder.route(method, pattern, handler);
+                linear.add(method, pattern);
+                if (i % 2 == 0) {
+                    ("POST".equals(method) ? postRoutes : getRoutes).put(pattern, handler);
+                }
+            }
+            Router router = builder.build();
+
+            Random random = new Random(routes);
+            String[] methods = new String[1024];
+            String[] paths = new String[1024];
+            for (int k = 0; k < paths.length; k++) {
+                int i = random.nextInt(routes);
+                methods[k] = i % 3 == 0 ? "POST" : "GET";
+                paths[k] = i % 2 == 0 ? "/api/r" + i + "/list" : "/api/r" + i + "/items/" + random.nextInt(1_000_000);
+            }
+            for (int k = 0; k < paths.length; k++) {
+                assertNotNull(router.match(methods[k], paths[k]).handler(), paths[k]);
+                assertNotNull(linear.match(methods[k], paths[k]), paths[k]);
+            }
+
+            System.out.printf("-- %,d routes%n", routes);
+            long sink = 0;
+            for (int round = 0; round < 2; round++) { // 첫 회는 예열
+                long started = System.nanoTime();
+                for (int n = 0; n < lookups; n++) {
+                    int k = n & (paths.length - 1);
+                    sink += router.match(methods[k], paths[k]).params().size();
+                }
+                long trie = System.nanoTime() - started;
+
+                started = System.nanoTime();
+                for (int n = 0; n < lookups; n++) {
+                    int k = n & (paths.length - 1);
+                    sink += linear.match(methods[k], paths[k]).size();
+                }
+                long scan = System.nanoTime() - started;
+
+                started = System.nanoTime();
+                for (int n = 0; n < lookups; n++) {
+                    int k = n & (paths.length - 1);
+                    Map<String, Handler> byPath = "POST".equals(methods[k]) ? postRoutes : getRoutes;
+                    sink += byPath.get(paths[k]) != null ? 1 : 0;
+                }
+                long map = System.nanoTime() - started;
+
+                if (round == 1) {
+                    report("trie Router.match", lookups, trie);
+                    report("linear pattern scan", lookups, scan);
+                    report("previous exact HashMap (static only)", lookups, map);
+                }
+            }
+            assertTrue(sink >= 0);
+        }
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+
+    /**
+     * 등록 순서대로 메서드와 경로 패턴을 세그먼트 단위로 맞춰 보는 단순 라우터.
+     */
+    private static final class LinearRouter {
+        private final List<String> methods = new ArrayList<>();
+        private final List<String[]> patterns = new ArrayList<>();
+
+        void add(String method, String pattern) {
+            methods.add(method);
+            patterns.add(pattern.substring(1).split("/"));
+        }
+
+        /** 일치하면 경로 변수, 없으면 null */
+        Map<String, String> match(String method, String path) {
+            String[] segments = path.substring(1).split("/");
+            for (int r = 0; r < patterns.size(); r++) {
+                String[] pattern = patterns.get(r);
+                if (!methods.get(r).equals(method) || pattern.length != segments.length) {
+                    continue;
+                }
+                Map<String, String> params = null;
+                boolean matched = true;
+                for (int s = 0; s < pattern.length && matched; s++) {
+                    String p = pattern[s];
+                    if (p.startsWith("{")) {
+                        if (params == null) {
+                            params = new HashMap<>(4);
+                        }
+                        params.put(p.substring(1, p.length() - 1), segments[s]);
+                    } else {
+                        matched = p.equals(segments[s]);
+                    }
+                }
+                if (matched) {
+                    return params != null ? params : Map.of();
+                }
+            }
+            return null;
+        }
+    }
+}
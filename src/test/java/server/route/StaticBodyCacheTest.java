@@ -0,0 +1,67 @@
+package server.route;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class StaticBodyCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedAndKeepsCaching() {
+        StaticBodyCache cache = new StaticBodyCache(100);
+        cache.put("identity:/a", body(40));
+        cache.put("identity:/b", body(40));
+        cache.get("identity:/a"); // b 가 가장 오래 안 쓴 항목이 된다
+        cache.put("identity:/c", body(40));
+
+        assertNull(cache.get("identity:/b"));
+        assertNotNull(cache.get("identity:/a"));
+        assertNotNull(cache.get("identity:/c"));
+        assertEquals(80, cache.bytes());
+        assertEquals(1, cache.evictions());
+
+        // 상한에 닿은 뒤에도 새 항목은 계속 들어간다.
+        cache.put("identity:/d", body(60));
+        assertNotNull(cache.get("identity:/d"));
+        assertEquals(100, cache.bytes());
+    }
+
+    @Test
+    void replacingAnEntryAdjustsBytes() {
+        StaticBodyCache cache = new StaticBodyCache(100);
+        cache.put("identity:/a", body(70));
+        cache.put("identity:/a", body(10));
+        assertEquals(10, cache.bytes());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void oversizedBodyIsNotCached() {
+        StaticBodyCache cache = new StaticBodyCache(100);
+        cache.put("identity:/a", body(50));
+        cache.put("identity:/big", body(101));
+        assertNull(cache.get("identity:/big"));
+        assertEquals(50, cache.bytes());
+    }
+
+    @Test
+    void invalidateDropsEveryEncodingOfAFile() {
+        StaticBodyCache cache = new StaticBodyCache(1000);
+        Path file = Path.of("/www/app.js");
+        cache.put("identity:" + file, body(30));
+        cache.put("gzip:" + file, body(10));
+        cache.put("identity:/www/other.js", body(5));
+        cache.invalidate(file);
+        assertNull(cache.get("identity:" + file));
+        assertNull(cache.get("gzip:" + file));
+        assertEquals(5, cache.bytes());
+    }
+
+    private static StaticBodyCache.Body body(int length) {
+        return new StaticBodyCache.Body(0, length, new byte[length]);
+    }
+}
@@ -0,0 +1,107 @@
+package server.route;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.config.ServerConfig;
+import server.filter.CompressionFilter;
+import server.filter.FilterChain;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.util.Compression;
+
+/**
+ * 정적 파일 응답이 CompressionFilter 를 거친 뒤의 모습. 감시 스레드는 켜지 않는다.
+ */
+class StaticFileHandlerTest {
+    @TempDir
+    Path root;
+
+    @BeforeEach
+    void files() throws IOException {
+        byte[] noise = new byte[ServerConfig.COMPRESSION_MIN_SIZE * 4];
+        new Random(1).nextBytes(noise);
+        Files.write(root.resolve("noise.txt"), noise);
+        Files.writeString(root.resolve("small.txt"), "a".repeat(ServerConfig.COMPRESSION_MIN_SIZE / 2));
+        Files.writeString(root.resolve("app.js"), "console.log('hello');\n".repeat(200));
+        Files.write(root.resolve("app.js.gz"), Compression.gzip(Files.readAllBytes(root.resolve("app.js"))));
+    }
+
+    /**
+     * 필터의 임계값을 1바이트로 낮춰, 핸들러가 표시하지 않았다면 필터가 압축했을 응답으로 확인한다.
+     */
+    @Test
+    void bodiesTheHandlerLeftUncompressedAreNotCompressedByFilter() throws Exception {
+        FilterChain chain = chain(new StaticFileHandler(new StaticRouteIndex(root)), 1);
+
+        for (String path : new String[] {"/noise.txt", "/small.txt"}) {
+            HttpResponse res = chain.doFilter(get(path));
+
+            assertEquals(200, res.statusCode());
+            assertNull(header(res, "Content-Encoding"), path);
+            assertEquals("Accept-Encoding", header(res, "Vary"));
+            assertArrayEquals(Files.readAllBytes(root.resolve(path.substring(1))), res.body());
+        }
+    }
+
+    /**
+     * 압축하지 않기로 한 표시는 응답 헤더가 아니므로 CompressionFilter 가 없는 체인에서도 새지 않는다.
+     */
+    @Test
+    void uncompressedBodiesCarryNoContentEncodingWithoutFilter() throws Exception {
+        FilterChain chain = FilterChain.compile(List.of(), "GET", "/", new StaticFileHandler(new StaticRouteIndex(root)));
+
+        for (String path : new String[] {"/noise.txt", "/small.txt"}) {
+            HttpResponse res = chain.doFilter(get(path));
+
+            assertEquals(200, res.statusCode());
+            assertNull(header(res, "Content-Encoding"), path);
+            assertArrayEquals(Files.readAllBytes(root.resolve(path.substring(1))), res.body());
+        }
+    }
+
+    @Test
+    void precompressedSiblingIsServedFromCache() throws Exception {
+        byte[] expected = Files.readAllBytes(root.resolve("app.js.gz"));
+        FilterChain chain = chain(new StaticFileHandler(new StaticRouteIndex(root)), ServerConfig.COMPRESSION_MIN_SIZE);
+
+        HttpResponse first = chain.doFilter(get("/app.js"));
+        assertEquals(Compression.GZIP, header(first, "Content-Encoding"));
+        assertArrayEquals(expected, first.body());
+
+        // 색인이 모르는 사이 디스크의 .gz 를 지워도 두 번째 요청은 캐시에서 나간다.
+        Files.delete(root.resolve("app.js.gz"));
+        HttpResponse second = chain.doFilter(get("/app.js"));
+        assertEquals(Compression.GZIP, header(second, "Content-Encoding"));
+        assertArrayEquals(expected, second.body());
+    }
+
+    private static FilterChain chain(Handler handler, int filterMinSize) {
+        return FilterChain.compile(List.of(new CompressionFilter(filterMinSize)), "GET", "/", handler);
+    }
+
+    private static HttpRequest get(String path) {
+        return new HttpRequest("GET", path, "HTTP/1.1", Map.of("accept-encoding", "gzip"), null);
+    }
+
+    private static String header(HttpResponse res, String name) {
+        for (Map.Entry<String, String> e : res.headers().entrySet()) {
+            if (e.getKey().equalsIgnoreCase(name)) {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+}
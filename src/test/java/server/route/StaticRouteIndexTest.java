@@ -0,0 +1,218 @@
+package server.route;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 감시 이벤트가 색인에 파일 단위로 반영되는지 확인한다. 이벤트는 비동기로 오므로 잠시 기다린다.
+ */
+class StaticRouteIndexTest {
+    private static final long WAIT_MILLIS = 5_000;
+
+    @TempDir
+    Path root;
+
+    private StaticRouteIndex index;
+    private final Set<Path> changed = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void start() throws IOException {
+        Files.writeString(root.resolve("index.html"), "<html></html>");
+        Files.createDirectories(root.resolve("posts"));
+        index = new StaticRouteIndex(root);
+        index.onChange(changed::add);
+        index.startWatching();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void createdFileIsIndexedWithoutRescan() throws Exception {
+        assertNotNull(index.lookup("/"));
+        Files.writeString(root.resolve("posts/hello.txt"), "hi");
+        // 생성 이벤트는 내용을 쓰기 전에 올 수 있고, 이어지는 수정 이벤트가 크기를 맞춘다.
+        await(() -> index.lookup("/posts/hello.txt") != null && index.lookup("/posts/hello.txt").length() == 2);
+    }
+
+    @Test
+    void modifiedFileUpdatesEntryAndNotifies() throws Exception {
+        Path file = root.resolve("posts/a.txt");
+        Files.writeString(file, "one");
+        await(() -> index.lookup("/posts/a.txt") != null);
+        Files.writeString(file, "three");
+        await(() -> index.lookup("/posts/a.txt").length() == 5);
+        assertTrue(changed.contains(index.lookup("/posts/a.txt").file()));
+    }
+
+    @Test
+    void deletedFileIsRemoved() throws Exception {
+        Path file = root.resolve("posts/gone.txt");
+        Files.writeString(file, "x");
+        await(() -> index.lookup("/posts/gone.txt") != null);
+        Path indexed = index.lookup("/posts/gone.txt").file();
+        Files.delete(file);
+        await(() -> index.lookup("/posts/gone.txt") == null);
+        assertTrue(changed.contains(indexed));
+    }
+
+    @Test
+    void newDirectoryIsIndexedAndWatched() throws Exception {
+        Path dir = Files.createDirectories(root.resolve("docs"));
+        Files.writeString(dir.resolve("index.html"), "<p>docs</p>");
+        await(() -> index.lookup("/docs/") != null);
+        assertNotNull(index.lookup("/docs"));
+        Files.writeString(dir.resolve("more.html"), "<p>more</p>");
+        await(() -> index.lookup("/docs/more.html") != null);
+
+        Files.delete(dir.resolve("more.html"));
+        Files.delete(dir.resolve("index.html"));
+        Files.delete(dir);
+        await(() -> index.lookup("/docs/") == null && index.lookup("/docs") == null);
+    }
+
+    @Test
+    void gzipSiblingIsAttachedToOriginal() throws Exception {
+        Path css = root.resolve("app.css");
+        Files.writeString(css, "body{}");
+        await(() -> index.lookup("/app.css") != null);
+        assertNull(index.lookup("/app.css").gzipSibling());
+        Path gz = root.resolve("app.css.gz");
+        Files.write(gz, new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(gz, Files.getLastModifiedTime(css));
+        await(() -> index.lookup("/app.css").gzipSibling() != null);
+        Files.delete(gz);
+        await(() -> index.lookup("/app.css").gzipSibling() == null);
+    }
+
+    /**
+     * 감시 스레드 없이 이벤트 묶음을 직접 넣어, 바뀐 파일만 반영되고 listener 는 교체 후에 불리는지 확인한다.
+     */
+    @Test
+    void eventBatchUpdatesOnlyTouchedEntries() throws Exception {
+        Files.writeString(root.resolve("posts/keep.txt"), "keep");
+        Files.writeString(root.resolve("posts/edit.txt"), "one");
+        Files.writeString(root.resolve("posts/drop.txt"), "drop");
+        try (StaticRouteIndex unwatched = new StaticRouteIndex(root)) {
+            StaticRouteIndex.Entry keep = unwatched.lookup("/posts/keep.txt");
+            Path dropped = unwatched.lookup("/posts/drop.txt").file();
+            Set<Path> notified = ConcurrentHashMap.newKeySet();
+            List<Boolean> swappedFirst = new CopyOnWriteArrayList<>();
+            unwatched.onChange(file -> {
+                swappedFirst.add(unwatched.lookup("/posts/new.txt") != null); // 새 색인으로 바뀐 뒤에 불린다.
+                notified.add(file);
+            });
+
+            Files.writeString(root.resolve("posts/new.txt"), "new");
+            Files.writeString(root.resolve("posts/edit.txt"), "three");
+            Files.delete(root.resolve("posts/drop.txt"));
+            unwatched.apply(root.resolve("posts"), List.of(
+                    event(StandardWatchEventKinds.ENTRY_CREATE, "new.txt"),
+                    event(StandardWatchEventKinds.ENTRY_MODIFY, "edit.txt"),
+                    event(StandardWatchEventKinds.ENTRY_DELETE, "drop.txt")));
+
+            assertEquals(3, unwatched.lookup("/posts/new.txt").length());
+            assertEquals(5, unwatched.lookup("/posts/edit.txt").length());
+            assertNull(unwatched.lookup("/posts/drop.txt"));
+            assertSame(keep, unwatched.lookup("/posts/keep.txt"));
+            assertEquals(Set.of(unwatched.lookup("/posts/edit.txt").file(), dropped), notified);
+            assertFalse(swappedFirst.contains(false));
+        }
+    }
+
+    /**
+     * 디렉터리 삭제 이벤트가 그 안의 파일 삭제 이벤트보다 먼저 와도, "/dir" 별칭에 속지 않고 아래 항목을 모두 뺀다.
+     */
+    @Test
+    void deletedDirectoryRemovesIndexAndAliases() throws Exception {
+        Path docs = Files.createDirectories(root.resolve("docs"));
+        Files.writeString(docs.resolve("index.html"), "<p>docs</p>");
+        try (StaticRouteIndex unwatched = new StaticRouteIndex(root)) {
+            assertNotNull(unwatched.lookup("/docs"));
+            Files.delete(docs.resolve("index.html"));
+            Files.delete(docs);
+
+            unwatched.apply(root, List.of(event(StandardWatchEventKinds.ENTRY_DELETE, "docs")));
+
+            assertNull(unwatched.lookup("/docs"));
+            assertNull(unwatched.lookup("/docs/"));
+            assertNull(unwatched.lookup("/docs/index.html"));
+        }
+    }
+
+    /**
+     * OVERFLOW 는 놓친 변경이 있다는 뜻이므로 웹 루트 전체를 다시 훑어 색인을 교체한다.
+     */
+    @Test
+    void overflowRescansWholeRoot() throws Exception {
+        try (StaticRouteIndex unwatched = new StaticRouteIndex(root)) {
+            Path home = unwatched.lookup("/").file();
+            Set<Path> notified = ConcurrentHashMap.newKeySet();
+            unwatched.onChange(notified::add);
+
+            Files.writeString(root.resolve("posts/missed.txt"), "x");
+            Files.delete(root.resolve("index.html"));
+            assertNull(unwatched.lookup("/posts/missed.txt"));
+
+            unwatched.apply(root, List.of(event(StandardWatchEventKinds.OVERFLOW, null)));
+
+            assertNotNull(unwatched.lookup("/posts/missed.txt"));
+            assertNull(unwatched.lookup("/"));
+            assertNull(unwatched.lookup("/index.html"));
+            assertTrue(notified.contains(home));
+        }
+    }
+
+    private static <T> WatchEvent<?> event(WatchEvent.Kind<T> kind, String name) {
+        Object context = name != null ? Path.of(name) : null;
+        return new WatchEvent<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Kind<Object> kind() {
+                return (Kind<Object>) kind;
+            }
+
+            @Override
+            public int count() {
+                return 1;
+            }
+
+            @Override
+            public Object context() {
+                return context;
+            }
+        };
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition not met within " + WAIT_MILLIS + "ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import server.http.Deadline;
+
+class PasswordHasherTest {
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void hashesVerifyAndUpgrade() {
+        try (PasswordHasher hasher = new PasswordHasher(ITERATIONS, 1, 4)) {
+            String stored = hasher.hash("secret123");
+            assertTrue(hasher.verify("secret123", stored));
+            assertFalse(hasher.verify("wrong", stored));
+            assertFalse(hasher.needsUpgrade(stored));
+            try (PasswordHasher stronger = new PasswordHasher(ITERATIONS * 2, 1, 4)) {
+                assertTrue(stronger.verify("secret123", stored));
+                assertTrue(stronger.needsUpgrade(stored));
+            }
+        }
+    }
+
+    /**
+     * 앞선 작업 때문에 시한 안에 끝나지 못할 해시는 대기열에 자리가 있어도 시한을 기다리지 않고 바로 거절된다.
+     */
+    @Test
+    void rejectsUpFrontWhenQueueCannotFinishBeforeDeadline() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try (PasswordHasher hasher = new PasswordHasher(ITERATIONS, 1, 32)) {
+            hasher.hash("warm-up"); // 해시 시간 어림값을 채운다.
+            long perHashMillis = Math.max(1, (long) Double.parseDouble(metrics(hasher).get("password_hash.recent_ms")));
+
+            List<Future<String>> backlog = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                backlog.add(clients.submit(() -> hasher.hash("queued")));
+            }
+            while (Integer.parseInt(metrics(hasher).get("password_hash.queued")) < 4) {
+                Thread.onSpinWait();
+            }
+
+            long budget = perHashMillis * 2;
+            long started = System.nanoTime();
+            assertThrows(PasswordHasherBusyException.class,
+                    () -> Deadline.runWith(Deadline.after(budget), () -> hasher.hash("late")));
+            assertTrue((System.nanoTime() - started) / 1_000_000 < budget, "시한을 기다리지 않아야 한다");
+            assertEquals("1", metrics(hasher).get("password_hash.rejected_late"));
+
+            for (Future<String> f : backlog) {
+                assertTrue(hasher.verify("queued", f.get()));
+            }
+            // 밀린 작업이 끝나면 같은 시한으로도 다시 받아 준다.
+            Deadline.runWith(Deadline.after(budget * 10), () -> hasher.hash("on-time"));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> metrics(PasswordHasher hasher) {
+        Map<String, String> out = new HashMap<>();
+        hasher.collect(out);
+        return out;
+    }
+}
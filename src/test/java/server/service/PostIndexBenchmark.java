@@ -0,0 +1,82 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 게시글 색인의 페이지 조회 시간. 파일을 만들지 않고 이름만 색인에 넣는다.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=PostIndexBenchmark 로 실행한다.
+ * 글 수는 -Dbenchmark.posts (기본 1,000,000), 페이지 크기는 -Dbenchmark.pageSize (기본 50) 로 바꾼다.
+ */
+@Tag("benchmark")
+class PostIndexBenchmark {
+    private static final int PAGE_LOOKUPS = 100_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void pageLookups() throws IOException {
+        int posts = Integer.getInteger("benchmark.posts", 1_000_000);
+        int pageSize = Integer.getInteger("benchmark.pageSize", 50);
+
+        try (PostIndex index = new PostIndex(dir)) {
+            long started = System.nanoTime();
+            for (int i = 0; i < posts; i++) {
+                index.add("post" + i + "_" + (1_700_000_000_000L + i) + ".txt");
+            }
+            report("add", posts, System.nanoTime() - started);
+            assertEquals(posts, index.size());
+
+            for (int i = 0; i < PAGE_LOOKUPS; i++) { // 예열
+                index.page(null, true, pageSize);
+            }
+            started = System.nanoTime();
+            for (int i = 0; i < PAGE_LOOKUPS; i++) {
+                index.page(null, true, pageSize);
+            }
+            report("first page (newest)", PAGE_LOOKUPS, System.nanoTime() - started);
+
+            String middle = "post" + posts / 2 + "_" + (1_700_000_000_000L + posts / 2) + ".txt";
+            started = System.nanoTime();
+            for (int i = 0; i < PAGE_LOOKUPS; i++) {
+                index.page(middle, true, pageSize);
+            }
+            report("page after middle cursor", PAGE_LOOKUPS, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            int pages = 0;
+            int seen = 0;
+            String after = null;
+            while (true) {
+                List<String> page = index.page(after, true, pageSize);
+                pages++;
+                if (page.size() <= pageSize) {
+                    seen += page.size();
+                    break;
+                }
+                seen += pageSize;
+                after = page.get(pageSize - 1);
+            }
+            assertEquals(posts, seen);
+            report("walk every page", pages, System.nanoTime() - started);
+
+            started = System.nanoTime();
+            List<String> all = index.snapshot();
+            report("full snapshot (previous /posts/list)", 1, System.nanoTime() - started);
+            assertEquals(posts, all.size());
+        }
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+}
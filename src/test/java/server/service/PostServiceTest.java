@@ -0,0 +1,88 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PostServiceTest {
+    private static final int POSTS = 10;
+
+    @TempDir
+    Path dir;
+
+    private PostService service;
+
+    @BeforeEach
+    void start() throws IOException {
+        for (int i = 0; i < POSTS; i++) {
+            Files.writeString(dir.resolve(name(i)), "post " + i);
+        }
+        service = new PostService(dir);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        service.close();
+    }
+
+    @Test
+    void pagesWalkEveryPostOnceInOrder() {
+        assertEquals(expected(true), walk(true, 3));
+        assertEquals(expected(false), walk(false, 4));
+        assertEquals(expected(true), walk(true, POSTS));
+        assertNull(service.listPosts(null, true, POSTS).getNextCursor());
+    }
+
+    @Test
+    void cursorSurvivesDeletionOfItsLastPost() throws IOException {
+        PostService.PostPage first = service.listPosts(null, true, 3);
+        assertEquals(List.of(name(9), name(8), name(7)), first.getPosts());
+
+        assertTrue(service.deletePost(name(7)));
+        PostService.PostPage second = service.listPosts(first.getNextCursor(), true, 3);
+        assertEquals(List.of(name(6), name(5), name(4)), second.getPosts());
+    }
+
+    @Test
+    void rejectsMalformedOrMismatchedCursor() {
+        String newestCursor = service.listPosts(null, true, 3).getNextCursor();
+        assertThrows(IllegalArgumentException.class, () -> service.listPosts(newestCursor, false, 3));
+        assertThrows(IllegalArgumentException.class, () -> service.listPosts("%%%", true, 3));
+    }
+
+    private List<String> walk(boolean newestFirst, int limit) {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            PostService.PostPage page = service.listPosts(cursor, newestFirst, limit);
+            seen.addAll(page.getPosts());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    private static List<String> expected(boolean newestFirst) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < POSTS; i++) {
+            names.add(name(newestFirst ? POSTS - 1 - i : i));
+        }
+        return names;
+    }
+
+    /** 작성 시각 순서와 이름 순서가 다르도록 제목을 거꾸로 붙인다. */
+    private static String name(int i) {
+        return "title" + (POSTS - i) + "_" + (1_700_000_000_000L + i * 1000L) + ".txt";
+    }
+}
@@ -0,0 +1,212 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.filter.ExceptionMappingFilter;
+import server.filter.FilterChain;
+import server.http.HttpRequest;
+import server.model.Session;
+import server.route.AuthHandler;
+
+/**
+ * 같은 프로세스에 띄운 SessionStoreServer 두 대를 상대로 RemoteSessionStore 를 확인한다.
+ */
+class RemoteSessionStoreTest {
+    private static final int TIMEOUT_MILLIS = 1_000;
+
+    @TempDir
+    Path dir;
+
+    private LocalSessionStore backingA;
+    private LocalSessionStore backingB;
+    private SessionStoreServer nodeA;
+    private SessionStoreServer nodeB;
+    private final List<RemoteSessionStore> clients = new ArrayList<>();
+
+    @BeforeEach
+    void start() throws IOException {
+        backingA = new LocalSessionStore(dir.resolve("a"));
+        backingB = new LocalSessionStore(dir.resolve("b"));
+        nodeA = new SessionStoreServer(0, backingA).start();
+        nodeB = new SessionStoreServer(0, backingB).start();
+    }
+
+    @AfterEach
+    void stop() {
+        clients.forEach(RemoteSessionStore::close);
+        nodeA.close();
+        nodeB.close();
+    }
+
+    /**
+     * 각 세션은 링이 고른 노드 한 곳에만 있고, 같은 노드 목록을 쓰는 다른 인스턴스도 같은 노드를 고른다.
+     */
+    @Test
+    void eachSessionLivesOnOneNodeChosenByTheRing() {
+        RemoteSessionStore writer = client(List.of(nodeA.address(), nodeB.address()), 0);
+        RemoteSessionStore reader = client(List.of(nodeA.address(), nodeB.address()), 0);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Session session = session("user" + i);
+            writer.put(session);
+            ids.add(session.getSessionId());
+        }
+
+        int onA = 0;
+        for (String id : ids) {
+            boolean a = backingA.get(id) != null;
+            boolean b = backingB.get(id) != null;
+            assertTrue(a ^ b, id);
+            onA += a ? 1 : 0;
+            assertNotNull(reader.get(id), id);
+        }
+        assertTrue(onA > 100 && onA < 300, "unbalanced ring: " + onA + "/400 on node A");
+    }
+
+    /**
+     * 노드를 하나 더하면 새 노드로 옮겨 가는 일부 세션만 보이지 않고, 나머지는 원래 노드에서 그대로 찾는다.
+     */
+    @Test
+    void addingANodeMovesOnlyPartOfTheSessions() throws IOException {
+        RemoteSessionStore twoNodes = client(List.of(nodeA.address(), nodeB.address()), 0);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Session session = session("user" + i);
+            twoNodes.put(session);
+            ids.add(session.getSessionId());
+        }
+
+        try (SessionStoreServer nodeC = new SessionStoreServer(0, new LocalSessionStore(dir.resolve("c"))).start()) {
+            RemoteSessionStore threeNodes = client(List.of(nodeA.address(), nodeB.address(), nodeC.address()), 0);
+            int moved = 0;
+            for (String id : ids) {
+                if (threeNodes.get(id) == null) {
+                    moved++;
+                }
+            }
+            assertTrue(moved > 40 && moved < 240, "moved " + moved + "/400 sessions");
+        }
+    }
+
+    @Test
+    void nearCacheServesRepeatsAndDropsLocalChanges() {
+        RemoteSessionStore store = client(List.of(nodeA.address(), nodeB.address()), 60_000);
+        Session session = session("alice");
+        store.put(session);
+        String id = session.getSessionId();
+
+        assertNotNull(store.get(id));
+        assertNotNull(store.get(id));
+        assertEquals("2", metrics(store).get("session_store.near_cache.hits"));
+
+        long later = SessionTable.toEpochSecond(session.getExpiresAt()) + 600;
+        assertTrue(store.extend(id, later));
+        assertEquals(later, SessionTable.toEpochSecond(store.get(id).getExpiresAt()));
+
+        assertTrue(store.remove(id));
+        assertNull(store.get(id));
+    }
+
+    /**
+     * 다른 인스턴스의 로그아웃은 near-cache 기간이 지나야 보인다.
+     */
+    @Test
+    void removalOnAnotherInstanceShowsAfterNearCacheTtl() throws InterruptedException {
+        RemoteSessionStore here = client(List.of(nodeA.address(), nodeB.address()), 200);
+        RemoteSessionStore there = client(List.of(nodeA.address(), nodeB.address()), 200);
+        Session session = session("alice");
+        here.put(session);
+        String id = session.getSessionId();
+        assertNotNull(there.get(id));
+
+        assertTrue(here.remove(id));
+        assertNotNull(there.get(id), "cached copy is still served within the TTL");
+        Thread.sleep(300);
+        assertNull(there.get(id));
+    }
+
+    @Test
+    void revocationsAreSharedAcrossInstances() {
+        RemoteSessionStore here = client(List.of(nodeA.address(), nodeB.address()), 0);
+        RemoteSessionStore there = client(List.of(nodeA.address(), nodeB.address()), 0);
+        long expiresAt = System.currentTimeMillis() / 1000 + 600;
+        here.revoke("token-1", expiresAt);
+        here.revoke("token-2", expiresAt);
+
+        assertEquals(Map.of("token-1", expiresAt, "token-2", expiresAt), there.revocations());
+        assertEquals(0, backingA.size() + backingB.size());
+    }
+
+    @Test
+    void downNodeSurfacesAsUnavailable() {
+        RemoteSessionStore store = client(List.of(nodeA.address()), 0);
+        nodeA.close();
+
+        assertThrows(SessionStoreUnavailableException.class, () -> store.get(UUID.randomUUID().toString()));
+        assertThrows(SessionStoreUnavailableException.class, () -> store.put(session("alice")));
+    }
+
+    /**
+     * 노드가 내려가면 로그인/로그아웃은 ExceptionMappingFilter 에서 503 이 된다(로그인 실패나 500 이 아님).
+     */
+    @Test
+    void loginAndLogoutAnswer503WhenNodeIsDown() throws Exception {
+        UserRepository users = new UserRepository(dir.resolve("users"));
+        try {
+            SessionManager sessions = new SessionManager(client(List.of(nodeA.address()), 0));
+            AuthService auth = new AuthService(users, sessions, null);
+            assertTrue(auth.register("alice", "secret123").isSuccess());
+            FilterChain chain = FilterChain.compile(List.of(new ExceptionMappingFilter("/")), "POST", "/login",
+                    new AuthHandler(auth));
+            nodeA.close();
+
+            HttpRequest login = post("/login", Map.of("content-type", "application/json"),
+                    "{\"username\":\"alice\",\"password\":\"secret123\"}");
+            assertEquals(503, chain.doFilter(login).statusCode());
+            HttpRequest logout = post("/logout", Map.of("cookie", "JSESSIONID=" + UUID.randomUUID()), "");
+            assertEquals(503, chain.doFilter(logout).statusCode());
+        } finally {
+            users.close();
+        }
+    }
+
+    private RemoteSessionStore client(List<String> addresses, long nearCacheTtlMillis) {
+        RemoteSessionStore store = new RemoteSessionStore(addresses, 128, TIMEOUT_MILLIS, 2, 1_000, nearCacheTtlMillis);
+        clients.add(store);
+        return store;
+    }
+
+    private static Session session(String username) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        return new Session(UUID.randomUUID().toString(), username, now, now.plusMinutes(30));
+    }
+
+    private static Map<String, String> metrics(RemoteSessionStore store) {
+        Map<String, String> out = new HashMap<>();
+        store.collect(out);
+        return out;
+    }
+
+    private static HttpRequest post(String path, Map<String, String> headers, String body) {
+        return new HttpRequest("POST", path, "HTTP/1.1", headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.Session;
+
+/**
+ * 같은 프로세스에 띄운 SessionStoreServer 두 대를 쓰는 RemoteSessionStore 와 LocalSessionStore 의 put/get 비용을 비교한다.
+ * 원격 저장소는 near-cache 없이, 그리고 모든 세션이 들어가는 near-cache 를 켜고 각각 잰다.
+ * 루프백이라 실제 네트워크 지연은 빠져 있다. put 은 파일 쓰기를 백그라운드로 미루므로 그 비용을 포함하지 않는다.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=SessionStoreBenchmark 로 실행한다.
+ * 세션 수는 -Dbenchmark.sessions (기본 10,000), 조회 횟수는 -Dbenchmark.lookups (기본 100,000) 로 바꾼다.
+ */
+@Tag("benchmark")
+class SessionStoreBenchmark {
+    @TempDir
+    Path dir;
+
+    @Test
+    void remoteVersusLocal() throws IOException {
+        int count = Integer.getInteger("benchmark.sessions", 10_000);
+        int lookups = Integer.getInteger("benchmark.lookups", 100_000);
+
+        try (LocalSessionStore local = new LocalSessionStore(dir.resolve("local"));
+             LocalSessionStore backingA = new LocalSessionStore(dir.resolve("a"));
+             LocalSessionStore backingB = new LocalSessionStore(dir.resolve("b"));
+             SessionStoreServer nodeA = new SessionStoreServer(0, backingA).start();
+             SessionStoreServer nodeB = new SessionStoreServer(0, backingB).start()) {
+            List<String> addresses = List.of(nodeA.address(), nodeB.address());
+            Runnable flushNodes = () -> {
+                backingA.flush();
+                backingB.flush();
+            };
+            run("LocalSessionStore", local, local::flush, count, lookups);
+            try (RemoteSessionStore remote = new RemoteSessionStore(addresses, 128, 1_000, 4, 1_000, 0)) {
+                run("RemoteSessionStore", remote, flushNodes, count, lookups);
+            }
+            try (RemoteSessionStore cached = new RemoteSessionStore(addresses, 128, 1_000, 4, count, 60_000)) {
+                run("RemoteSessionStore + near-cache", cached, flushNodes, count, lookups);
+            }
+        }
+    }
+
+    /**
+     * 넣은 세션의 파일 쓰기(write-behind)를 조회 전에 끝내 두어, 조회 시간에 백그라운드 파일 I/O 가 섞이지 않게 한다.
+     */
+    private static void run(String label, SessionStore store, Runnable flush, int count, int lookups) {
+        System.out.printf("-- %s%n", label);
+        Random random = new Random(42);
+        long sink = 0;
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Session[] sessions = new Session[count];
+        for (int i = 0; i < count; i++) {
+            sessions[i] = new Session(UUID.randomUUID().toString(), "user" + i, now, now.plusMinutes(30));
+        }
+        for (int round = 0; round < 2; round++) { // 첫 회는 예열, 두 번째는 같은 세션을 덮어쓴다
+            long started = System.nanoTime();
+            for (Session session : sessions) {
+                store.put(session);
+            }
+            long put = System.nanoTime() - started;
+            flush.run();
+
+            started = System.nanoTime();
+            for (int n = 0; n < lookups; n++) {
+                Session session = store.get(sessions[random.nextInt(count)].getSessionId());
+                assertNotNull(session);
+                sink += session.getUsername().length();
+            }
+            long get = System.nanoTime() - started;
+
+            if (round == 1) {
+                report("put", count, put);
+                report("random get", lookups, get);
+            }
+        }
+        assertTrue(sink > 0);
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+}
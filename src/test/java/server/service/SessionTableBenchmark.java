@@ -0,0 +1,134 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import server.model.Session;
+
+/**
+ * 세션 수에 따른 SessionTable 의 메모리와 조회 시간을 이전 ConcurrentHashMap&lt;String, Session&gt; 과 비교한다.
+ * 메모리는 GC 뒤 사용 중인 힙이 채우기 전보다 얼마나 늘었는지로 재며, 두 구조를 동시에 들고 있지 않도록 하나씩 만든다.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=SessionTableBenchmark 로 실행한다.
+ * 세션 수는 -Dbenchmark.sessions (기본 1000000,10000000), 조회 횟수는 -Dbenchmark.lookups (기본 1,000,000) 로 바꾼다.
+ * 힙이 모자라는 크기는 건너뛰므로 10M 까지 재려면 -DargLine=-Xmx4g 를 함께 준다.
+ */
+@Tag("benchmark")
+class SessionTableBenchmark {
+    /** 건너뛸지 판단할 때 쓰는 세션당 대략의 바이트 수(측정값보다 넉넉하게) */
+    private static final long TABLE_BYTES_PER_SESSION = 110;
+    private static final long MAP_BYTES_PER_SESSION = 360;
+    private static final int SAMPLE = 4096;
+
+    @Test
+    void memoryAndLookup() {
+        int lookups = Integer.getInteger("benchmark.lookups", 1_000_000);
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.sessions", "1000000,10000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        for (int count : sizes) {
+            System.out.printf("-- %,d sessions (max heap %,d MB)%n", count, Runtime.getRuntime().maxMemory() >> 20);
+            String[] sample = new String[SAMPLE];
+            Random random = new Random(count);
+            for (int k = 0; k < SAMPLE; k++) {
+                sample[k] = id(random.nextInt(count));
+            }
+
+            measure("SessionTable", count, TABLE_BYTES_PER_SESSION, lookups, sample, () -> {
+                SessionTable table = new SessionTable();
+                for (int i = 0; i < count; i++) {
+                    table.put(session(i, now));
+                }
+                assertEquals(count, table.size());
+                System.out.printf("%-42s %,12d bytes in slot arrays%n", "SessionTable.memoryBytes", table.memoryBytes());
+                return table::get;
+            });
+
+            measure("previous ConcurrentHashMap", count, MAP_BYTES_PER_SESSION, lookups, sample, () -> {
+                Map<String, Session> map = new ConcurrentHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    Session session = session(i, now);
+                    map.put(session.getSessionId(), session);
+                }
+                assertEquals(count, map.size());
+                return map::get;
+            });
+        }
+    }
+
+    /**
+     * 채우기 전후의 힙 차이를 세션당 바이트로 보고하고, 표본 ID 를 돌아가며 조회 시간을 잰다.
+     */
+    private static void measure(String label, int count, long bytesPerSession, int lookups, String[] sample,
+                                Supplier<Function<String, Session>> build) {
+        long before = usedHeap();
+        if (Runtime.getRuntime().maxMemory() - before < count * bytesPerSession) {
+            System.out.printf("%-42s skipped: needs about %,d MB of heap (-DargLine=-Xmx...)%n",
+                    label, (count * bytesPerSession + before) >> 20);
+            return;
+        }
+        Function<String, Session> lookup = build.get();
+        long bytes = usedHeap() - before;
+        System.out.printf("%-42s %,12d bytes %10.1f bytes/session%n", label + " heap", bytes, (double) bytes / count);
+
+        long sink = 0;
+        for (int round = 0; round < 2; round++) { // 첫 회는 예열
+            long started = System.nanoTime();
+            for (int n = 0; n < lookups; n++) {
+                Session session = lookup.apply(sample[n & (SAMPLE - 1)]);
+                assertNotNull(session);
+                sink += session.getUsername().length();
+            }
+            long nanos = System.nanoTime() - started;
+            if (round == 1) {
+                report(label + " get", lookups, nanos);
+            }
+        }
+        assertTrue(sink > 0);
+    }
+
+    /** 번호마다 정해진 정규형 UUID 문자열(splitmix64 로 섞은 두 long) */
+    private static String id(long i) {
+        return new UUID(mix(i), mix(i + 0x5DEECE66DL)).toString();
+    }
+
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** 사용자 10만 명이 세션을 나눠 가진다. 요청에서 온 이름처럼 세션마다 다른 String 객체를 쓴다. */
+    private static Session session(int i, LocalDateTime now) {
+        LocalDateTime createdAt = now.plusSeconds(i % 3_600);
+        return new Session(id(i), new String("user" + (i % 100_000)), createdAt, createdAt.plusMinutes(30));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+}
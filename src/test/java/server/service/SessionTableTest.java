@@ -0,0 +1,191 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.Session;
+
+class SessionTableTest {
+    private static final long NOW = SessionTable.toEpochSecond(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+    @Test
+    void putGetOverwriteAndRemove() {
+        SessionTable table = new SessionTable();
+        String id = UUID.randomUUID().toString();
+        table.put(session(id, "alice", NOW + 60));
+        table.put(session(id, "bob", NOW + 120));
+
+        Session found = table.get(id);
+        assertEquals("bob", found.getUsername());
+        assertEquals(NOW + 120, table.expiresAt(id));
+        assertEquals(1, table.size());
+
+        assertFalse(table.remove(id, NOW + 60), "만료 시각이 다르면 지우지 않는다");
+        assertTrue(table.remove(id, NOW + 120));
+        assertNull(table.get(id));
+        assertEquals(-1, table.expiresAt(id));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void extendOnlyMovesExpiryForward() {
+        SessionTable table = new SessionTable();
+        String id = UUID.randomUUID().toString();
+        table.put(session(id, "alice", NOW + 60));
+
+        assertFalse(table.extend(id, NOW + 30));
+        assertTrue(table.extend(id, NOW + 90));
+        assertEquals(NOW + 90, table.expiresAt(id));
+        assertFalse(table.extend(UUID.randomUUID().toString(), NOW + 90));
+    }
+
+    @Test
+    void rejectsIdsThatAreNotUuids() {
+        SessionTable table = new SessionTable();
+        assertNull(table.get("not-a-session"));
+        assertFalse(table.remove("../etc/passwd", -1));
+        assertThrows(IllegalArgumentException.class, () -> table.put(session("abc", "alice", NOW)));
+    }
+
+    @Test
+    void rejectsNonCanonicalSpellingsOfStoredIds() {
+        SessionTable table = new SessionTable();
+        String id = UUID.randomUUID().toString();
+        String upper = id.toUpperCase(Locale.ROOT);
+        table.put(session(id, "alice", NOW + 60));
+
+        assertNull(table.get(upper));
+        assertEquals(-1, table.expiresAt(upper));
+        assertFalse(table.extend(upper, NOW + 120));
+        assertFalse(table.remove(upper, -1));
+        assertThrows(IllegalArgumentException.class, () -> table.put(session(upper, "mallory", NOW + 60)));
+        assertEquals(id, table.get(id).getSessionId());
+        assertEquals(1, table.size());
+    }
+
+    /**
+     * 대문자 ID 로 지우려 해도 메모리와 파일이 함께 남고, 정규형 ID 로 지운 세션은 재시작 후 되살아나지 않는다.
+     */
+    @Test
+    void localStoreKeepsTableAndFilesInStepForMixedCaseIds(@TempDir Path dir) {
+        String id = UUID.randomUUID().toString();
+        LocalSessionStore store = new LocalSessionStore(dir);
+        store.put(new Session(id, "alice", LocalDateTime.now(), LocalDateTime.now().plusHours(1)));
+        assertFalse(store.remove(id.toUpperCase(Locale.ROOT)));
+        store.close();
+
+        store = new LocalSessionStore(dir);
+        assertNotNull(store.get(id));
+        assertTrue(store.remove(id));
+        store.close();
+
+        store = new LocalSessionStore(dir);
+        assertNull(store.get(id));
+        store.close();
+    }
+
+    /**
+     * 넣고 지우기를 반복해 지운 자리(REMOVED)가 쌓이고 크기가 바뀌어도 HashMap 과 같은 내용을 유지한다.
+     */
+    @Test
+    void matchesMapModelUnderChurn() {
+        SessionTable table = new SessionTable();
+        Map<String, Long> model = new HashMap<>();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        Random random = new Random(7);
+        for (int step = 0; step < 50_000; step++) {
+            String id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(3) == 0) {
+                assertEquals(model.remove(id) != null, table.remove(id, -1));
+            } else {
+                long expires = NOW + random.nextInt(10_000);
+                table.put(session(id, "user" + (step % 50), expires));
+                model.put(id, expires);
+            }
+        }
+        assertEquals(model.size(), table.size());
+        for (String id : ids) {
+            assertEquals(model.getOrDefault(id, -1L), table.expiresAt(id), id);
+        }
+    }
+
+    /**
+     * 쓰기(크기 변경 포함)가 계속되는 동안 낙관적 읽기가 다른 세션의 값을 돌려주지 않는다.
+     */
+    @Test
+    void readersNeverSeeTornEntriesWhileWritersResize() throws Exception {
+        SessionTable table = new SessionTable();
+        List<String> stable = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String id = UUID.randomUUID().toString();
+            stable.add(id);
+            table.put(session(id, "stable" + i, NOW + i));
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                for (int round = 0; round < 20; round++) {
+                    List<String> churn = new ArrayList<>();
+                    for (int i = 0; i < 5_000; i++) {
+                        String id = UUID.randomUUID().toString();
+                        churn.add(id);
+                        table.put(session(id, "churn", NOW));
+                    }
+                    for (String id : churn) {
+                        table.remove(id, -1);
+                    }
+                }
+                done.set(true);
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!done.get()) {
+                        for (int i = 0; i < stable.size(); i++) {
+                            Session s = table.get(stable.get(i));
+                            assertNotNull(s);
+                            assertEquals("stable" + i, s.getUsername());
+                            assertEquals(NOW + i, SessionTable.toEpochSecond(s.getExpiresAt()));
+                        }
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(stable.size(), table.size());
+    }
+
+    private static Session session(String id, String username, long expiresAt) {
+        return new Session(id, username, SessionTable.toDateTime(NOW - 60), SessionTable.toDateTime(expiresAt));
+    }
+}
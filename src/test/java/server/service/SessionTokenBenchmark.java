@@ -0,0 +1,122 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.Session;
+
+/**
+ * 서명 토큰 검증(SessionTokenService.verify)과 저장소 기반 세션 조회의 비용을 비교한다.
+ * 저장소 쪽은 지금의 SessionManager + LocalSessionStore(메모리 테이블)와,
+ * 요청마다 세션 파일을 읽어 파싱하던 이전 방식(같은 파일 형식)을 함께 잰다.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=SessionTokenBenchmark 로 실행한다.
+ * 세션 수는 -Dbenchmark.sessions (기본 10,000), 조회 횟수는 -Dbenchmark.lookups (기본 200,000) 로 바꾼다.
+ */
+@Tag("benchmark")
+class SessionTokenBenchmark {
+    private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void verifyVersusLookup() throws IOException {
+        int count = Integer.getInteger("benchmark.sessions", 10_000);
+        int lookups = Integer.getInteger("benchmark.lookups", 200_000);
+        Path keys = dir.resolve("session-keys");
+        Files.writeString(keys, "k1 " + Base64.getEncoder().encodeToString(new byte[32]) + "\n");
+        Path files = Files.createDirectories(dir.resolve("files"));
+
+        LocalSessionStore store = new LocalSessionStore(dir.resolve("sessions"));
+        try (SessionManager sessions = new SessionManager(store);
+             SessionTokenService tokens = new SessionTokenService(keys, store)) {
+            String[] tokenIds = new String[count];
+            String[] sessionIds = new String[count];
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            for (int i = 0; i < count; i++) {
+                tokenIds[i] = tokens.issue("user" + i, 30).getSessionId();
+                Session session = new Session(UUID.randomUUID().toString(), "user" + i, now, now.plusMinutes(30));
+                store.put(session);
+                sessionIds[i] = session.getSessionId();
+                writeFile(files, session);
+            }
+
+            Random random = new Random(42);
+            int[] picks = new int[lookups];
+            for (int i = 0; i < lookups; i++) {
+                picks[i] = random.nextInt(count);
+            }
+
+            long sink = 0;
+            for (int round = 0; round < 2; round++) { // 첫 회는 예열
+                long started = System.nanoTime();
+                for (int pick : picks) {
+                    sink += tokens.verify(tokenIds[pick]).orElseThrow().getUsername().length();
+                }
+                long verify = System.nanoTime() - started;
+
+                started = System.nanoTime();
+                for (int pick : picks) {
+                    sink += sessions.getValidSession(sessionIds[pick]).orElseThrow().getUsername().length();
+                }
+                long table = System.nanoTime() - started;
+
+                started = System.nanoTime();
+                for (int pick : picks) {
+                    Session session = readFile(files, sessionIds[pick]);
+                    assertNotNull(session);
+                    sink += session.getUsername().length();
+                }
+                long file = System.nanoTime() - started;
+
+                if (round == 1) {
+                    System.out.printf("-- %,d sessions%n", count);
+                    report("HMAC token verify", lookups, verify);
+                    report("SessionManager + LocalSessionStore", lookups, table);
+                    report("previous session file read", lookups, file);
+                }
+            }
+            assertTrue(sink > 0);
+        }
+    }
+
+    /** LocalSessionStore 의 세션 파일과 같은 형식으로 쓴다. */
+    private static void writeFile(Path files, Session session) throws IOException {
+        Files.writeString(files.resolve(session.getSessionId() + ".txt"),
+                "sessionId:" + session.getSessionId() + "\n"
+                        + "username:" + session.getUsername() + "\n"
+                        + "createdAt:" + session.getCreatedAt().format(DATETIME_FORMAT) + "\n"
+                        + "expiresAt:" + session.getExpiresAt().format(DATETIME_FORMAT) + "\n");
+    }
+
+    /** 이전 SessionManager 가 요청마다 하던 것처럼 파일을 읽어 파싱하고 만료를 확인한다. */
+    private static Session readFile(Path files, String sessionId) throws IOException {
+        Path file = files.resolve(sessionId + ".txt");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String[] lines = Files.readString(file).split("\n");
+        Session session = new Session(lines[0].substring(10), lines[1].substring(9),
+                LocalDateTime.parse(lines[2].substring(10), DATETIME_FORMAT),
+                LocalDateTime.parse(lines[3].substring(10), DATETIME_FORMAT));
+        return session.isExpired() ? null : session;
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+}
@@ -0,0 +1,130 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.Session;
+
+/**
+ * 같은 키 파일과 세션 저장소를 쓰는 두 노드를 흉내 내어, 한 노드의 로그아웃이 다른 노드에도 통하는지 확인한다.
+ * 백그라운드 갱신 주기를 기다리지 않고 refreshRevocations 를 직접 부른다.
+ */
+class SessionTokenServiceTest {
+    @TempDir
+    Path dir;
+
+    private LocalSessionStore store;
+    private SessionTokenService nodeA;
+    private SessionTokenService nodeB;
+
+    @BeforeEach
+    void start() throws IOException {
+        Path keys = dir.resolve("session-keys");
+        Files.writeString(keys, "k1 " + Base64.getEncoder().encodeToString(new byte[32]) + "\n");
+        store = new LocalSessionStore(dir.resolve("sessions"));
+        nodeA = new SessionTokenService(keys, store);
+        nodeB = new SessionTokenService(keys, store);
+    }
+
+    @AfterEach
+    void stop() {
+        nodeA.close();
+        nodeB.close();
+        store.close();
+    }
+
+    @Test
+    void logoutOnOneNodeIsRejectedOnAnother() {
+        Session session = nodeA.issue("alice", 30);
+        assertEquals("alice", nodeB.verify(session.getSessionId()).orElseThrow().getUsername());
+
+        Session other = nodeA.issue("bob", 30);
+        nodeA.revoke(other.getSessionId());
+
+        assertFalse(nodeA.verify(other.getSessionId()).isPresent());
+        nodeB.refreshRevocations();
+        assertFalse(nodeB.verify(other.getSessionId()).isPresent());
+        assertTrue(nodeB.verify(session.getSessionId()).isPresent());
+    }
+
+    @Test
+    void revocationIsNotStoredAsSession() {
+        Session session = nodeA.issue("alice", 30);
+        nodeA.revoke(session.getSessionId());
+
+        assertEquals(0, store.size());
+        assertEquals(1, store.revocations().size());
+    }
+
+    /**
+     * 검증은 메모리의 폐기 목록만 보므로, 저장소가 내려가 있어도 서명이 맞는 토큰은 통한다.
+     */
+    @Test
+    void verifyDoesNotReadTheStore() throws IOException {
+        try (SessionTokenService service = new SessionTokenService(dir.resolve("session-keys"), new DownStore())) {
+            Session session = service.issue("alice", 30);
+            assertEquals("alice", service.verify(session.getSessionId()).orElseThrow().getUsername());
+        }
+    }
+
+    @Test
+    void revocationSurvivesRestart() throws IOException {
+        Session session = nodeA.issue("alice", 30);
+        nodeA.revoke(session.getSessionId());
+        store.close();
+
+        store = new LocalSessionStore(dir.resolve("sessions"));
+        try (SessionTokenService restarted = new SessionTokenService(dir.resolve("session-keys"), store)) {
+            assertFalse(restarted.verify(session.getSessionId()).isPresent());
+        }
+    }
+
+    /** 모든 호출이 실패하는 저장소 */
+    private static final class DownStore implements SessionStore {
+        @Override
+        public void put(Session session) {
+            throw down();
+        }
+
+        @Override
+        public Session get(String sessionId) {
+            throw down();
+        }
+
+        @Override
+        public boolean extend(String sessionId, long newExpiresAt) {
+            throw down();
+        }
+
+        @Override
+        public boolean remove(String sessionId) {
+            throw down();
+        }
+
+        @Override
+        public void revoke(String tokenId, long expiresAt) {
+            throw down();
+        }
+
+        @Override
+        public Map<String, Long> revocations() {
+            throw down();
+        }
+
+        private static SessionStoreUnavailableException down() {
+            return new SessionStoreUnavailableException("session store down", null);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.User;
+
+/**
+ * 대량 사용자에서의 UserDatabase 삽입/조회/색인 재구성 시간.
+ * 기본 빌드에서는 돌지 않으며 mvn -Pbenchmark test -Dtest=UserDatabaseBenchmark 로 실행한다.
+ * 사용자 수는 -Dbenchmark.users (기본 1,000,000) 로 바꾼다.
+ */
+@Tag("benchmark")
+class UserDatabaseBenchmark {
+    private static final int LOOKUPS = 200_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void insertLookupAndRebuild() throws IOException {
+        int users = Integer.getInteger("benchmark.users", 1_000_000);
+        Path db = dir.resolve("db");
+
+        long started = System.nanoTime();
+        try (UserDatabase database = new UserDatabase(db, 1024, 1024)) {
+            for (int i = 0; i < users; i++) {
+                database.insert(new User("user" + i, "pbkdf2_sha256$600000$salt$hash" + i), false);
+            }
+            database.checkpoint();
+            long insertNanos = System.nanoTime() - started;
+            report("insert (non-durable, one checkpoint)", users, insertNanos);
+
+            Random random = new Random(42);
+            for (int i = 0; i < LOOKUPS; i++) { // 예열
+                database.get("user" + random.nextInt(users));
+            }
+            started = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                assertNotNull(database.get("user" + random.nextInt(users)));
+            }
+            report("random get", LOOKUPS, System.nanoTime() - started);
+            started = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                database.get("missing" + i);
+            }
+            report("missing get", LOOKUPS, System.nanoTime() - started);
+            System.out.printf("data %,d bytes, index %,d bytes%n", database.dataBytes(), database.indexBytes());
+        }
+
+        started = System.nanoTime();
+        try (UserDatabase database = new UserDatabase(db, 1024, 1024)) {
+            assertEquals(users, database.size());
+        }
+        report("clean reopen", 1, System.nanoTime() - started);
+
+        Files.delete(db.resolve("users.idx"));
+        started = System.nanoTime();
+        try (UserDatabase database = new UserDatabase(db, 1024, 1024)) {
+            assertEquals(users, database.size());
+        }
+        report("reopen with index rebuilt from data file", 1, System.nanoTime() - started);
+    }
+
+    private static void report(String what, int operations, long nanos) {
+        System.out.printf("%-42s %,12d ops %10.1f ms %10.2f us/op%n",
+                what, operations, nanos / 1e6, nanos / 1e3 / operations);
+    }
+}
@@ -0,0 +1,243 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.User;
+
+/**
+ * UserDatabase 의 저장/복구 동작.
+ * 비정상 종료는 열려 있는 데이터베이스의 파일을 그대로 복사해 흉내 낸다.
+ * 데이터 파일은 write 로, 색인은 공유 매핑으로 쓰므로 복사본에는 그 순간까지 쓴 내용이 모두 들어 있다.
+ */
+class UserDatabaseTest {
+    private static final int CAPACITY = 64;
+    private static final int CACHE_PAGES = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenKeepsUsersAndLastLogin() throws IOException {
+        Path db = dir.resolve("db");
+        LocalDateTime login = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        try (UserDatabase database = open(db)) {
+            assertTrue(database.insert(new User("alice", "h1")));
+            assertFalse(database.insert(new User("alice", "h2")));
+            assertTrue(database.updateLastLogin("alice", login));
+        }
+        try (UserDatabase database = open(db)) {
+            User alice = database.get("alice");
+            assertNotNull(alice);
+            assertEquals("h1", alice.getPasswordHash());
+            assertEquals(login, alice.getLastLoginAt());
+            assertEquals(1, database.size());
+        }
+    }
+
+    @Test
+    void tornTailIsTruncated() throws IOException {
+        Path db = dir.resolve("db");
+        Path crashed = dir.resolve("crashed");
+        try (UserDatabase database = open(db)) {
+            insertAll(database, "a", "b", "c");
+            database.checkpoint();
+            database.insert(new User("torn", "h"));
+            crashCopy(db, crashed);
+        }
+        long length = Files.size(crashed.resolve("users.dat"));
+        truncate(crashed.resolve("users.dat"), length - 5);
+
+        try (UserDatabase database = open(crashed)) {
+            assertNotNull(database.get("a"));
+            assertNotNull(database.get("b"));
+            assertNotNull(database.get("c"));
+            assertNull(database.get("torn"));
+            assertEquals(3, database.size());
+            assertTrue(database.insert(new User("after", "h")));
+        }
+        try (UserDatabase database = open(crashed)) {
+            assertEquals("h", database.get("after").getPasswordHash());
+            assertEquals(Set.of("a", "b", "c", "after"), usernames(database));
+        }
+    }
+
+    @Test
+    void replaysRecordsAfterCheckpoint() throws IOException {
+        Path db = dir.resolve("db");
+        Path crashed = dir.resolve("crashed");
+        Files.createDirectories(crashed);
+        try (UserDatabase database = open(db)) {
+            insertAll(database, "a", "b");
+            database.checkpoint();
+            // 색인은 checkpoint 시점의 것, 데이터 파일은 그 뒤의 레코드까지 들어 있는 상태
+            Files.copy(db.resolve("users.idx"), crashed.resolve("users.idx"));
+            insertAll(database, "c", "d");
+            assertTrue(database.update(new User("a", "changed")));
+            Files.copy(db.resolve("users.dat"), crashed.resolve("users.dat"));
+        }
+
+        try (UserDatabase database = open(crashed)) {
+            assertEquals(Set.of("a", "b", "c", "d"), usernames(database));
+            assertEquals("changed", database.get("a").getPasswordHash());
+        }
+    }
+
+    /**
+     * 처음 가져오는 도중(checkpoint 0) 종료되어 색인 페이지만 디스크에 남고 데이터 꼬리는 사라진 경우.
+     * 잘린 위치 뒤를 가리키는 슬롯이 남아 있으면 안 된다.
+     */
+    @Test
+    void crashDuringFirstImportRebuildsIndex() throws IOException {
+        Path db = dir.resolve("db");
+        Path crashed = dir.resolve("crashed");
+        try (UserDatabase database = open(db)) {
+            for (int i = 0; i < 200; i++) {
+                assertTrue(database.insert(new User("user" + i, "hash" + i), false));
+            }
+            crashCopy(db, crashed);
+        }
+        long length = Files.size(crashed.resolve("users.dat"));
+        truncate(crashed.resolve("users.dat"), length / 2 + 3);
+
+        try (UserDatabase database = open(crashed)) {
+            Set<String> survived = assertDoesNotThrow(() -> usernames(database));
+            assertEquals(survived.size(), database.size());
+            assertTrue(survived.size() > 0 && survived.size() < 200);
+            for (int i = 0; i < 200; i++) {
+                String name = "user" + i;
+                User user = assertDoesNotThrow(() -> database.get(name));
+                assertEquals(survived.contains(name), user != null, name);
+            }
+            // 잘려 나간 위치를 새 레코드가 다시 쓰더라도 다른 이름으로 잘못 찾히지 않아야 한다.
+            assertTrue(database.insert(new User("user199", "again")));
+            assertTrue(database.insert(new User("fresh", "h")));
+            assertEquals("again", database.get("user199").getPasswordHash());
+            assertEquals("h", database.get("fresh").getPasswordHash());
+        }
+        try (UserDatabase database = open(crashed)) {
+            assertEquals("again", database.get("user199").getPasswordHash());
+            assertEquals(database.size(), usernames(database).size());
+        }
+    }
+
+    @Test
+    void indexGrowsPastInitialCapacity() throws IOException {
+        Path db = dir.resolve("db");
+        try (UserDatabase database = open(db)) {
+            for (int i = 0; i < CAPACITY * 4; i++) {
+                assertTrue(database.insert(new User("user" + i, "h"), false));
+            }
+            database.checkpoint();
+        }
+        try (UserDatabase database = open(db)) {
+            assertEquals(CAPACITY * 4, database.size());
+            assertNotNull(database.get("user0"));
+            assertNotNull(database.get("user" + (CAPACITY * 4 - 1)));
+        }
+    }
+
+    /**
+     * 여러 스레드가 같은 이름들을 동시에 durable 로 넣어도 이름마다 정확히 한 번만 성공하고,
+     * 성공한 쪽의 레코드가 색인과 다시 연 뒤의 데이터 파일 모두에 남는다.
+     */
+    @Test
+    void concurrentInsertsOfSameNameSucceedExactlyOnce() throws Exception {
+        int threads = 8;
+        int names = 200;
+        Path db = dir.resolve("db");
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Set<String>> wonBy = new ArrayList<>();
+        try (UserDatabase database = open(db)) {
+            CyclicBarrier start = new CyclicBarrier(threads);
+            List<Future<Set<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String writer = "writer" + t;
+                results.add(pool.submit(() -> {
+                    Set<String> won = new HashSet<>();
+                    start.await();
+                    for (int i = 0; i < names; i++) {
+                        if (database.insert(new User("user" + i, writer), true)) {
+                            won.add("user" + i);
+                        }
+                    }
+                    return won;
+                }));
+            }
+            for (Future<Set<String>> result : results) {
+                wonBy.add(result.get());
+            }
+            assertEquals(names, database.size());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Set<String> all = new HashSet<>();
+        for (Set<String> won : wonBy) {
+            for (String name : won) {
+                assertTrue(all.add(name), name + " 이 두 번 등록되었다");
+            }
+        }
+        assertEquals(names, all.size());
+        try (UserDatabase database = open(db)) {
+            assertEquals(all, usernames(database));
+            for (int t = 0; t < threads; t++) {
+                for (String name : wonBy.get(t)) {
+                    assertEquals("writer" + t, database.get(name).getPasswordHash(), name);
+                }
+            }
+        }
+    }
+
+    private static UserDatabase open(Path db) throws IOException {
+        return new UserDatabase(db, CAPACITY, CACHE_PAGES);
+    }
+
+    private static void insertAll(UserDatabase database, String... names) throws IOException {
+        for (String name : names) {
+            assertTrue(database.insert(new User(name, "h")));
+        }
+    }
+
+    private static Set<String> usernames(UserDatabase database) throws IOException {
+        Set<String> names = new HashSet<>();
+        database.forEachUsername(names::add);
+        return names;
+    }
+
+    private static void crashCopy(Path from, Path to) throws IOException {
+        Files.createDirectories(to);
+        for (String file : new String[] {"users.dat", "users.idx"}) {
+            Files.copy(from.resolve(file), to.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void truncate(Path file, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UserRepositoryTest {
+    @TempDir
+    Path dir;
+
+    /**
+     * 같은 이름으로 동시에 가입하면 한 요청만 성공하고, 저장된 비밀번호는 그 요청의 것이다.
+     */
+    @Test
+    void concurrentRegistrationOfSameNameSucceedsExactlyOnce() throws Exception {
+        int clients = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try (UserRepository users = new UserRepository(dir.resolve("users"))) {
+            CyclicBarrier start = new CyclicBarrier(clients);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                String password = "password" + i;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return users.registerUser("alice", password);
+                }));
+            }
+            int winner = -1;
+            for (int i = 0; i < clients; i++) {
+                if (results.get(i).get()) {
+                    assertEquals(-1, winner, "두 요청이 모두 성공했다");
+                    winner = i;
+                }
+            }
+            assertTrue(winner >= 0, "아무 요청도 성공하지 못했다");
+            assertFalse(users.isRegistering("alice"));
+            for (int i = 0; i < clients; i++) {
+                assertEquals(i == winner, users.authenticateUser("alice", "password" + i));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package server.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import server.model.User;
+
+class UsernameFilterTest {
+    private static final int ENTRIES = 100_000;
+    private static final double TARGET_FPP = 0.01;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void neverReportsAddedNameAsMissing() {
+        UsernameFilter filter = new UsernameFilter(ENTRIES, TARGET_FPP);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.add("user" + i);
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain("user" + i), "user" + i);
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    /**
+     * 예상 개수만큼 담았을 때 실제 오탐률이 목표의 두 배를 넘지 않고, 추정값도 그 근처다.
+     */
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        UsernameFilter filter = new UsernameFilter(ENTRIES, TARGET_FPP);
+        for (int i = 0; i < ENTRIES; i++) {
+            filter.add("user" + i);
+        }
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("missing" + i)) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+        assertTrue(measured < TARGET_FPP * 2, "measured " + measured);
+        assertTrue(filter.estimatedFalsePositiveRate() < TARGET_FPP * 2, "estimated " + filter.estimatedFalsePositiveRate());
+
+        filter.add("one-more");
+        assertTrue(filter.isSaturated());
+    }
+
+    @Test
+    void concurrentAddsLoseNoBits() throws Exception {
+        UsernameFilter filter = new UsernameFilter(ENTRIES, TARGET_FPP);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                writers.add(pool.submit(() -> {
+                    for (int i = offset; i < ENTRIES; i += 4) {
+                        filter.add("user" + i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain("user" + i), "user" + i);
+        }
+    }
+
+    /**
+     * 저장소에 있는 사용자는 필터 때문에 없는 것으로 답해지지 않는다(다시 열어 필터를 새로 만든 뒤 포함).
+     */
+    @Test
+    void repositoryFindsEveryStoredUser() throws Exception {
+        Path users = dir.resolve("users");
+        try (UserDatabase database = new UserDatabase(users, 1024, 64)) {
+            for (int i = 0; i < 5_000; i++) {
+                database.insert(new User("user" + i, "h"), false);
+            }
+            database.checkpoint();
+        }
+        try (UserRepository repository = new UserRepository(users)) {
+            for (int i = 0; i < 5_000; i++) {
+                assertTrue(repository.userExists("user" + i), "user" + i);
+            }
+            assertFalse(repository.userExists("nobody"));
+        }
+    }
+}